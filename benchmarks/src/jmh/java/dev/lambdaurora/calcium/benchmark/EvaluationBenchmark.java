@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation of representative formulas, with and without the optimizer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvaluationBenchmark {
+    @Param({
+            "1 + 2 * 3",
+            "3*x**4 + 2*x**3 - x + 7",
+            "sin(x) * cos(x) + exp(-x**2) / sqrt(x**2 + 1)",
+            "abs(x - 2i) + ln(x) * log(x)",
+            "[1, 2; 3, 4] * [x, 1; 1, x]",
+            "reduce(map({1, 2, 3, 4, 5, 6, 7, 8}, k, k * x), a, b, a + b)"
+    })
+    public String formula;
+
+    @Param({"false", "true"})
+    public boolean optimized;
+
+    private Expression expression;
+    private SymbolTable symbolTable;
+
+    @Setup
+    public void setup() throws ParseException {
+        var expression = new Parser(new Lexer(this.formula)).parseExpression();
+        this.expression = this.optimized ? ExpressionOptimizer.optimize(expression) : expression;
+        this.symbolTable = new SymbolTable();
+        this.symbolTable.setVariable("x", new ComplexNumber(1.5));
+    }
+
+    @Benchmark
+    public Value evaluate() {
+        return this.expression.evaluate(this.symbolTable);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.math.GraphSnapshot;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the sampling of graphs over {@code [-10, 10]} at various step sizes,
+ * and their reduction to the points drawn on an 800 pixels wide viewer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GraphBenchmark {
+    @Param({"0.1", "0.01", "0.001"})
+    public double step;
+
+    @Param({"x**3 - 2*x + 1", "sin(x) * exp(-abs(x) / 4)"})
+    public String formula;
+
+    private Expression expression;
+    private Graph graph;
+    private GraphSnapshot snapshot;
+
+    @Setup
+    public void setup() throws ParseException {
+        this.expression = ExpressionOptimizer.optimize(new Parser(new Lexer(this.formula)).parseExpression());
+        this.graph = new Graph(-10, 10, this.step, this.expression);
+        this.snapshot = this.graph.snapshot();
+    }
+
+    @Benchmark
+    public Graph compute() {
+        // Setting the expression invalidates the samples, so every point is evaluated again.
+        this.graph.setExpression(this.expression);
+        return this.graph;
+    }
+
+    @Benchmark
+    public GraphSnapshot downsample() {
+        return this.snapshot.downsample(800);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.parser.Lexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lexer throughput on short and very long inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LexerBenchmark {
+    private static final String TERM = "3*x**4 + 2.5*sin(x) - 7 / (x + 1i) + abs(-x)! ";
+
+    /**
+     * The number of times the term is repeated in the input.
+     */
+    @Param({"1", "100", "10000"})
+    public int repetitions;
+
+    private String input;
+
+    @Setup
+    public void setup() {
+        this.input = TERM.repeat(this.repetitions) + "0";
+    }
+
+    @Benchmark
+    public void lex(Blackhole blackhole) {
+        var lexer = new Lexer(this.input);
+        while (lexer.hasNext()) {
+            blackhole.consume(lexer.next());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.MathHelper;
+import dev.lambdaurora.calcium.math.MathPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the elementary functions of {@link MathHelper} on real and complex arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathHelperBenchmark {
+    @Param({"real", "complex"})
+    public String argument;
+
+    @Param({"EXACT", "FAST"})
+    public MathPolicy policy;
+
+    private ComplexNumber z;
+
+    @Setup
+    public void setup() {
+        this.z = this.argument.equals("real") ? new ComplexNumber(0.7) : new ComplexNumber(0.7, -1.3);
+    }
+
+    @Benchmark
+    public ComplexNumber sqrt() {
+        return MathHelper.sqrt(this.z);
+    }
+
+    @Benchmark
+    public ComplexNumber exp() {
+        return MathHelper.exp(this.z, this.policy);
+    }
+
+    @Benchmark
+    public ComplexNumber ln() {
+        return MathHelper.ln(this.z, this.policy);
+    }
+
+    @Benchmark
+    public ComplexNumber sin() {
+        return MathHelper.sin(this.z, this.policy);
+    }
+
+    @Benchmark
+    public ComplexNumber cos() {
+        return MathHelper.cos(this.z, this.policy);
+    }
+
+    @Benchmark
+    public ComplexNumber tan() {
+        return MathHelper.tan(this.z, this.policy);
+    }
+
+    @Benchmark
+    public ComplexNumber atan() {
+        return MathHelper.atan(this.z);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parser, including the lexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    @Param({
+            "1 + 2",
+            "3*x**4 + 2*x**3 - x + 7",
+            "sin(x) * cos(x) + exp(-x**2) / sqrt(x**2 + 1)",
+            "[1, 2, 3; 4, 5, 6; 7, 8, 9] * [x; x**2; x**3]",
+            "sum(0, 100, k, map({1, 2, 3}, y, y * k)[0])"
+    })
+    public String formula;
+
+    @Benchmark
+    public Expression parse() throws ParseException {
+        return new Parser(new Lexer(this.formula)).parseExpression();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@code sum} function over large ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SumBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public long range;
+
+    @Param({"k", "k**2 + 1", "sin(k) / (k + 1)"})
+    public String body;
+
+    private Expression expression;
+    private SymbolTable symbolTable;
+
+    @Setup
+    public void setup() throws ParseException {
+        this.expression = new Parser(new Lexer("sum(0, " + this.range + ", k, " + this.body + ")")).parseExpression();
+        this.symbolTable = new SymbolTable();
+    }
+
+    @Benchmark
+    public Value sum() {
+        return this.expression.evaluate(this.symbolTable);
+    }
+}
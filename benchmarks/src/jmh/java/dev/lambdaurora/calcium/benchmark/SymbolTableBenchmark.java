@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.benchmark;
+
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation and the copy of symbol tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SymbolTableBenchmark {
+    /**
+     * The number of user variables in the copied symbol table.
+     */
+    @Param({"0", "10", "100"})
+    public int variables;
+
+    private SymbolTable symbolTable;
+
+    @Setup
+    public void setup() {
+        this.symbolTable = new SymbolTable();
+        for (int i = 0; i < this.variables; i++) {
+            this.symbolTable.setVariable("v" + i, new ComplexNumber(i));
+        }
+    }
+
+    @Benchmark
+    public SymbolTable create() {
+        return new SymbolTable();
+    }
+
+    @Benchmark
+    public SymbolTable copy() {
+        return this.symbolTable.copy();
+    }
+}
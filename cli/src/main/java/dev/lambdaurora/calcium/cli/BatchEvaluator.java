@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.cli;
+
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a batch evaluator, evaluating expressions line by line and writing one result line per expression.
+ * <p>
+ * Empty lines and lines starting with {@code #} are skipped. Errors are written in place of the result.
+ * <p>
+ * In sequential mode, the lines share the symbol table like in the calculator, so variables and {@code Ans} carry over.
+ * In parallel mode, the lines are evaluated independently by batches on multiple threads, and the results are written
+ * in the order of the lines: assignments and {@code Ans} do not carry over from one line to another.
+ * <p>
+ * Each line may be given a time budget, a line exceeding it is written as an error.
+ */
+public class BatchEvaluator {
+    private static final int BATCH_SIZE = 512;
+
+    private final SymbolTable symbolTable;
+    private final OutputFormat format;
+    private final int threads;
+    private final long timeoutMillis;
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Creates a new batch evaluator.
+     *
+     * @param symbolTable the symbol table
+     * @param format the output format
+     * @param threads the number of threads, {@code 1} to evaluate sequentially
+     * @param timeoutMillis the time budget in milliseconds of each line, or {@code 0} for no budget
+     */
+    public BatchEvaluator(SymbolTable symbolTable, OutputFormat format, int threads, long timeoutMillis) {
+        if (threads < 1)
+            throw new IllegalArgumentException("The thread count (" + threads + ") must be positive.");
+        if (timeoutMillis < 0)
+            throw new IllegalArgumentException("The timeout (" + timeoutMillis + ") cannot be negative.");
+        this.symbolTable = symbolTable;
+        this.format = format;
+        this.threads = threads;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Creates a new batch evaluator without time budget.
+     *
+     * @param symbolTable the symbol table
+     * @param format the output format
+     * @param threads the number of threads, {@code 1} to evaluate sequentially
+     */
+    public BatchEvaluator(SymbolTable symbolTable, OutputFormat format, int threads) {
+        this(symbolTable, format, threads, 0);
+    }
+
+    /**
+     * Returns the number of lines which failed to evaluate so far.
+     *
+     * @return the error count
+     */
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    /**
+     * Evaluates the lines of the given reader, and writes the results to the given writer.
+     *
+     * @param reader the reader
+     * @param writer the writer
+     * @throws IOException if the reader or the writer fails
+     */
+    public void run(BufferedReader reader, Writer writer) throws IOException {
+        if (this.threads == 1)
+            this.runSequential(reader, writer);
+        else
+            this.runParallel(reader, writer);
+    }
+
+    private void runSequential(BufferedReader reader, Writer writer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (isSkipped(line)) continue;
+            writer.write(this.evaluate(line, this.symbolTable, true));
+            writer.write('\n');
+        }
+    }
+
+    private void runParallel(BufferedReader reader, Writer writer) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            var thread = new Thread(runnable, "Calcium batch worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Pure lines only read the symbol table, so each worker shares one copy between its lines.
+        var workerTables = ThreadLocal.withInitial(this::copySymbolTable);
+        var pending = new ArrayDeque<Future<String[]>>();
+
+        try {
+            var batch = new ArrayList<String>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (isSkipped(line)) continue;
+                batch.add(line);
+
+                if (batch.size() == BATCH_SIZE) {
+                    pending.add(this.submit(executor, batch, workerTables));
+                    batch = new ArrayList<>(BATCH_SIZE);
+
+                    // Bounds the results waiting in memory, writing them in the order of the lines.
+                    while (pending.size() >= this.threads * 4) {
+                        write(writer, pending.poll());
+                    }
+                }
+            }
+            if (!batch.isEmpty())
+                pending.add(this.submit(executor, batch, workerTables));
+
+            while (!pending.isEmpty()) {
+                write(writer, pending.poll());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Future<String[]> submit(ExecutorService executor, List<String> batch, ThreadLocal<SymbolTable> workerTables) {
+        return executor.submit(() -> {
+            var table = workerTables.get();
+            var results = new String[batch.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = this.evaluate(batch.get(i), table, false);
+            }
+            return results;
+        });
+    }
+
+    private static void write(Writer writer, Future<String[]> results) throws IOException {
+        try {
+            for (var result : results.get()) {
+                writer.write(result);
+                writer.write('\n');
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the results.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The evaluation of a batch failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Evaluates a line and returns the result or the error as a string.
+     *
+     * @param line the line
+     * @param table the symbol table
+     * @param shared {@code true} if the lines share the symbol table, otherwise {@code false}
+     * @return the result line
+     */
+    private String evaluate(String line, SymbolTable table, boolean shared) {
+        try {
+            var expression = ExpressionOptimizer.optimize(new Parser(new Lexer(line)).parseExpression());
+
+            if (!shared && !expression.isPure(table))
+                table = this.copySymbolTable();
+            if (this.timeoutMillis != 0)
+                table.setEvaluationContext(EvaluationContext.withTimeBudget(this.timeoutMillis, TimeUnit.MILLISECONDS));
+
+            if (shared)
+                return this.format.format(table.evaluateExpression(expression));
+            else
+                return this.format.format(expression.evaluate(table));
+        } catch (ParseException e) {
+            this.errors.increment();
+            return e.getClass().getSimpleName() + ": " + e.getMessage() + " (at column " + (e.getErrorOffset() + 1) + ")";
+        } catch (RuntimeException e) {
+            this.errors.increment();
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        } catch (StackOverflowError e) {
+            // Deeply nested expressions overflow the recursive lexer, parser or evaluator, the thread itself is fine.
+            this.errors.increment();
+            return "StackOverflowError: The expression is nested too deeply.";
+        }
+    }
+
+    private SymbolTable copySymbolTable() {
+        // Copying splits the random generator of the symbol table, which is not thread-safe.
+        synchronized (this.symbolTable) {
+            return this.symbolTable.copy();
+        }
+    }
+
+    private static boolean isSkipped(String line) {
+        var trimmed = line.strip();
+        return trimmed.isEmpty() || trimmed.charAt(0) == '#';
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.cli;
+
+import dev.lambdaurora.calcium.math.MathPolicy;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * The headless command line interface, evaluating expressions line by line from the standard input or from files.
+ */
+public class Main {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static void main(String[] args) {
+        var format = OutputFormat.DECIMAL;
+        int threads = 1;
+        long timeout = 0;
+        var symbolTable = new SymbolTable();
+        var files = new ArrayList<String>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-h", "--help" -> {
+                        printHelp();
+                        return;
+                    }
+                    case "-f", "--format" -> format = OutputFormat.byId(nextArgument(args, ++i));
+                    case "-p", "--parallel" -> threads = Runtime.getRuntime().availableProcessors();
+                    case "-t", "--threads" -> threads = Integer.parseInt(nextArgument(args, ++i));
+                    case "--fast-math" -> symbolTable.setMathPolicy(MathPolicy.FAST);
+                    case "--seed" -> symbolTable.setSeed(Long.parseLong(nextArgument(args, ++i)));
+                    case "--timeout" -> timeout = Long.parseLong(nextArgument(args, ++i));
+                    default -> files.add(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        if (files.isEmpty())
+            files.add("-");
+
+        BatchEvaluator evaluator;
+        try {
+            evaluator = new BatchEvaluator(symbolTable, format, Math.max(1, threads), timeout * 1000);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        try (var writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8),
+                BUFFER_SIZE)) {
+            for (var file : files) {
+                try (var reader = file.equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE)
+                        : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                    evaluator.run(reader, writer);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(2);
+        }
+
+        if (evaluator.getErrors() != 0)
+            System.exit(1);
+    }
+
+    private static String nextArgument(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("Missing value for option " + args[i - 1] + ".");
+        return args[i];
+    }
+
+    private static void printHelp() {
+        System.out.println("""
+                Usage: calcium-cli [options] [files...]
+
+                Evaluates the expressions of the given files, or of the standard input, one per line.
+
+                Options:
+                  -f, --format <format>  the output format: decimal, digits, binary, ieee754, octal or hex
+                  -p, --parallel         evaluates the lines independently on all the processors
+                  -t, --threads <count>  evaluates the lines independently on the given number of threads
+                      --fast-math        uses the fast elementary functions
+                      --seed <seed>      seeds the random number generator
+                      --timeout <secs>   the time budget of each line, none by default
+                  -h, --help             prints this help""");
+    }
+}
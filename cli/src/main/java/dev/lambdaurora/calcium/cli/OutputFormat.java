@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.cli;
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.util.NumberFormatters;
+
+import java.util.function.DoubleFunction;
+
+/**
+ * Represents the different output formats of the values printed by the command line interface.
+ */
+public enum OutputFormat {
+    DECIMAL("decimal", NumberFormatters.SCIENTIFIC_FORMATTER),
+    DIGITS("digits", NumberFormatters.ALL_DIGITS_FORMATTER),
+    BINARY("binary", NumberFormatters.BINARY_FORMATTER),
+    IEEE_754("ieee754", NumberFormatters.IEEE_745_FORMATTER),
+    OCTAL("octal", NumberFormatters.OCTAL_FORMATTER),
+    HEX("hex", NumberFormatters.HEX_FORMATTER);
+
+    private final String id;
+    private final DoubleFunction<String> formatter;
+
+    OutputFormat(String id, DoubleFunction<String> formatter) {
+        this.id = id;
+        this.formatter = formatter;
+    }
+
+    /**
+     * Returns the identifier of this output format, as given on the command line.
+     *
+     * @return the identifier
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Formats the given value.
+     * <p>
+     * The numbers of vectors, matrices and lists are formatted too.
+     *
+     * @param value the value to format
+     * @return the formatted value
+     */
+    public String format(Value value) {
+        if (value instanceof ComplexNumber complex)
+            return complex.toStringWithFormat(this.formatter);
+        else if (value instanceof ComplexArray vector)
+            return vector.toStringWithFormat(this.formatter);
+        else if (value instanceof ComplexMatrix matrix)
+            return matrix.toStringWithFormat(this.formatter);
+        else if (value instanceof ListValue list) {
+            var builder = new StringBuilder("{");
+            for (int i = 0; i < list.size(); i++) {
+                if (i != 0) builder.append(", ");
+                builder.append(this.format(list.get(i)));
+            }
+            return builder.append('}').toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Returns the output format of the given identifier.
+     *
+     * @param id the identifier
+     * @return the output format
+     * @throws IllegalArgumentException if no output format has the given identifier
+     */
+    public static OutputFormat byId(String id) {
+        for (var format : values()) {
+            if (format.id.equals(id))
+                return format;
+        }
+        throw new IllegalArgumentException("Unknown output format \"" + id + "\".");
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.cli.BatchEvaluator;
+import dev.lambdaurora.calcium.cli.OutputFormat;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BatchEvaluatorTests {
+    private static String run(BatchEvaluator evaluator, String input) throws IOException {
+        var writer = new StringWriter();
+        evaluator.run(new BufferedReader(new StringReader(input)), writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testSequential() throws IOException {
+        var evaluator = new BatchEvaluator(new SymbolTable(), OutputFormat.DECIMAL, 1);
+        var output = run(evaluator, "x = 2\n# comment\n\nx * 3\nAns + 1\n1 +\ny\n");
+
+        var lines = output.split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("2", lines[0]);
+        assertEquals("6", lines[1]);
+        assertEquals("7", lines[2]);
+        assertEquals("ParseException: ", lines[3].substring(0, 16));
+        assertEquals("IllegalStateException: No variable with the name \"y\" could have been found.", lines[4]);
+        assertEquals(2, evaluator.getErrors());
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        var symbolTable = new SymbolTable();
+        symbolTable.setVariable("a", new ComplexNumber(10));
+
+        var input = new StringBuilder();
+        var expected = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 100 == 0) {
+                input.append("b = ").append(i).append('\n');
+                expected.append(i).append('\n');
+            } else if (i % 100 == 50) {
+                // Assignments do not carry over from one line to another.
+                input.append("b\n");
+                expected.append("IllegalStateException: No variable with the name \"b\" could have been found.\n");
+            } else {
+                input.append("a + ").append(i).append('\n');
+                expected.append(10 + i).append('\n');
+            }
+        }
+
+        var evaluator = new BatchEvaluator(symbolTable, OutputFormat.DECIMAL, 4);
+        assertEquals(expected.toString(), run(evaluator, input.toString()));
+        assertEquals(20, evaluator.getErrors());
+        assertNull(symbolTable.getVariable("b"));
+
+        // Independent lines give the same output in both modes, errors included.
+        var lines = "a * 2\nsin(0)\n{1, 2}\n[1, 2; 3, 4]\n1 /\nc\n";
+        assertEquals(run(new BatchEvaluator(symbolTable, OutputFormat.DECIMAL, 1), lines),
+                run(new BatchEvaluator(symbolTable, OutputFormat.DECIMAL, 3), lines));
+    }
+
+    @Test
+    public void testDeepNesting() throws IOException {
+        var nested = "(".repeat(20000) + "1" + ")".repeat(20000);
+        var input = "1 + 1\n" + nested + "\n2 + 2\n";
+        var expected = "2\nStackOverflowError: The expression is nested too deeply.\n4\n";
+
+        for (int threads : new int[] {1, 2}) {
+            var evaluator = new BatchEvaluator(new SymbolTable(), OutputFormat.DECIMAL, threads);
+            assertEquals(expected, run(evaluator, input));
+            assertEquals(1, evaluator.getErrors());
+        }
+    }
+
+    @Test
+    public void testFormat() throws IOException {
+        var evaluator = new BatchEvaluator(new SymbolTable(), OutputFormat.HEX, 1);
+        assertEquals("a\n[1, 2]\n[1, 2; 3, ff]\n{10, {1, [2]}}\n",
+                run(evaluator, "10\n[1, 2]\n[1, 2; 3, 255]\n{16, {1, [2]}}\n"));
+    }
+}
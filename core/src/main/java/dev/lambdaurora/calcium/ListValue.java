@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents an immutable list of values, like {@code {1, 2, 3}}.
+ *
+ * @param values the values of the list
+ */
+public record ListValue(List<Value> values) implements Value {
+    public ListValue {
+        values = List.copyOf(values);
+    }
+
+    /**
+     * Returns the size of this list.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.values.size();
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public Value get(int index) {
+        Objects.checkIndex(index, this.values.size());
+        return this.values.get(index);
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("{");
+        for (int i = 0; i < this.values.size(); i++) {
+            if (i != 0) builder.append(", ");
+            builder.append(this.values.get(i));
+        }
+        return builder.append('}').toString();
+    }
+}
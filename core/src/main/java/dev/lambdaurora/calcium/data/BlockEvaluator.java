@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import dev.lambdaurora.calcium.expression.*;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.MathPolicy;
+import dev.lambdaurora.calcium.symbol.BuiltinSymbols;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Represents an evaluator of an expression over blocks of column values.
+ * <p>
+ * Expressions made of real arithmetic and elementary functions are compiled to a tree of nodes evaluating a whole block
+ * at once with real arithmetic. Other expressions are interpreted element by element on a copy of the symbol table.
+ * In both cases, results which are not real numbers, and divisions by zero, are {@code NaN}.
+ * <p>
+ * Only the compiled evaluators are exposed outside of this package, see {@link #compiled(Expression, List, SymbolTable, int)}.
+ */
+public abstract class BlockEvaluator {
+    /**
+     * Evaluates the expression over a block.
+     *
+     * @param columns the blocks of the input columns
+     * @param output the output block
+     * @param length the number of elements in the block
+     */
+    public abstract void evaluate(double[][] columns, double[] output, int length);
+
+    /**
+     * Creates an evaluator of the given expression.
+     *
+     * @param expression the expression
+     * @param columns the names of the columns, in the order of the input blocks
+     * @param symbolTable the symbol table
+     * @param blockSize the maximum number of elements in a block
+     * @return the evaluator
+     */
+    static BlockEvaluator of(Expression expression, List<String> columns, SymbolTable symbolTable, int blockSize) {
+        var node = compile(expression, columns, symbolTable, blockSize);
+        if (node != null)
+            return new Compiled(node);
+        return new Interpreted(expression, columns, symbolTable);
+    }
+
+    /**
+     * Creates a compiled evaluator of the given expression, if it is made of real arithmetic and elementary functions.
+     * <p>
+     * The evaluator holds its own scratch blocks and must not be shared between threads.
+     *
+     * @param expression the expression
+     * @param columns the names of the columns, in the order of the input blocks
+     * @param symbolTable the symbol table
+     * @param blockSize the maximum number of elements in a block
+     * @return the evaluator, or {@code null} if the expression cannot be compiled
+     */
+    public static BlockEvaluator compiled(Expression expression, List<String> columns, SymbolTable symbolTable, int blockSize) {
+        var node = compile(expression, columns, symbolTable, blockSize);
+        return node == null ? null : new Compiled(node);
+    }
+
+    private static Node compile(Expression expression, List<String> columns, SymbolTable symbolTable, int blockSize) {
+        if (expression instanceof LiteralExpression literal) {
+            return constant(literal.getConstant());
+        } else if (expression instanceof IdentifierExpression identifier) {
+            int column = columns.indexOf(identifier.id());
+            if (column != -1)
+                return (inputs, output, length) -> System.arraycopy(inputs[column], 0, output, 0, length);
+
+            var variable = symbolTable.getVariable(identifier.id());
+            if (variable == null)
+                throw new IllegalStateException("No variable with the name \"" + identifier.id() + "\" could have been found.");
+            return variable.getValue() instanceof ComplexNumber value ? constant(value) : null;
+        } else if (expression instanceof InvertExpression invert) {
+            return unary(compile(invert.getRight(), columns, symbolTable, blockSize), x -> -x);
+        } else if (expression instanceof AbsoluteExpression absolute) {
+            return unary(compile(absolute.expression(), columns, symbolTable, blockSize), Math::abs);
+        } else if (expression instanceof PolynomialExpression polynomial) {
+            return polynomial(polynomial, columns, symbolTable, blockSize);
+        } else if (expression instanceof FunctionCallExpression call) {
+            if (call.args().size() != 1 || BuiltinSymbols.getFunction(call.id()) == null)
+                return null;
+            var function = function(call.id(), symbolTable.getMathPolicy());
+            return function == null ? null : unary(compile(call.args().get(0), columns, symbolTable, blockSize), function);
+        } else if (expression instanceof BinaryExpression binary) {
+            var operator = operator(binary);
+            if (operator == null)
+                return null;
+            var left = compile(binary.getLeft(), columns, symbolTable, blockSize);
+            var right = compile(binary.getRight(), columns, symbolTable, blockSize);
+            if (left == null || right == null)
+                return null;
+
+            var scratch = new double[blockSize];
+            return (inputs, output, length) -> {
+                left.evaluate(inputs, output, length);
+                right.evaluate(inputs, scratch, length);
+                operator.apply(output, scratch, length);
+            };
+        }
+
+        return null;
+    }
+
+    private static Node constant(ComplexNumber value) {
+        // Non-real constants cannot be represented, the expression has to be interpreted.
+        if (!value.isReal())
+            return null;
+        double constant = value.real();
+        return (inputs, output, length) -> Arrays.fill(output, 0, length, constant);
+    }
+
+    private static Node unary(Node operand, DoubleUnaryOperator function) {
+        if (operand == null)
+            return null;
+        return (inputs, output, length) -> {
+            operand.evaluate(inputs, output, length);
+            for (int i = 0; i < length; i++) {
+                output[i] = function.applyAsDouble(output[i]);
+            }
+        };
+    }
+
+    private static Node polynomial(PolynomialExpression polynomial, List<String> columns, SymbolTable symbolTable, int blockSize) {
+        var variable = compile(new IdentifierExpression(polynomial.getVariable()), columns, symbolTable, blockSize);
+        var coefficients = new double[polynomial.getDegree() + 1];
+        for (int degree = 0; degree < coefficients.length; degree++) {
+            var coefficient = polynomial.getCoefficient(degree);
+            if (!coefficient.isReal())
+                return null;
+            coefficients[degree] = coefficient.real();
+        }
+        if (variable == null)
+            return null;
+
+        var values = new double[blockSize];
+        return (inputs, output, length) -> {
+            variable.evaluate(inputs, values, length);
+            for (int i = 0; i < length; i++) {
+                double x = values[i];
+                double result = coefficients[coefficients.length - 1];
+                for (int degree = coefficients.length - 2; degree >= 0; degree--) {
+                    result = result * x + coefficients[degree];
+                }
+                output[i] = result;
+            }
+        };
+    }
+
+    private static DoubleUnaryOperator function(String id, MathPolicy policy) {
+        return switch (id) {
+            case "abs" -> Math::abs;
+            case "sqr" -> x -> x * x;
+            case "sqrt" -> Math::sqrt;
+            case "exp" -> policy::exp;
+            case "ln" -> policy::log;
+            case "log" -> Math::log10;
+            case "cos" -> policy::cos;
+            case "sin" -> policy::sin;
+            case "tan" -> policy::tan;
+            case "acos" -> Math::acos;
+            case "asin" -> Math::asin;
+            case "atan" -> Math::atan;
+            case "cosh" -> policy::cosh;
+            case "sinh" -> policy::sinh;
+            case "tanh" -> policy::tanh;
+            default -> null;
+        };
+    }
+
+    private static Operator operator(BinaryExpression expression) {
+        if (expression instanceof AddExpression) {
+            return (left, right, length) -> {
+                for (int i = 0; i < length; i++) left[i] += right[i];
+            };
+        } else if (expression instanceof SubtractExpression) {
+            return (left, right, length) -> {
+                for (int i = 0; i < length; i++) left[i] -= right[i];
+            };
+        } else if (expression instanceof MultiplyExpression) {
+            return (left, right, length) -> {
+                for (int i = 0; i < length; i++) left[i] *= right[i];
+            };
+        } else if (expression instanceof DivideExpression) {
+            return (left, right, length) -> {
+                for (int i = 0; i < length; i++) left[i] = right[i] == 0.0 ? Double.NaN : left[i] / right[i];
+            };
+        } else if (expression instanceof ExponentExpression) {
+            return (left, right, length) -> {
+                for (int i = 0; i < length; i++) left[i] = pow(left[i], right[i]);
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Raises a real number to a real power like {@link ExponentExpression#pow(ComplexNumber, ComplexNumber)},
+     * so {@code 0 ** n} is {@code 0} and a negative base gives {@code NaN} when the power is not real.
+     * Integer powers are computed by squaring rather than by the repeated multiplication of the interpreter,
+     * which may differ in the last bits.
+     */
+    private static double pow(double x, double n) {
+        if (x == 0.0)
+            return 0.0;
+
+        if (n > 1 && n == (long) n) {
+            // Integer powers by squaring, in O(log n) multiplications whatever the power.
+            double result = 1.0;
+            double square = x;
+            for (long e = (long) n; e != 0; e >>= 1) {
+                if ((e & 1) != 0)
+                    result *= square;
+                square *= square;
+            }
+            return result;
+        }
+
+        if (x > 0.0)
+            return Math.pow(x, n);
+        else if (x < 0.0 && n == 0.0)
+            return 1.0;
+        return Double.NaN;
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        void evaluate(double[][] inputs, double[] output, int length);
+    }
+
+    @FunctionalInterface
+    private interface Operator {
+        void apply(double[] left, double[] right, int length);
+    }
+
+    private static final class Compiled extends BlockEvaluator {
+        private final Node node;
+
+        private Compiled(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public void evaluate(double[][] columns, double[] output, int length) {
+            this.node.evaluate(columns, output, length);
+        }
+    }
+
+    private static final class Interpreted extends BlockEvaluator {
+        private final Expression expression;
+        private final List<String> columns;
+        private final SymbolTable scope;
+
+        private Interpreted(Expression expression, List<String> columns, SymbolTable symbolTable) {
+            this.expression = expression;
+            this.columns = columns;
+            this.scope = symbolTable.copy();
+        }
+
+        @Override
+        public void evaluate(double[][] columns, double[] output, int length) {
+            for (int i = 0; i < length; i++) {
+                for (int column = 0; column < columns.length; column++) {
+                    this.scope.setVariable(this.columns.get(column), new ComplexNumber(columns[column][i]));
+                }
+
+                try {
+                    var result = Expression.expectComplex(this.expression.evaluate(this.scope));
+                    output[i] = result.isReal() ? result.real() : Double.NaN;
+                } catch (ArithmeticException e) {
+                    output[i] = Double.NaN;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Evaluates an expression over columns stored in binary files of little-endian {@code double}s, like a column calculator.
+ * <p>
+ * The column files are memory-mapped by windows and bound to the variables of the expression,
+ * which is evaluated by blocks small enough to stay in the cache.
+ * The result column is written to a new memory-mapped file, so only a block of each column is ever copied on the heap.
+ * <p>
+ * The expression is evaluated with real arithmetic: results which are not real numbers, and divisions by zero, are {@code NaN}.
+ */
+public final class ColumnEvaluator {
+    private static final int BLOCK_SIZE = 2048;
+    // Number of rows mapped at once for each column, 64 MiB of doubles.
+    private static final int WINDOW_ROWS = 1 << 23;
+
+    private ColumnEvaluator() {
+        throw new UnsupportedOperationException("ColumnEvaluator only contains static definitions.");
+    }
+
+    /**
+     * Evaluates the given expression over the given column files, and writes the result column to the output file.
+     *
+     * @param expression the expression to evaluate
+     * @param inputs the column files, by the name of the variable they are bound to
+     * @param output the output file, which is overwritten
+     * @param symbolTable the symbol table
+     * @return the number of rows
+     * @throws IOException if a file cannot be read or written
+     * @throws IllegalArgumentException if the column files do not have the same number of rows
+     */
+    public static long evaluate(Expression expression, Map<String, Path> inputs, Path output, SymbolTable symbolTable) throws IOException {
+        var columns = new ArrayList<String>(inputs.size());
+        var channels = new ArrayList<FileChannel>(inputs.size());
+        try {
+            long rows = -1;
+            for (var entry : inputs.entrySet()) {
+                var channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ);
+                channels.add(channel);
+                columns.add(entry.getKey());
+
+                long size = channel.size();
+                if (size % Double.BYTES != 0)
+                    throw new IllegalArgumentException("The size of the column file " + entry.getValue() + " is not a multiple of "
+                            + Double.BYTES + " bytes.");
+                if (rows != -1 && size / Double.BYTES != rows)
+                    throw new IllegalArgumentException("The column " + entry.getKey() + " has " + size / Double.BYTES
+                            + " rows, while the previous columns have " + rows + " rows.");
+                rows = size / Double.BYTES;
+            }
+            if (rows == -1)
+                throw new IllegalArgumentException("At least one column is expected.");
+
+            var evaluator = BlockEvaluator.of(expression, columns, symbolTable, BLOCK_SIZE);
+            var blocks = new double[columns.size()][BLOCK_SIZE];
+            var result = new double[BLOCK_SIZE];
+            var windows = new DoubleBuffer[columns.size()];
+
+            try (var outputChannel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (long first = 0; first < rows; first += WINDOW_ROWS) {
+                    int windowRows = (int) Math.min(WINDOW_ROWS, rows - first);
+                    long position = first * Double.BYTES;
+                    long size = (long) windowRows * Double.BYTES;
+
+                    for (int column = 0; column < windows.length; column++) {
+                        windows[column] = channels.get(column).map(FileChannel.MapMode.READ_ONLY, position, size)
+                                .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                    }
+                    var outputWindow = outputChannel.map(FileChannel.MapMode.READ_WRITE, position, size)
+                            .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+
+                    for (int offset = 0; offset < windowRows; offset += BLOCK_SIZE) {
+                        int length = Math.min(BLOCK_SIZE, windowRows - offset);
+                        for (int column = 0; column < windows.length; column++) {
+                            windows[column].get(blocks[column], 0, length);
+                        }
+                        evaluator.evaluate(blocks, result, length);
+                        outputWindow.put(result, 0, length);
+                    }
+                }
+            }
+
+            return rows;
+        } finally {
+            for (var channel : channels) {
+                channel.close();
+            }
+        }
+    }
+}
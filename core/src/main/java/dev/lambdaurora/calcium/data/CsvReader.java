@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a streaming reader of numerical CSV files, or of newline-delimited files with a single column.
+ * <p>
+ * The file is read through a buffered channel line by line, and only the requested columns are parsed,
+ * so files larger than the memory can be read.
+ * Empty fields are read as {@code NaN}.
+ */
+public final class CsvReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAX_FAST_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11,
+            1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22
+    };
+
+    private final Path path;
+    private final byte separator;
+    private final boolean header;
+    private List<String> columns;
+
+    /**
+     * Creates a new CSV reader.
+     *
+     * @param path the path of the file
+     * @param separator the field separator
+     * @param header {@code true} if the first line of the file contains the column names, otherwise {@code false}
+     */
+    public CsvReader(Path path, char separator, boolean header) {
+        if (separator > 0x7f || separator == '\n' || separator == '\r' || separator == '.' || separator == '-')
+            throw new IllegalArgumentException("Invalid separator '" + separator + "'.");
+        this.path = path;
+        this.separator = (byte) separator;
+        this.header = header;
+    }
+
+    /**
+     * Creates a new CSV reader of a comma-separated file with a header.
+     *
+     * @param path the path of the file
+     */
+    public CsvReader(Path path) {
+        this(path, ',', true);
+    }
+
+    /**
+     * Returns the names of the columns.
+     * <p>
+     * Without a header, the columns are named like spreadsheet columns: {@code A}, {@code B}, ..., {@code Z}, {@code AA}, etc.
+     *
+     * @return the column names
+     * @throws IOException if the file cannot be read
+     */
+    public List<String> getColumns() throws IOException {
+        if (this.columns == null) {
+            var firstLine = new LineReader().readFirstLine();
+            var names = new ArrayList<String>();
+            int start = 0;
+            for (int i = 0; i <= firstLine.length; i++) {
+                if (i == firstLine.length || firstLine[i] == this.separator) {
+                    names.add(this.header ? new String(firstLine, start, i - start, StandardCharsets.UTF_8).trim()
+                            : getDefaultColumnName(names.size()));
+                    start = i + 1;
+                }
+            }
+            this.columns = Collections.unmodifiableList(names);
+        }
+        return this.columns;
+    }
+
+    /**
+     * Returns the index of the given column.
+     *
+     * @param column the column name
+     * @return the index of the column
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the column does not exist
+     */
+    public int getColumnIndex(String column) throws IOException {
+        int index = this.getColumns().indexOf(column);
+        if (index == -1)
+            throw new IllegalArgumentException("No column with the name \"" + column + "\" could have been found.");
+        return index;
+    }
+
+    /**
+     * Reads the rows of the file, parsing only the given columns.
+     * <p>
+     * The row array given to the consumer is reused between rows, its values are in the order of the requested columns.
+     *
+     * @param columns the indices of the columns to read
+     * @param consumer the row consumer
+     * @throws IOException if the file cannot be read
+     */
+    public void read(int[] columns, RowConsumer consumer) throws IOException {
+        int fieldCount = 0;
+        for (int column : columns) {
+            if (column < 0)
+                throw new IllegalArgumentException("Invalid column index " + column + ".");
+            fieldCount = Math.max(fieldCount, column + 1);
+        }
+
+        // Maps each field index to the slots of the row it fills.
+        var slots = new int[fieldCount][];
+        for (int field = 0; field < fieldCount; field++) {
+            int count = 0;
+            for (int column : columns) if (column == field) count++;
+            slots[field] = new int[count];
+            count = 0;
+            for (int slot = 0; slot < columns.length; slot++) if (columns[slot] == field) slots[field][count++] = slot;
+        }
+
+        var row = new double[columns.length];
+        new LineReader().forEachLine(this.header, (buffer, start, end, line) -> {
+            Arrays.fill(row, Double.NaN);
+            int field = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end && field < slots.length; i++) {
+                if (i == end || buffer[i] == this.separator) {
+                    if (slots[field].length != 0) {
+                        double value = parseDouble(buffer, fieldStart, i, line, field);
+                        for (int slot : slots[field]) row[slot] = value;
+                    }
+                    field++;
+                    fieldStart = i + 1;
+                }
+            }
+            consumer.accept(row);
+        });
+    }
+
+    private static String getDefaultColumnName(int index) {
+        var builder = new StringBuilder();
+        index++;
+        while (index > 0) {
+            index--;
+            builder.append((char) ('A' + index % 26));
+            index /= 26;
+        }
+        return builder.reverse().toString();
+    }
+
+    /**
+     * Parses the number written in the given bytes.
+     * <p>
+     * Decimal numbers whose digits fit in a double are converted exactly with a single multiplication or division,
+     * other numbers fall back to {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(byte[] buffer, int start, int end, long line, int field) {
+        while (start < end && buffer[start] <= ' ') start++;
+        while (end > start && buffer[end - 1] <= ' ') end--;
+        if (start == end)
+            return Double.NaN;
+
+        int i = start;
+        boolean negative = false;
+        if (buffer[i] == '-' || buffer[i] == '+') {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fast = true;
+        boolean dot = false;
+        for (; i < end; i++) {
+            byte c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                if (mantissa >= MAX_FAST_MANTISSA / 10) {
+                    fast = false;
+                    break;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (dot) exponent--;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+
+        if (fast && digits != 0 && i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            int value = 0;
+            int exponentStart = i;
+            for (; i < end && buffer[i] >= '0' && buffer[i] <= '9' && value < 1000; i++) {
+                value = value * 10 + (buffer[i] - '0');
+            }
+            if (i == exponentStart) fast = false;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (fast && digits != 0 && i == end && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        var string = new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        try {
+            return Double.parseDouble(string);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Could not parse number \"" + string + "\" at line " + line + ", column " + (field + 1) + ".");
+        }
+    }
+
+    /**
+     * Represents a consumer of the rows of a file.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * Accepts a row.
+         *
+         * @param row the values of the requested columns
+         */
+        void accept(double[] row);
+    }
+
+    @FunctionalInterface
+    private interface LineConsumer {
+        void accept(byte[] buffer, int start, int end, long line);
+    }
+
+    /**
+     * Reads the lines of the file through a buffered channel, growing the buffer only for lines longer than it.
+     */
+    private final class LineReader {
+        private byte[] buffer = new byte[BUFFER_SIZE];
+
+        private byte[] readFirstLine() throws IOException {
+            var result = new byte[][]{new byte[0]};
+            try {
+                this.forEachLine(false, (buffer, start, end, line) -> {
+                    result[0] = Arrays.copyOfRange(buffer, start, end);
+                    throw new StopException();
+                });
+            } catch (StopException e) {
+                // The first line has been read.
+            }
+            return result[0];
+        }
+
+        private void forEachLine(boolean skipFirst, LineConsumer consumer) throws IOException {
+            try (var channel = FileChannel.open(CsvReader.this.path, StandardOpenOption.READ)) {
+                int length = 0;
+                long line = 0;
+                boolean eof = false;
+                while (!eof) {
+                    if (length == this.buffer.length)
+                        this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+
+                    int read = channel.read(ByteBuffer.wrap(this.buffer, length, this.buffer.length - length));
+                    if (read == -1) {
+                        eof = true;
+                        // The last line may not end with a line feed.
+                        if (length == 0) break;
+                        if (this.buffer.length == length)
+                            this.buffer = Arrays.copyOf(this.buffer, length + 1);
+                        this.buffer[length++] = '\n';
+                    } else {
+                        length += read;
+                    }
+
+                    int start = 0;
+                    for (int i = 0; i < length; i++) {
+                        if (this.buffer[i] == '\n') {
+                            int end = i > start && this.buffer[i - 1] == '\r' ? i - 1 : i;
+                            line++;
+                            if (end > start && !(skipFirst && line == 1))
+                                consumer.accept(this.buffer, start, end, line);
+                            start = i + 1;
+                        }
+                    }
+
+                    // Keeps the incomplete line at the start of the buffer.
+                    System.arraycopy(this.buffer, start, this.buffer, 0, length - start);
+                    length -= start;
+                }
+            }
+        }
+    }
+
+    private static final class StopException extends RuntimeException {
+        private StopException() {
+            super(null, null, false, false);
+        }
+    }
+}
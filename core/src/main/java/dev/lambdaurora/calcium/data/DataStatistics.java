@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.IdentifierExpression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Provides one-pass statistics over the columns of data files.
+ * <p>
+ * Example, binding the statistics of the product of two columns as {@code power_mean}, {@code power_max}, etc.:
+ * <pre>{@code
+ * var reader = new CsvReader(Path.of("sensors.csv"));
+ * var expression = new Parser(new Lexer("voltage * current")).parseExpression();
+ * DataStatistics.compute(reader, expression, symbolTable).bind(symbolTable, "power");
+ * }</pre>
+ */
+public final class DataStatistics {
+    private DataStatistics() {
+        throw new UnsupportedOperationException("DataStatistics only contains static definitions.");
+    }
+
+    /**
+     * Computes the statistics of the given column.
+     *
+     * @param reader the reader of the data file
+     * @param column the column name
+     * @param probabilities the probabilities of the quantiles to estimate
+     * @return the statistics
+     * @throws IOException if the file cannot be read
+     */
+    public static RunningStatistics compute(CsvReader reader, String column, double... probabilities) throws IOException {
+        var statistics = probabilities.length == 0 ? new RunningStatistics() : new RunningStatistics(probabilities);
+        reader.read(new int[]{reader.getColumnIndex(column)}, row -> statistics.accept(row[0]));
+        return statistics;
+    }
+
+    /**
+     * Computes the statistics of the given expression, evaluated for each row with the columns bound as variables.
+     * <p>
+     * Only the columns used by the expression are parsed, and they take precedence over the variables of the same name.
+     * Missing values make the expression evaluate to {@code NaN}, and are ignored.
+     *
+     * @param reader the reader of the data file
+     * @param expression the expression to evaluate, which must evaluate to real numbers
+     * @param symbolTable the symbol table
+     * @param probabilities the probabilities of the quantiles to estimate
+     * @return the statistics
+     * @throws IOException if the file cannot be read
+     */
+    public static RunningStatistics compute(CsvReader reader, Expression expression, SymbolTable symbolTable, double... probabilities)
+            throws IOException {
+        if (expression instanceof IdentifierExpression identifier && reader.getColumns().contains(identifier.id()))
+            return compute(reader, identifier.id(), probabilities);
+
+        var statistics = probabilities.length == 0 ? new RunningStatistics() : new RunningStatistics(probabilities);
+
+        var identifiers = new LinkedHashSet<String>();
+        collectIdentifiers(expression, identifiers);
+        var names = new ArrayList<String>();
+        var indices = new ArrayList<Integer>();
+        for (var identifier : identifiers) {
+            int index = reader.getColumns().indexOf(identifier);
+            if (index != -1) {
+                names.add(identifier);
+                indices.add(index);
+            }
+        }
+
+        var scope = symbolTable.copy();
+        reader.read(indices.stream().mapToInt(Integer::intValue).toArray(), row -> {
+            for (int i = 0; i < row.length; i++) {
+                scope.setVariable(names.get(i), new ComplexNumber(row[i]));
+            }
+
+            var result = Expression.expectComplex(expression.evaluate(scope));
+            if (Double.isNaN(result.real()) || Double.isNaN(result.imaginary()))
+                return;
+            else if (!result.isReal())
+                throw new IllegalArgumentException("The expression evaluated to a non-real number (" + result + ").");
+            statistics.accept(result.real());
+        });
+        return statistics;
+    }
+
+    private static void collectIdentifiers(Expression expression, Set<String> identifiers) {
+        if (expression instanceof IdentifierExpression identifier)
+            identifiers.add(identifier.id());
+
+        for (var child : expression.getChildren()) {
+            collectIdentifiers(child, identifiers);
+        }
+    }
+}
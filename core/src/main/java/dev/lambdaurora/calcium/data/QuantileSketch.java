@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import java.util.Arrays;
+
+/**
+ * Represents a streaming estimator of a quantile, using the P² algorithm of Jain and Chlamtac.
+ * <p>
+ * The estimator only keeps five markers, whatever the number of values it accepted.
+ * The quantile is exact while fewer than five values were accepted.
+ */
+public final class QuantileSketch {
+    private final double probability;
+    private final double[] heights = new double[5];
+    private final int[] positions = {0, 1, 2, 3, 4};
+    private final double[] desiredPositions;
+    private final double[] increments;
+    private long count;
+
+    /**
+     * Creates a new quantile sketch.
+     *
+     * @param probability the probability of the quantile, between 0 and 1
+     */
+    public QuantileSketch(double probability) {
+        if (!(probability >= 0.0 && probability <= 1.0))
+            throw new IllegalArgumentException("The probability (" + probability + ") must be between 0 and 1.");
+        this.probability = probability;
+        this.desiredPositions = new double[]{0, 2 * probability, 4 * probability, 2 + 2 * probability, 4};
+        this.increments = new double[]{0, probability / 2, probability, (1 + probability) / 2, 1};
+    }
+
+    /**
+     * Returns the probability of the estimated quantile.
+     *
+     * @return the probability
+     */
+    public double getProbability() {
+        return this.probability;
+    }
+
+    /**
+     * Accepts a new value.
+     *
+     * @param value the value
+     */
+    public void accept(double value) {
+        if (this.count < 5) {
+            this.heights[(int) this.count++] = value;
+            if (this.count == 5) Arrays.sort(this.heights);
+            return;
+        }
+        this.count++;
+
+        int cell;
+        if (value < this.heights[0]) {
+            this.heights[0] = value;
+            cell = 0;
+        } else if (value >= this.heights[4]) {
+            this.heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (value >= this.heights[cell + 1]) cell++;
+        }
+
+        for (int i = cell + 1; i < 5; i++) this.positions[i]++;
+        for (int i = 0; i < 5; i++) this.desiredPositions[i] += this.increments[i];
+
+        // Adjusts the heights of the middle markers which are too far from their desired positions.
+        for (int i = 1; i < 4; i++) {
+            double delta = this.desiredPositions[i] - this.positions[i];
+            if ((delta >= 1 && this.positions[i + 1] - this.positions[i] > 1)
+                    || (delta <= -1 && this.positions[i - 1] - this.positions[i] < -1)) {
+                int sign = delta > 0 ? 1 : -1;
+                double height = this.parabolic(i, sign);
+                if (this.heights[i - 1] < height && height < this.heights[i + 1])
+                    this.heights[i] = height;
+                else
+                    this.heights[i] += sign * (this.heights[i + sign] - this.heights[i]) / (this.positions[i + sign] - this.positions[i]);
+                this.positions[i] += sign;
+            }
+        }
+    }
+
+    private double parabolic(int i, int sign) {
+        double previous = this.positions[i - 1];
+        double current = this.positions[i];
+        double next = this.positions[i + 1];
+        return this.heights[i] + sign / (next - previous)
+                * ((current - previous + sign) * (this.heights[i + 1] - this.heights[i]) / (next - current)
+                + (next - current - sign) * (this.heights[i] - this.heights[i - 1]) / (current - previous));
+    }
+
+    /**
+     * Returns the estimation of the quantile.
+     *
+     * @return the quantile, or {@code NaN} if no value was accepted
+     */
+    public double getQuantile() {
+        if (this.count == 0)
+            return Double.NaN;
+        else if (this.count >= 5)
+            return this.heights[2];
+
+        var values = Arrays.copyOf(this.heights, (int) this.count);
+        Arrays.sort(values);
+        double position = (values.length - 1) * this.probability;
+        int index = (int) position;
+        if (index == values.length - 1)
+            return values[index];
+        return values[index] + (position - index) * (values[index + 1] - values[index]);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.data;
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.ArrayList;
+
+/**
+ * Represents one-pass statistics of a stream of real numbers.
+ * <p>
+ * The mean and the variance are updated with Welford's algorithm, and the quantiles are estimated with {@link QuantileSketch}es.
+ * {@code NaN} values are treated as missing and ignored.
+ */
+public final class RunningStatistics {
+    private final QuantileSketch[] quantiles;
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates new running statistics, estimating the quantiles of the given probabilities.
+     *
+     * @param probabilities the probabilities of the quantiles to estimate
+     */
+    public RunningStatistics(double... probabilities) {
+        this.quantiles = new QuantileSketch[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            this.quantiles[i] = new QuantileSketch(probabilities[i]);
+        }
+    }
+
+    /**
+     * Creates new running statistics, estimating the quartiles.
+     */
+    public RunningStatistics() {
+        this(0.25, 0.5, 0.75);
+    }
+
+    /**
+     * Accepts a new value.
+     *
+     * @param value the value
+     */
+    public void accept(double value) {
+        if (Double.isNaN(value))
+            return;
+
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squaredDeviations += delta * (value - this.mean);
+
+        if (value < this.min) this.min = value;
+        if (value > this.max) this.max = value;
+
+        for (var quantile : this.quantiles) {
+            quantile.accept(value);
+        }
+    }
+
+    /**
+     * Returns the number of accepted values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the mean of the accepted values.
+     *
+     * @return the mean, or {@code NaN} if no value was accepted
+     */
+    public double getMean() {
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    /**
+     * Returns the sample variance of the accepted values.
+     *
+     * @return the variance, or {@code NaN} if fewer than two values were accepted
+     */
+    public double getVariance() {
+        return this.count < 2 ? Double.NaN : this.squaredDeviations / (this.count - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation of the accepted values.
+     *
+     * @return the standard deviation, or {@code NaN} if fewer than two values were accepted
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * Returns the minimum of the accepted values.
+     *
+     * @return the minimum, or {@code NaN} if no value was accepted
+     */
+    public double getMin() {
+        return this.count == 0 ? Double.NaN : this.min;
+    }
+
+    /**
+     * Returns the maximum of the accepted values.
+     *
+     * @return the maximum, or {@code NaN} if no value was accepted
+     */
+    public double getMax() {
+        return this.count == 0 ? Double.NaN : this.max;
+    }
+
+    /**
+     * Returns the estimation of the quantile of the given probability.
+     *
+     * @param probability the probability, which must be one of the estimated ones
+     * @return the quantile
+     */
+    public double getQuantile(double probability) {
+        for (var quantile : this.quantiles) {
+            if (quantile.getProbability() == probability)
+                return quantile.getQuantile();
+        }
+        throw new IllegalArgumentException("The quantile of probability " + probability + " is not estimated.");
+    }
+
+    /**
+     * Binds these statistics as variables into the given symbol table.
+     * <p>
+     * The variables are named after the given prefix: {@code <prefix>_count}, {@code <prefix>_mean}, {@code <prefix>_variance},
+     * {@code <prefix>_stddev}, {@code <prefix>_min}, {@code <prefix>_max}, and {@code <prefix>_quantiles} which is the list
+     * of the estimated quantiles. If the median is estimated, it is also bound as {@code <prefix>_median}.
+     *
+     * @param symbolTable the symbol table
+     * @param prefix the prefix of the variable names
+     */
+    public void bind(SymbolTable symbolTable, String prefix) {
+        symbolTable.setVariable(prefix + "_count", new ComplexNumber(this.count));
+        symbolTable.setVariable(prefix + "_mean", new ComplexNumber(this.getMean()));
+        symbolTable.setVariable(prefix + "_variance", new ComplexNumber(this.getVariance()));
+        symbolTable.setVariable(prefix + "_stddev", new ComplexNumber(this.getStandardDeviation()));
+        symbolTable.setVariable(prefix + "_min", new ComplexNumber(this.getMin()));
+        symbolTable.setVariable(prefix + "_max", new ComplexNumber(this.getMax()));
+
+        var quantiles = new ArrayList<Value>(this.quantiles.length);
+        for (var quantile : this.quantiles) {
+            quantiles.add(new ComplexNumber(quantile.getQuantile()));
+            if (quantile.getProbability() == 0.5)
+                symbolTable.setVariable(prefix + "_median", new ComplexNumber(quantile.getQuantile()));
+        }
+        symbolTable.setVariable(prefix + "_quantiles", new ListValue(quantiles));
+    }
+}
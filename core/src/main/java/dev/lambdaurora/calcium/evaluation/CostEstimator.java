@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.evaluation;
+
+import dev.lambdaurora.calcium.expression.*;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.ListFunction;
+import dev.lambdaurora.calcium.symbol.MonteCarloFunction;
+import dev.lambdaurora.calcium.symbol.SumFunction;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+/**
+ * Estimates the cost of evaluating expressions, in evaluated nodes.
+ * <p>
+ * Each node costs 1, and the bodies of loops are counted once per iteration: {@code sum}, {@code montecarlo},
+ * the list functions, factorials and integer powers. Loop bounds are found by evaluating their expression when it is pure
+ * and cheap, otherwise the loop is assumed to be long.
+ */
+public final class CostEstimator {
+    /**
+     * The assumed number of iterations of loops whose bounds cannot be estimated.
+     */
+    public static final long UNKNOWN_ITERATIONS = 1_000_000;
+    // Maximum cost of a loop bound expression for it to be evaluated while estimating.
+    private static final long MAX_BOUND_COST = 256;
+    // Assumed size of lists which are not literals.
+    private static final long UNKNOWN_LIST_SIZE = 1024;
+
+    private CostEstimator() {
+        throw new UnsupportedOperationException("CostEstimator only contains static definitions.");
+    }
+
+    /**
+     * Estimates the cost of evaluating the given expression.
+     *
+     * @param expression the expression
+     * @param symbolTable the symbol table the expression will be evaluated with
+     * @return the estimated cost, saturated at {@link Long#MAX_VALUE}
+     */
+    public static long estimate(Expression expression, SymbolTable symbolTable) {
+        if (expression instanceof FunctionCallExpression call) {
+            var function = symbolTable.getFunction(call.id());
+            var args = call.args();
+
+            if (function instanceof SumFunction && args.size() == 4) {
+                long minCost = estimate(args.get(0), symbolTable);
+                long maxCost = estimate(args.get(1), symbolTable);
+                var min = evaluateBound(args.get(0), minCost, symbolTable);
+                var max = evaluateBound(args.get(1), maxCost, symbolTable);
+                long iterations = min == null || max == null ? UNKNOWN_ITERATIONS : toIterations(max.real() - min.real());
+                return add(add(1, add(minCost, maxCost)), multiply(iterations, estimate(args.get(3), symbolTable)));
+            } else if (function instanceof MonteCarloFunction && args.size() == 3) {
+                long countCost = estimate(args.get(0), symbolTable);
+                return add(1 + countCost, multiply(iterations(args.get(0), countCost, symbolTable), estimate(args.get(2), symbolTable)));
+            } else if (function instanceof ListFunction && args.size() >= 3) {
+                long size = args.get(0) instanceof ListExpression list ? list.elements().size() : UNKNOWN_LIST_SIZE;
+                return add(1 + estimate(args.get(0), symbolTable), multiply(size, estimate(args.get(args.size() - 1), symbolTable)));
+            }
+        } else if (expression instanceof FactorialExpression factorial) {
+            long cost = estimate(factorial.n(), symbolTable);
+            return add(cost, iterations(factorial.n(), cost, symbolTable));
+        } else if (expression instanceof ExponentExpression exponent) {
+            // Integer powers are computed by repeated multiplications.
+            long rightCost = estimate(exponent.getRight(), symbolTable);
+            var value = evaluateBound(exponent.getRight(), rightCost, symbolTable);
+            long multiplications = 1;
+            if (value == null)
+                multiplications = UNKNOWN_ITERATIONS;
+            else if (value.isInteger() && value.real() > 1)
+                multiplications = toIterations(value.real());
+            return add(add(estimate(exponent.getLeft(), symbolTable), rightCost), multiplications);
+        }
+
+        long cost = 1;
+        for (var child : expression.getChildren()) {
+            cost = add(cost, estimate(child, symbolTable));
+        }
+        return cost;
+    }
+
+    private static long iterations(Expression count, long cost, SymbolTable symbolTable) {
+        var value = evaluateBound(count, cost, symbolTable);
+        return value == null ? UNKNOWN_ITERATIONS : toIterations(value.real());
+    }
+
+    private static long toIterations(double count) {
+        return count <= 0 ? 0 : (long) Math.min(count, Long.MAX_VALUE);
+    }
+
+    /**
+     * Evaluates a loop bound if it is pure and cheap.
+     *
+     * @return the real value of the bound, or {@code null} if it could not be evaluated
+     */
+    private static ComplexNumber evaluateBound(Expression expression, long cost, SymbolTable symbolTable) {
+        if (cost > MAX_BOUND_COST || !expression.isPure(symbolTable))
+            return null;
+        try {
+            if (expression.evaluate(symbolTable) instanceof ComplexNumber number && number.isReal() && !Double.isNaN(number.real()))
+                return number;
+        } catch (RuntimeException e) {
+            // The evaluation will fail the same way, which is cheap.
+            return ComplexNumber.ZERO;
+        }
+        return null;
+    }
+
+    private static long add(long a, long b) {
+        long result = a + b;
+        return result < 0 ? Long.MAX_VALUE : result;
+    }
+
+    private static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long result = a * b;
+        return high != 0 || result < 0 ? Long.MAX_VALUE : result;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.evaluation;
+
+/**
+ * Thrown when an evaluation is aborted by its {@link EvaluationContext}, because it was cancelled or exceeded its budget.
+ */
+public class EvaluationCancelledException extends RuntimeException {
+    private final Reason reason;
+
+    public EvaluationCancelledException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the reason the evaluation was aborted.
+     *
+     * @return the reason
+     */
+    public Reason getReason() {
+        return this.reason;
+    }
+
+    /**
+     * Represents the reasons an evaluation can be aborted.
+     */
+    public enum Reason {
+        CANCELLED,
+        STEP_BUDGET_EXCEEDED,
+        TIME_BUDGET_EXCEEDED
+    }
+}
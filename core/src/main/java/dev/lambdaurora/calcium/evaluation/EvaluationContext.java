@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.evaluation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the context of an evaluation, carrying a cancellation token and optional step and time budgets.
+ * <p>
+ * The context is attached to a {@link dev.lambdaurora.calcium.symbol.SymbolTable} and shared with its copies.
+ * Loops and function calls reach a {@link #checkpoint() checkpoint} at each step, which throws an
+ * {@link EvaluationCancelledException} once the context is cancelled or a budget is exceeded.
+ * A context may be cancelled from any thread.
+ */
+public final class EvaluationContext {
+    private final long maxSteps;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final AtomicLong steps = new AtomicLong();
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new evaluation context.
+     *
+     * @param maxSteps the maximum number of steps, or {@link Long#MAX_VALUE} for no step budget
+     * @param timeout the maximum duration of the evaluation, or {@code 0} for no time budget
+     * @param unit the unit of the timeout
+     */
+    public EvaluationContext(long maxSteps, long timeout, TimeUnit unit) {
+        if (maxSteps < 0)
+            throw new IllegalArgumentException("The step budget (" + maxSteps + ") cannot be negative.");
+        if (timeout < 0)
+            throw new IllegalArgumentException("The time budget (" + timeout + ") cannot be negative.");
+        this.maxSteps = maxSteps;
+        this.hasDeadline = timeout != 0;
+        this.deadline = System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    /**
+     * Creates a new evaluation context without budgets, which can only be cancelled.
+     */
+    public EvaluationContext() {
+        this(Long.MAX_VALUE, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a new evaluation context with a step budget.
+     *
+     * @param maxSteps the maximum number of steps
+     * @return the evaluation context
+     */
+    public static EvaluationContext withStepBudget(long maxSteps) {
+        return new EvaluationContext(maxSteps, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a new evaluation context with a time budget, starting now.
+     *
+     * @param timeout the maximum duration of the evaluation
+     * @param unit the unit of the timeout
+     * @return the evaluation context
+     */
+    public static EvaluationContext withTimeBudget(long timeout, TimeUnit unit) {
+        return new EvaluationContext(Long.MAX_VALUE, timeout, unit);
+    }
+
+    /**
+     * Cancels the evaluations using this context, they abort at their next checkpoint.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns whether this context is cancelled.
+     *
+     * @return {@code true} if this context is cancelled, otherwise {@code false}
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns the number of steps done so far. Steps are only counted with a step budget.
+     *
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return this.steps.get();
+    }
+
+    /**
+     * Reaches a checkpoint after one step.
+     *
+     * @throws EvaluationCancelledException if this context is cancelled or a budget is exceeded
+     */
+    public void checkpoint() {
+        this.checkpoint(1);
+    }
+
+    /**
+     * Reaches a checkpoint after the given number of steps.
+     *
+     * @param steps the number of steps done since the last checkpoint
+     * @throws EvaluationCancelledException if this context is cancelled or a budget is exceeded
+     */
+    public void checkpoint(long steps) {
+        if (this.cancelled)
+            throw new EvaluationCancelledException(EvaluationCancelledException.Reason.CANCELLED, "The evaluation was cancelled.");
+        if (this.maxSteps != Long.MAX_VALUE && this.steps.addAndGet(steps) > this.maxSteps)
+            throw new EvaluationCancelledException(EvaluationCancelledException.Reason.STEP_BUDGET_EXCEEDED,
+                    "The evaluation exceeded its budget of " + this.maxSteps + " steps.");
+        if (this.hasDeadline && System.nanoTime() - this.deadline > 0)
+            throw new EvaluationCancelledException(EvaluationCancelledException.Reason.TIME_BUDGET_EXCEEDED,
+                    "The evaluation exceeded its time budget.");
+    }
+}
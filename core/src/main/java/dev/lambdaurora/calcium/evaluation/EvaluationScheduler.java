@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.evaluation;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a scheduler of evaluation jobs, running them on a fixed number of worker threads.
+ * <p>
+ * Jobs are admitted into a bounded queue: when it is full, submissions are rejected or wait for room.
+ * Queued jobs are ordered by a virtual deadline, their submission time delayed by a step for each doubling of their
+ * {@link CostEstimator estimated cost}, so cheap jobs overtake expensive ones without starving them.
+ * With at least two workers, expensive jobs never occupy all of them, so one worker always remains for the cheap jobs.
+ * A single worker runs one job at a time whatever its cost: the cheap jobs still overtake the queued expensive ones,
+ * but wait for the expensive job which is running.
+ */
+public final class EvaluationScheduler implements AutoCloseable {
+    /**
+     * The default delay added to the deadline of a job for each doubling of its cost.
+     */
+    public static final long DEFAULT_COST_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    /**
+     * The default cost above which a job is expensive.
+     */
+    public static final long DEFAULT_EXPENSIVE_COST = 100_000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final Condition notFull = this.lock.newCondition();
+    private final TreeSet<Job> queue = new TreeSet<>();
+    private final Thread[] workers;
+    private final int capacity;
+    private final int maxExpensiveRunning;
+    private final long costStepNanos;
+    private final long expensiveCost;
+    private int running;
+    private int expensiveRunning;
+    private long sequence;
+    private boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a new evaluation scheduler.
+     *
+     * @param workers the number of worker threads, at least two to keep a worker for the cheap jobs
+     * @param capacity the maximum number of queued jobs
+     * @param costStepNanos the delay added to the deadline of a job for each doubling of its cost, in nanoseconds
+     * @param expensiveCost the cost above which a job is expensive
+     */
+    public EvaluationScheduler(int workers, int capacity, long costStepNanos, long expensiveCost) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The worker count (" + workers + ") must be positive.");
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity (" + capacity + ") must be positive.");
+        this.capacity = capacity;
+        // A single worker has to run the expensive jobs too, or they would never run.
+        this.maxExpensiveRunning = Math.max(1, workers - 1);
+        this.costStepNanos = costStepNanos;
+        this.expensiveCost = expensiveCost;
+
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Thread(this::work, "Calcium evaluation worker " + (i + 1));
+            this.workers[i].setDaemon(true);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Creates a new evaluation scheduler with the default cost parameters.
+     *
+     * @param workers the number of worker threads, at least two to keep a worker for the cheap jobs
+     * @param capacity the maximum number of queued jobs
+     */
+    public EvaluationScheduler(int workers, int capacity) {
+        this(workers, capacity, DEFAULT_COST_STEP_NANOS, DEFAULT_EXPENSIVE_COST);
+    }
+
+    /**
+     * Submits an evaluation job, rejecting it if the queue is full.
+     *
+     * @param expression the expression to evaluate
+     * @param symbolTable the symbol table to evaluate the expression with, which must not be used by concurrent jobs
+     * @return the future result of the evaluation
+     * @throws RejectedExecutionException if the queue is full or the scheduler is closed
+     */
+    public CompletableFuture<Value> submit(Expression expression, SymbolTable symbolTable) {
+        try {
+            return this.submit(expression, symbolTable, 0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while submitting.", e);
+        }
+    }
+
+    /**
+     * Submits an evaluation job, waiting for room in the queue if it is full.
+     *
+     * @param expression the expression to evaluate
+     * @param symbolTable the symbol table to evaluate the expression with, which must not be used by concurrent jobs
+     * @param timeout the maximum time to wait for room in the queue
+     * @param unit the unit of the timeout
+     * @return the future result of the evaluation
+     * @throws RejectedExecutionException if the queue is still full after the timeout, or if the scheduler is closed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public CompletableFuture<Value> submit(Expression expression, SymbolTable symbolTable, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long cost = CostEstimator.estimate(expression, symbolTable);
+        long nanos = unit.toNanos(timeout);
+
+        this.lock.lockInterruptibly();
+        try {
+            while (!this.closed && this.queue.size() >= this.capacity) {
+                if (nanos <= 0) {
+                    this.rejected.increment();
+                    throw new RejectedExecutionException("The evaluation queue is full (" + this.capacity + " jobs).");
+                }
+                nanos = this.notFull.awaitNanos(nanos);
+            }
+            if (this.closed)
+                throw new RejectedExecutionException("The scheduler is closed.");
+
+            long now = System.nanoTime();
+            // Each doubling of the cost delays the job by one step.
+            int doublings = 64 - Long.numberOfLeadingZeros(cost);
+            var job = new Job(expression, symbolTable, cost, now, now + doublings * this.costStepNanos, this.sequence++);
+            this.queue.add(job);
+            this.submitted.increment();
+            this.notEmpty.signal();
+            return job.future;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued jobs.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics of this scheduler.
+     *
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        int depth;
+        int running;
+        this.lock.lock();
+        try {
+            depth = this.queue.size();
+            running = this.running;
+        } finally {
+            this.lock.unlock();
+        }
+
+        long started = this.started.sum();
+        return new Metrics(depth, running, this.submitted.sum(), this.rejected.sum(), this.completed.sum(), this.failed.sum(),
+                started == 0 ? 0 : this.totalWaitNanos.sum() / started, this.maxWaitNanos.get());
+    }
+
+    /**
+     * Closes this scheduler: the queued jobs are cancelled and the workers stop after their current job.
+     */
+    @Override
+    public void close() {
+        var cancelled = new ArrayList<Job>();
+        this.lock.lock();
+        try {
+            this.closed = true;
+            cancelled.addAll(this.queue);
+            this.queue.clear();
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        for (var job : cancelled) {
+            job.future.completeExceptionally(new CancellationException("The scheduler is closed."));
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            this.lock.lock();
+            try {
+                while ((job = this.pollRunnable()) == null) {
+                    if (this.closed) return;
+                    this.notEmpty.awaitUninterruptibly();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+
+            this.run(job);
+        }
+    }
+
+    /**
+     * Removes the first job which may run now from the queue, skipping the expensive jobs if enough of them already run.
+     * Must be called with the lock held.
+     *
+     * @return the job, or {@code null} if none may run now
+     */
+    private Job pollRunnable() {
+        var iterator = this.queue.iterator();
+        while (iterator.hasNext()) {
+            var job = iterator.next();
+            boolean expensive = job.cost > this.expensiveCost;
+            if (expensive && this.expensiveRunning >= this.maxExpensiveRunning)
+                continue;
+
+            iterator.remove();
+            this.running++;
+            if (expensive) this.expensiveRunning++;
+            this.notFull.signal();
+            return job;
+        }
+        return null;
+    }
+
+    private void run(Job job) {
+        long wait = System.nanoTime() - job.submitTime;
+        this.started.increment();
+        this.totalWaitNanos.add(wait);
+        this.maxWaitNanos.accumulateAndGet(wait, Math::max);
+
+        try {
+            // Jobs cancelled while queued are skipped.
+            if (!job.future.isDone()) {
+                job.future.complete(job.symbolTable.evaluateExpression(job.expression));
+                this.completed.increment();
+            }
+        } catch (Throwable e) {
+            // Errors like an OutOfMemoryError fail the job, the worker carries on with the next one.
+            job.future.completeExceptionally(e);
+            this.failed.increment();
+        } finally {
+            this.lock.lock();
+            try {
+                this.running--;
+                if (job.cost > this.expensiveCost) {
+                    this.expensiveRunning--;
+                    // A waiting expensive job may run now.
+                    this.notEmpty.signal();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Represents a snapshot of the metrics of a scheduler.
+     *
+     * @param queueDepth the number of queued jobs
+     * @param running the number of running jobs
+     * @param submitted the number of submitted jobs
+     * @param rejected the number of rejected submissions
+     * @param completed the number of jobs which completed successfully
+     * @param failed the number of jobs which failed
+     * @param averageWaitNanos the average time the started jobs waited in the queue, in nanoseconds
+     * @param maxWaitNanos the maximum time a started job waited in the queue, in nanoseconds
+     */
+    public record Metrics(int queueDepth, int running, long submitted, long rejected, long completed, long failed,
+                          long averageWaitNanos, long maxWaitNanos) {
+    }
+
+    private static final class Job implements Comparable<Job> {
+        private final Expression expression;
+        private final SymbolTable symbolTable;
+        private final long cost;
+        private final long submitTime;
+        private final long deadline;
+        private final long sequence;
+        private final CompletableFuture<Value> future = new CompletableFuture<>();
+
+        private Job(Expression expression, SymbolTable symbolTable, long cost, long submitTime, long deadline, long sequence) {
+            this.expression = expression;
+            this.symbolTable = symbolTable;
+            this.cost = cost;
+            this.submitTime = submitTime;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            // Compares the deadlines by difference, as nano times may overflow.
+            long difference = this.deadline - other.deadline;
+            if (difference != 0)
+                return difference < 0 ? -1 : 1;
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
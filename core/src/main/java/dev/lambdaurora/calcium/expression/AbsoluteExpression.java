@@ -21,6 +21,8 @@ import dev.lambdaurora.calcium.Value;
 import dev.lambdaurora.calcium.math.ComplexNumber;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
+import java.util.List;
+
 import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
 
 /**
@@ -31,4 +33,9 @@ public record AbsoluteExpression(Expression expression) implements Expression {
     public Value evaluate(SymbolTable symbolTable) {
         return new ComplexNumber(expectComplex(this.expression.evaluate(symbolTable)).abs());
     }
+
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.expression);
+    }
 }
@@ -18,12 +18,16 @@
 package dev.lambdaurora.calcium.expression;
 
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
 import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
 
 /**
  * Represents an addition expression.
+ * <p>
+ * Vectors and matrices of the same size are added element-wise.
  */
 public class AddExpression extends BinaryExpression {
     public AddExpression(Expression left, Expression right) {
@@ -32,7 +36,14 @@ public class AddExpression extends BinaryExpression {
 
     @Override
     public Value evaluate(SymbolTable symbolTable) {
-        return expectComplex(this.left.evaluate(symbolTable))
-                .add(expectComplex(this.right.evaluate(symbolTable)));
+        var left = this.left.evaluate(symbolTable);
+        var right = this.right.evaluate(symbolTable);
+
+        if (left instanceof ComplexArray leftVector && right instanceof ComplexArray rightVector)
+            return leftVector.add(rightVector);
+        else if (left instanceof ComplexMatrix leftMatrix && right instanceof ComplexMatrix rightMatrix)
+            return leftMatrix.add(rightMatrix);
+
+        return expectComplex(left).add(expectComplex(right));
     }
 }
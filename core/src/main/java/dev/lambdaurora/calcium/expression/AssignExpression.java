@@ -20,6 +20,8 @@ package dev.lambdaurora.calcium.expression;
 import dev.lambdaurora.calcium.Value;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
+import java.util.List;
+
 /**
  * Represents an assignation to a variable.
  * <p>
@@ -34,10 +36,39 @@ public class AssignExpression implements Expression {
         this.value = value;
     }
 
+    /**
+     * Returns the name of the assigned variable.
+     *
+     * @return the name of the assigned variable
+     */
+    public String getVariable() {
+        return this.variable;
+    }
+
+    /**
+     * Returns the expression of the assigned value.
+     *
+     * @return the expression of the assigned value
+     */
+    public Expression getValue() {
+        return this.value;
+    }
+
     @Override
     public Value evaluate(SymbolTable symbolTable) {
         var val = this.value.evaluate(symbolTable);
         symbolTable.setVariable(this.variable, val);
         return val;
     }
+
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.value);
+    }
+
+    @Override
+    public boolean isPure(SymbolTable symbolTable) {
+        // Assignments write into the symbol table.
+        return false;
+    }
 }
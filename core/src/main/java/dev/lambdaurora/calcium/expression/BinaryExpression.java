@@ -17,6 +17,8 @@
 
 package dev.lambdaurora.calcium.expression;
 
+import java.util.List;
+
 /**
  * Represents a binary expression with a left-hand side expression and a right-hand side expression.
  */
@@ -28,4 +30,27 @@ public abstract class BinaryExpression implements Expression {
         this.left = left;
         this.right = right;
     }
+
+    /**
+     * Returns the left-hand side expression.
+     *
+     * @return the left-hand side expression
+     */
+    public Expression getLeft() {
+        return this.left;
+    }
+
+    /**
+     * Returns the right-hand side expression.
+     *
+     * @return the right-hand side expression
+     */
+    public Expression getRight() {
+        return this.right;
+    }
+
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.left, this.right);
+    }
 }
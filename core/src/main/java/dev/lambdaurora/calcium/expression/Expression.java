@@ -21,6 +21,8 @@ import dev.lambdaurora.calcium.Value;
 import dev.lambdaurora.calcium.math.ComplexNumber;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
+import java.util.List;
+
 /**
  * Represents an expression which can be evaluated to a number.
  */
@@ -32,6 +34,28 @@ public interface Expression {
      */
     Value evaluate(SymbolTable symbolTable);
 
+    /**
+     * Returns the direct sub-expressions of this expression.
+     *
+     * @return the sub-expressions
+     */
+    default List<Expression> getChildren() {
+        return List.of();
+    }
+
+    /**
+     * Returns whether this expression is pure, meaning its evaluation has no side effects and always gives the same result
+     * for the same symbols.
+     * <p>
+     * Pure expressions can be evaluated concurrently, each on its own copy of the symbol table.
+     *
+     * @param symbolTable the symbol table used to resolve the functions
+     * @return {@code true} if this expression is pure, otherwise {@code false}
+     */
+    default boolean isPure(SymbolTable symbolTable) {
+        return this.getChildren().stream().allMatch(child -> child.isPure(symbolTable));
+    }
+
     /**
      * Returns the given value if it's an integer, else throws an {@link IllegalArgumentException}.
      *
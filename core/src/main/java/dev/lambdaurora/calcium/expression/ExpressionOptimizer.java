@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.expression;
+
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.metrics.Metrics;
+import dev.lambdaurora.calcium.symbol.BuiltinSymbols;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the optimization stage between parsing and evaluation.
+ * <p>
+ * The optimizer rewrites polynomial subtrees in one variable, such as {@code 3*x**4 + 2*x**3 - x + 7},
+ * into a {@link PolynomialExpression} evaluated with Horner's scheme.
+ * The built-in constants (like {@code pi} or {@code i}) are considered as constant coefficients.
+ */
+public final class ExpressionOptimizer {
+    /**
+     * The maximum degree of a recognized polynomial, to not expand huge powers.
+     */
+    public static final int MAX_POLYNOMIAL_DEGREE = 64;
+
+    private ExpressionOptimizer() {
+        throw new UnsupportedOperationException("ExpressionOptimizer only contains static definitions.");
+    }
+
+    /**
+     * Optimizes the given expression.
+     *
+     * @param expression the expression to optimize
+     * @return the optimized expression, which evaluates to the same value as the given expression
+     */
+    public static Expression optimize(Expression expression) {
+        var start = Metrics.OPTIMIZE.start();
+        try {
+            return optimizeExpression(expression);
+        } finally {
+            Metrics.OPTIMIZE.stop(start);
+        }
+    }
+
+    private static Expression optimizeExpression(Expression expression) {
+        var state = new PolynomialState();
+        var coefficients = toPolynomial(expression, state);
+
+        // Only rewrite when Horner's scheme saves operations, a linear expression is already cheap.
+        if (coefficients != null && state.variable != null && coefficients.length > 2)
+            return new PolynomialExpression(state.variable, coefficients, expression);
+
+        return optimizeChildren(expression);
+    }
+
+    private static Expression optimizeChildren(Expression expression) {
+        if (expression instanceof AddExpression add)
+            return new AddExpression(optimizeExpression(add.getLeft()), optimizeExpression(add.getRight()));
+        else if (expression instanceof SubtractExpression subtract)
+            return new SubtractExpression(optimizeExpression(subtract.getLeft()), optimizeExpression(subtract.getRight()));
+        else if (expression instanceof MultiplyExpression multiply)
+            return new MultiplyExpression(optimizeExpression(multiply.getLeft()), optimizeExpression(multiply.getRight()));
+        else if (expression instanceof DivideExpression divide)
+            return new DivideExpression(optimizeExpression(divide.getLeft()), optimizeExpression(divide.getRight()));
+        else if (expression instanceof ExponentExpression exponent)
+            return new ExponentExpression(optimizeExpression(exponent.getLeft()), optimizeExpression(exponent.getRight()));
+        else if (expression instanceof ModulusExpression modulus)
+            return new ModulusExpression(optimizeExpression(modulus.getLeft()), optimizeExpression(modulus.getRight()));
+        else if (expression instanceof InvertExpression invert)
+            return new InvertExpression(optimizeExpression(invert.getRight()));
+        else if (expression instanceof AbsoluteExpression absolute)
+            return new AbsoluteExpression(optimizeExpression(absolute.expression()));
+        else if (expression instanceof FactorialExpression factorial)
+            return new FactorialExpression(optimizeExpression(factorial.n()));
+        else if (expression instanceof AssignExpression assign)
+            return new AssignExpression(assign.getVariable(), optimizeExpression(assign.getValue()));
+        else if (expression instanceof FunctionCallExpression call) {
+            var args = new ArrayList<Expression>(call.args().size());
+            for (var arg : call.args()) {
+                args.add(optimizeExpression(arg));
+            }
+            return new FunctionCallExpression(call.id(), args);
+        } else if (expression instanceof MatrixExpression matrix) {
+            var rows = new ArrayList<List<Expression>>(matrix.rows().size());
+            for (var row : matrix.rows()) {
+                var optimizedRow = new ArrayList<Expression>(row.size());
+                for (var element : row) {
+                    optimizedRow.add(optimizeExpression(element));
+                }
+                rows.add(optimizedRow);
+            }
+            return new MatrixExpression(rows);
+        } else if (expression instanceof IndexExpression index) {
+            var indices = new ArrayList<Expression>(index.indices().size());
+            for (var i : index.indices()) {
+                indices.add(optimizeExpression(i));
+            }
+            return new IndexExpression(optimizeExpression(index.target()), indices);
+        } else if (expression instanceof ListExpression list) {
+            var elements = new ArrayList<Expression>(list.elements().size());
+            for (var element : list.elements()) {
+                elements.add(optimizeExpression(element));
+            }
+            return new ListExpression(elements);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Attempts to convert the given expression into the coefficients of a polynomial.
+     *
+     * @param expression the expression to convert
+     * @param state the state holding the variable of the polynomial
+     * @return the coefficients if the expression is a polynomial in at most one variable, otherwise {@code null}
+     */
+    private static ComplexNumber[] toPolynomial(Expression expression, PolynomialState state) {
+        if (expression instanceof LiteralExpression literal) {
+            return new ComplexNumber[]{literal.getConstant()};
+        } else if (expression instanceof IdentifierExpression identifier) {
+            var constant = BuiltinSymbols.getConstant(identifier.id());
+            if (constant != null)
+                return constant.getValue() instanceof ComplexNumber number ? new ComplexNumber[]{number} : null;
+
+            if (state.variable == null)
+                state.variable = identifier.id();
+            else if (!state.variable.equals(identifier.id()))
+                return null;
+
+            return new ComplexNumber[]{ComplexNumber.ZERO, new ComplexNumber(1.0)};
+        } else if (expression instanceof InvertExpression invert) {
+            var right = toPolynomial(invert.getRight(), state);
+            if (right == null) return null;
+            return multiply(right, new ComplexNumber[]{new ComplexNumber(-1.0)});
+        } else if (expression instanceof AddExpression add) {
+            var left = toPolynomial(add.getLeft(), state);
+            if (left == null) return null;
+            var right = toPolynomial(add.getRight(), state);
+            if (right == null) return null;
+            return add(left, right, 1.0);
+        } else if (expression instanceof SubtractExpression subtract) {
+            var left = toPolynomial(subtract.getLeft(), state);
+            if (left == null) return null;
+            var right = toPolynomial(subtract.getRight(), state);
+            if (right == null) return null;
+            return add(left, right, -1.0);
+        } else if (expression instanceof MultiplyExpression multiply) {
+            var left = toPolynomial(multiply.getLeft(), state);
+            if (left == null) return null;
+            var right = toPolynomial(multiply.getRight(), state);
+            if (right == null) return null;
+            if (left.length + right.length - 2 > MAX_POLYNOMIAL_DEGREE) return null;
+            return multiply(left, right);
+        } else if (expression instanceof DivideExpression divide) {
+            // Only divisions by a non-zero constant are polynomials.
+            var left = toPolynomial(divide.getLeft(), state);
+            if (left == null) return null;
+            var right = toPolynomial(divide.getRight(), state);
+            if (right == null || right.length != 1 || isZero(right[0])) return null;
+            var inverse = new ComplexNumber(1.0).divide(right[0]);
+            return multiply(left, new ComplexNumber[]{inverse});
+        } else if (expression instanceof ExponentExpression exponent) {
+            if (!(exponent.getRight() instanceof LiteralExpression literal) || !literal.getConstant().isInteger())
+                return null;
+
+            var n = literal.getConstant().intValue();
+            // z**0 evaluates to 0 when z is 0, which isn't a polynomial.
+            if (n < 1 || n > MAX_POLYNOMIAL_DEGREE) return null;
+
+            var base = toPolynomial(exponent.getLeft(), state);
+            if (base == null || (base.length - 1) * n > MAX_POLYNOMIAL_DEGREE) return null;
+            // Constant powers are left to ExponentExpression which handles them more precisely.
+            if (base.length == 1) return null;
+
+            var result = base;
+            for (long i = 1; i < n; i++) {
+                result = multiply(result, base);
+            }
+            return result;
+        }
+
+        return null;
+    }
+
+    private static ComplexNumber[] add(ComplexNumber[] left, ComplexNumber[] right, double rightSign) {
+        var result = Arrays.copyOf(left, Math.max(left.length, right.length));
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] == null) result[i] = ComplexNumber.ZERO;
+            if (i < right.length) result[i] = result[i].add(right[i].multiply(rightSign));
+        }
+        return trim(result);
+    }
+
+    private static ComplexNumber[] multiply(ComplexNumber[] left, ComplexNumber[] right) {
+        var result = new ComplexNumber[left.length + right.length - 1];
+        Arrays.fill(result, ComplexNumber.ZERO);
+        for (int i = 0; i < left.length; i++) {
+            for (int j = 0; j < right.length; j++) {
+                result[i + j] = result[i + j].add(left[i].multiply(right[j]));
+            }
+        }
+        return trim(result);
+    }
+
+    private static ComplexNumber[] trim(ComplexNumber[] coefficients) {
+        int length = coefficients.length;
+        while (length > 1 && isZero(coefficients[length - 1]))
+            length--;
+        return length == coefficients.length ? coefficients : Arrays.copyOf(coefficients, length);
+    }
+
+    private static boolean isZero(ComplexNumber number) {
+        return number.real() == 0.0 && number.imaginary() == 0.0;
+    }
+
+    private static class PolynomialState {
+        private String variable;
+    }
+}
@@ -21,6 +21,8 @@ import dev.lambdaurora.calcium.Value;
 import dev.lambdaurora.calcium.math.ComplexNumber;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
+import java.util.List;
+
 /**
  * Represents a factorial expression.
  * <p>
@@ -36,9 +38,15 @@ public record FactorialExpression(Expression n) implements Expression {
 
         var res = 1;
         for (int i = 1; i <= max; i++) {
+            symbolTable.checkpoint();
             res *= i;
         }
 
         return new ComplexNumber(res);
     }
+
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.n);
+    }
 }
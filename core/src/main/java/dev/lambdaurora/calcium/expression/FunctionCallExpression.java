@@ -18,6 +18,7 @@
 package dev.lambdaurora.calcium.expression;
 
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.metrics.Metrics;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
 import java.util.List;
@@ -36,6 +37,30 @@ public record FunctionCallExpression(String id, List<Expression> args) implement
             throw new IllegalStateException("No function with the name \"" + this.id() + "\" could have been found.");
         }
 
+        symbolTable.checkpoint();
+
+        if (Metrics.isEnabled() && function.isBuiltin()) {
+            var timer = Metrics.function(this.id());
+            var start = timer.start();
+            try {
+                return function.evaluate(this.args(), symbolTable);
+            } finally {
+                timer.stop(start);
+            }
+        }
+
         return function.evaluate(this.args(), symbolTable);
     }
+
+    @Override
+    public boolean isPure(SymbolTable symbolTable) {
+        var function = symbolTable.getFunction(this.id());
+
+        return function != null && function.isPure() && Expression.super.isPure(symbolTable);
+    }
+
+    @Override
+    public List<Expression> getChildren() {
+        return this.args;
+    }
 }
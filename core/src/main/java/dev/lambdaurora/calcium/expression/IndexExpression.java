@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.expression;
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.lambdaurora.calcium.expression.Expression.expectIntStrict;
+
+/**
+ * Represents an indexing expression, like {@code l[0]}, {@code v[0]} or {@code m[1, 2]}.
+ * <p>
+ * Indices start at 0. Indexing a matrix with a single index returns the corresponding row.
+ */
+public record IndexExpression(Expression target, List<Expression> indices) implements Expression {
+    @Override
+    public Value evaluate(SymbolTable symbolTable) {
+        var value = this.target.evaluate(symbolTable);
+
+        if (value instanceof ListValue list) {
+            if (this.indices.size() != 1)
+                throw new IllegalArgumentException("A list expects 1 index, got " + this.indices.size() + ".");
+            return list.get(this.index(0, symbolTable));
+        } else if (value instanceof ComplexArray vector) {
+            if (this.indices.size() != 1)
+                throw new IllegalArgumentException("A vector expects 1 index, got " + this.indices.size() + ".");
+            return vector.get(this.index(0, symbolTable));
+        } else if (value instanceof ComplexMatrix matrix) {
+            if (this.indices.size() == 1)
+                return matrix.getRow(this.index(0, symbolTable));
+            else if (this.indices.size() == 2)
+                return matrix.get(this.index(0, symbolTable), this.index(1, symbolTable));
+            throw new IllegalArgumentException("A matrix expects 1 or 2 indices, got " + this.indices.size() + ".");
+        }
+
+        throw new IllegalArgumentException("Cannot index " + value + ", a list, a vector or a matrix was expected.");
+    }
+
+    @Override
+    public List<Expression> getChildren() {
+        var children = new ArrayList<Expression>(this.indices.size() + 1);
+        children.add(this.target);
+        children.addAll(this.indices);
+        return children;
+    }
+
+    private int index(int i, SymbolTable symbolTable) {
+        return Math.toIntExact(expectIntStrict(this.indices.get(i).evaluate(symbolTable)));
+    }
+}
@@ -18,23 +18,50 @@
 package dev.lambdaurora.calcium.expression;
 
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
 import dev.lambdaurora.calcium.math.ComplexNumber;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
+import java.util.List;
+
 import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
 
 /**
  * Represents a sign inversion expression.
  */
 public class InvertExpression implements Expression {
+    private static final ComplexNumber MINUS_ONE = new ComplexNumber(-1.0);
+
     private final Expression right;
 
     public InvertExpression(Expression right) {
         this.right = right;
     }
 
+    /**
+     * Returns the inverted expression.
+     *
+     * @return the inverted expression
+     */
+    public Expression getRight() {
+        return this.right;
+    }
+
     @Override
     public Value evaluate(SymbolTable symbolTable) {
-        return ComplexNumber.ZERO.subtract(expectComplex(this.right.evaluate(symbolTable)));
+        var value = this.right.evaluate(symbolTable);
+
+        if (value instanceof ComplexArray vector)
+            return vector.multiply(MINUS_ONE);
+        else if (value instanceof ComplexMatrix matrix)
+            return matrix.multiply(MINUS_ONE);
+
+        return ComplexNumber.ZERO.subtract(expectComplex(value));
+    }
+
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.right);
     }
 }
@@ -33,6 +33,15 @@ public class LiteralExpression implements Expression {
         this.constant = constant;
     }
 
+    /**
+     * Returns the constant value of this literal.
+     *
+     * @return the constant value
+     */
+    public ComplexNumber getConstant() {
+        return this.constant;
+    }
+
     @Override
     public Value evaluate(SymbolTable symbolTable) {
         return this.constant;
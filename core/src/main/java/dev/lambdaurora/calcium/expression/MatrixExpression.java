@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.expression;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.List;
+
+import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
+
+/**
+ * Represents a matrix literal expression, like {@code [1, 2; 3, 4]}.
+ * <p>
+ * A literal with a single row evaluates to a vector, otherwise it evaluates to a matrix.
+ */
+public record MatrixExpression(List<List<Expression>> rows) implements Expression {
+    @Override
+    public Value evaluate(SymbolTable symbolTable) {
+        if (this.rows.size() == 1) {
+            var row = this.rows.get(0);
+            var vector = ComplexArray.allocate(row.size());
+            for (int i = 0; i < row.size(); i++) {
+                vector.set(i, expectComplex(row.get(i).evaluate(symbolTable)));
+            }
+            return vector;
+        }
+
+        var matrix = ComplexMatrix.allocate(this.rows.size(), this.rows.get(0).size());
+        for (int row = 0; row < this.rows.size(); row++) {
+            var elements = this.rows.get(row);
+            for (int column = 0; column < elements.size(); column++) {
+                matrix.set(row, column, expectComplex(elements.get(column).evaluate(symbolTable)));
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public List<Expression> getChildren() {
+        return this.rows.stream().flatMap(List::stream).toList();
+    }
+}
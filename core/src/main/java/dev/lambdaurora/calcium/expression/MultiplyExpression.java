@@ -18,12 +18,18 @@
 package dev.lambdaurora.calcium.expression;
 
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.math.ComplexNumber;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
 import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
 
 /**
  * Represents a multiplication expression.
+ * <p>
+ * Vectors and matrices can be multiplied by a scalar, matrices are multiplied together with the matrix product,
+ * a matrix multiplied by a vector treats the vector as a column vector, and vectors are multiplied element-wise.
  */
 public class MultiplyExpression extends BinaryExpression {
     public MultiplyExpression(Expression left, Expression right) {
@@ -32,7 +38,28 @@ public class MultiplyExpression extends BinaryExpression {
 
     @Override
     public Value evaluate(SymbolTable symbolTable) {
-        return expectComplex(this.left.evaluate(symbolTable))
-                .multiply(expectComplex(this.right.evaluate(symbolTable)));
+        var left = this.left.evaluate(symbolTable);
+        var right = this.right.evaluate(symbolTable);
+
+        if (left instanceof ComplexNumber leftNumber) {
+            if (right instanceof ComplexArray rightVector)
+                return rightVector.multiply(leftNumber);
+            else if (right instanceof ComplexMatrix rightMatrix)
+                return rightMatrix.multiply(leftNumber);
+        } else if (left instanceof ComplexArray leftVector) {
+            if (right instanceof ComplexNumber rightNumber)
+                return leftVector.multiply(rightNumber);
+            else if (right instanceof ComplexArray rightVector)
+                return leftVector.multiply(rightVector);
+        } else if (left instanceof ComplexMatrix leftMatrix) {
+            if (right instanceof ComplexNumber rightNumber)
+                return leftMatrix.multiply(rightNumber);
+            else if (right instanceof ComplexMatrix rightMatrix)
+                return leftMatrix.multiply(rightMatrix);
+            else if (right instanceof ComplexArray rightVector)
+                return leftMatrix.multiply(rightVector);
+        }
+
+        return expectComplex(left).multiply(expectComplex(right));
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.expression;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import dev.lambdaurora.calcium.symbol.Variable;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Represents a polynomial in one variable, evaluated with Horner's scheme.
+ * <p>
+ * Built by the {@link ExpressionOptimizer} from polynomial subtrees. When the variable is not a complex number,
+ * like a matrix, the original subtree is evaluated instead.
+ */
+public class PolynomialExpression implements Expression {
+    // Math.fma is only fast when it's an intrinsic, otherwise it falls back to BigDecimal arithmetic.
+    private static final boolean USE_FMA = isFmaIntrinsic();
+
+    private final String variable;
+    private final ComplexNumber[] coefficients;
+    private final double[] realCoefficients;
+    private final double[] imaginaryCoefficients;
+    private final boolean real;
+    private final Expression source;
+
+    /**
+     * Returns a new {@linkplain PolynomialExpression} instance.
+     *
+     * @param variable the name of the variable
+     * @param coefficients the coefficients, the index of a coefficient is the degree of its term
+     * @param source the expression this polynomial was built from, evaluated when the variable is not a complex number
+     */
+    public PolynomialExpression(String variable, ComplexNumber[] coefficients, Expression source) {
+        if (coefficients.length == 0)
+            throw new IllegalArgumentException("A polynomial must have at least one coefficient.");
+
+        this.variable = variable;
+        this.source = source;
+        this.coefficients = coefficients.clone();
+        this.realCoefficients = new double[coefficients.length];
+        this.imaginaryCoefficients = new double[coefficients.length];
+
+        boolean real = true;
+        for (int i = 0; i < coefficients.length; i++) {
+            this.realCoefficients[i] = coefficients[i].real();
+            this.imaginaryCoefficients[i] = coefficients[i].imaginary();
+            real &= coefficients[i].isReal();
+        }
+        this.real = real;
+    }
+
+    /**
+     * Returns the name of the variable of this polynomial.
+     *
+     * @return the name of the variable
+     */
+    public String getVariable() {
+        return this.variable;
+    }
+
+    /**
+     * Returns the degree of this polynomial.
+     *
+     * @return the degree
+     */
+    public int getDegree() {
+        return this.coefficients.length - 1;
+    }
+
+    /**
+     * Returns the coefficient of the term of the given degree.
+     *
+     * @param degree the degree of the term
+     * @return the coefficient
+     */
+    public ComplexNumber getCoefficient(int degree) {
+        return this.coefficients[degree];
+    }
+
+    /**
+     * Returns the expression this polynomial was built from.
+     *
+     * @return the source expression
+     */
+    public Expression getSource() {
+        return this.source;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The child of a polynomial is the expression it was built from, so the tree still shows the original formula.
+     */
+    @Override
+    public List<Expression> getChildren() {
+        return List.of(this.source);
+    }
+
+    @Override
+    public Value evaluate(SymbolTable symbolTable) {
+        var variable = symbolTable.getVariable(this.variable);
+
+        // Kept small so it is inlined in the callers, letting the JIT compiler scalar-replace the result.
+        if (this.real && variable != null && variable.getValue() instanceof ComplexNumber x && x.isReal())
+            return new ComplexNumber(this.evaluateReal(x.real()));
+
+        return this.evaluateGeneral(variable, symbolTable);
+    }
+
+    private double evaluateReal(double value) {
+        int degree = this.getDegree();
+        double result = this.realCoefficients[degree];
+
+        if (USE_FMA) {
+            for (int i = degree - 1; i >= 0; i--) {
+                result = Math.fma(result, value, this.realCoefficients[i]);
+            }
+        } else {
+            for (int i = degree - 1; i >= 0; i--) {
+                result = result * value + this.realCoefficients[i];
+            }
+        }
+
+        return result;
+    }
+
+    private Value evaluateGeneral(Variable variable, SymbolTable symbolTable) {
+        if (variable == null)
+            throw new IllegalStateException("No variable with the name \"" + this.variable + "\" could have been found.");
+
+        // The coefficients only apply to numbers, other values like matrices keep the semantics of the original subtree.
+        if (!(variable.getValue() instanceof ComplexNumber x))
+            return this.source.evaluate(symbolTable);
+
+        int degree = this.getDegree();
+        double xReal = x.real();
+        double xImaginary = x.imaginary();
+        double real = this.realCoefficients[degree];
+        double imaginary = this.imaginaryCoefficients[degree];
+
+        for (int i = degree - 1; i >= 0; i--) {
+            double newReal = real * xReal - imaginary * xImaginary + this.realCoefficients[i];
+            imaginary = real * xImaginary + imaginary * xReal + this.imaginaryCoefficients[i];
+            real = newReal;
+        }
+
+        return new ComplexNumber(real, imaginary);
+    }
+
+    private static boolean isFmaIntrinsic() {
+        try {
+            var bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return bean != null && Boolean.parseBoolean(bean.getVMOption("UseFMA").getValue());
+        } catch (RuntimeException | LinkageError e) {
+            return false;
+        }
+    }
+}
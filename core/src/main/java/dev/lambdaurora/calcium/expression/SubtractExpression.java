@@ -18,12 +18,16 @@
 package dev.lambdaurora.calcium.expression;
 
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
 import static dev.lambdaurora.calcium.expression.Expression.expectComplex;
 
 /**
  * Represents a subtraction expression.
+ * <p>
+ * Vectors and matrices of the same size are subtracted element-wise.
  */
 public class SubtractExpression extends BinaryExpression {
     public SubtractExpression(Expression left, Expression right) {
@@ -32,7 +36,14 @@ public class SubtractExpression extends BinaryExpression {
 
     @Override
     public Value evaluate(SymbolTable symbolTable) {
-        return expectComplex(this.left.evaluate(symbolTable))
-                .subtract(expectComplex(this.right.evaluate(symbolTable)));
+        var left = this.left.evaluate(symbolTable);
+        var right = this.right.evaluate(symbolTable);
+
+        if (left instanceof ComplexArray leftVector && right instanceof ComplexArray rightVector)
+            return leftVector.subtract(rightVector);
+        else if (left instanceof ComplexMatrix leftMatrix && right instanceof ComplexMatrix rightMatrix)
+            return leftMatrix.subtract(rightMatrix);
+
+        return expectComplex(left).subtract(expectComplex(right));
     }
 }
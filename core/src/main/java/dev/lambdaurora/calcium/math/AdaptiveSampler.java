@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.Arrays;
+
+/**
+ * Represents an adaptive sampler of an expression in {@code x}.
+ * <p>
+ * The sampler starts with a coarse uniform grid, then refines by passes: the midpoint of each interval to refine is evaluated,
+ * and both halves are refined further if the midpoint deviates from the straight line between the interval ends
+ * by more than the tolerance, or if the expression is defined or finite on only some of the three points, like near a pole.
+ * The tolerance is relative to the pixel resolution of the plot, and intervals are not split below a fraction of a pixel.
+ * <p>
+ * Evaluations are capped, when the cap is near, the intervals with the largest deviation are refined first.
+ * The points of the last complete pass are kept if the sampling is cancelled.
+ */
+final class AdaptiveSampler {
+    /**
+     * The number of intervals of the initial uniform grid.
+     */
+    static final int INITIAL_INTERVALS = 64;
+    /**
+     * The tolerated deviation from a straight line, in pixels.
+     */
+    static final double TOLERANCE = 0.5;
+    /**
+     * The smallest interval width to split, in pixels.
+     */
+    static final double MIN_INTERVAL = 0.125;
+
+    private final Expression expression;
+    private final SymbolTable symbolTable;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private boolean[] real = new boolean[0];
+    private int count;
+    private int evaluations;
+
+    AdaptiveSampler(Expression expression, SymbolTable symbolTable) {
+        this.expression = expression;
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Samples the expression from {@code xMin} to {@code xMax}.
+     *
+     * @param xMin the minimum X-coordinate
+     * @param xMax the maximum X-coordinate
+     * @param width the width of the plot in pixels
+     * @param height the height of the plot in pixels
+     * @param maxEvaluations the maximum number of evaluations
+     */
+    void sample(double xMin, double xMax, int width, int height, int maxEvaluations) {
+        if (!(xMax > xMin)) {
+            if (xMax == xMin) this.sampleGrid(xMin, xMax, 0);
+            return;
+        }
+
+        int intervals = Math.min(INITIAL_INTERVALS, maxEvaluations - 1);
+        this.sampleGrid(xMin, xMax, intervals);
+
+        double yTolerance = TOLERANCE * this.getTypicalRange() / height;
+        double minInterval = MIN_INTERVAL * (xMax - xMin) / width;
+
+        // The deviation which made each interval be refined, the intervals not to refine have a deviation of -1.
+        var deviations = new double[this.count - 1];
+        Arrays.fill(deviations, Double.POSITIVE_INFINITY);
+
+        while (this.evaluations < maxEvaluations) {
+            double threshold = this.getRefinementThreshold(deviations, minInterval, maxEvaluations - this.evaluations);
+            if (Double.isNaN(threshold))
+                break;
+
+            int capacity = this.count + (this.count - 1);
+            var newXs = new double[capacity];
+            var newYs = new double[capacity];
+            var newReal = new boolean[capacity];
+            var newDeviations = new double[capacity - 1];
+            int newCount = 0;
+
+            for (int i = 0; i < this.count - 1; i++) {
+                newXs[newCount] = this.xs[i];
+                newYs[newCount] = this.ys[i];
+                newReal[newCount] = this.real[i];
+
+                if (deviations[i] >= threshold && this.xs[i + 1] - this.xs[i] > minInterval && this.evaluations < maxEvaluations) {
+                    double x = (this.xs[i] + this.xs[i + 1]) / 2;
+                    newXs[newCount + 1] = x;
+                    newReal[newCount + 1] = true;
+                    newYs[newCount + 1] = this.evaluate(x, newReal, newCount + 1);
+
+                    double deviation = deviation(this.ys[i], this.real[i], newYs[newCount + 1], newReal[newCount + 1],
+                            this.ys[i + 1], this.real[i + 1]);
+                    double next = deviation > yTolerance ? deviation : -1;
+                    newDeviations[newCount] = next;
+                    newDeviations[newCount + 1] = next;
+                    newCount += 2;
+                } else {
+                    newDeviations[newCount] = deviations[i] >= threshold ? -1 : deviations[i];
+                    newCount++;
+                }
+            }
+
+            newXs[newCount] = this.xs[this.count - 1];
+            newYs[newCount] = this.ys[this.count - 1];
+            newReal[newCount] = this.real[this.count - 1];
+            newCount++;
+
+            this.xs = newXs;
+            this.ys = newYs;
+            this.real = newReal;
+            this.count = newCount;
+            deviations = Arrays.copyOf(newDeviations, newCount - 1);
+        }
+    }
+
+    private void sampleGrid(double xMin, double xMax, int intervals) {
+        var xs = new double[intervals + 1];
+        var ys = new double[intervals + 1];
+        var real = new boolean[intervals + 1];
+        for (int i = 0; i <= intervals; i++) {
+            xs[i] = intervals == 0 ? xMin : xMin + (xMax - xMin) * i / intervals;
+            real[i] = true;
+            ys[i] = this.evaluate(xs[i], real, i);
+        }
+
+        this.xs = xs;
+        this.ys = ys;
+        this.real = real;
+        this.count = intervals + 1;
+    }
+
+    private double evaluate(double x, boolean[] real, int index) {
+        this.symbolTable.checkpoint();
+        this.evaluations++;
+        this.symbolTable.setVariable("x", new ComplexNumber(x));
+
+        try {
+            var result = this.expression.evaluate(this.symbolTable);
+
+            if (result instanceof ComplexNumber number && number.isReal())
+                return number.realValue();
+        } catch (ArithmeticException e) {
+            return Double.NaN;
+        }
+
+        real[index] = false;
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the typical range of values, ignoring the outer values so that poles don't crush the tolerance.
+     *
+     * @return the typical range of values
+     */
+    private double getTypicalRange() {
+        var values = new double[this.count];
+        int finite = 0;
+        for (int i = 0; i < this.count; i++) {
+            if (Double.isFinite(this.ys[i]))
+                values[finite++] = this.ys[i];
+        }
+
+        if (finite < 2) return 1;
+
+        Arrays.sort(values, 0, finite);
+        int trimmed = (int) (finite * 0.05);
+        double range = values[finite - 1 - trimmed] - values[trimmed];
+        return range > 0 ? range : 1;
+    }
+
+    /**
+     * Returns the lowest deviation of the intervals refined in the next pass, so that the remaining evaluations aren't exceeded.
+     *
+     * @param deviations the deviations of the intervals
+     * @param minInterval the smallest interval width to split
+     * @param remaining the remaining evaluations
+     * @return the lowest deviation to refine, or {@code NaN} if no interval is to be refined
+     */
+    private double getRefinementThreshold(double[] deviations, double minInterval, int remaining) {
+        var candidates = new double[deviations.length];
+        int count = 0;
+        for (int i = 0; i < deviations.length; i++) {
+            if (deviations[i] >= 0 && this.xs[i + 1] - this.xs[i] > minInterval)
+                candidates[count++] = deviations[i];
+        }
+
+        if (count == 0) return Double.NaN;
+        if (count <= remaining) return 0;
+
+        // Only the largest deviations fit in the remaining evaluations.
+        Arrays.sort(candidates, 0, count);
+        return candidates[count - remaining];
+    }
+
+    /**
+     * Returns how much the middle point deviates from the straight line between the end points.
+     * <p>
+     * If the expression is defined and finite on only some of the points, the deviation is infinite.
+     */
+    private static double deviation(double y0, boolean real0, double y1, boolean real1, double y2, boolean real2) {
+        boolean finite0 = real0 && Double.isFinite(y0);
+        boolean finite1 = real1 && Double.isFinite(y1);
+        boolean finite2 = real2 && Double.isFinite(y2);
+
+        if (finite0 && finite1 && finite2)
+            return Math.abs(y1 - (y0 + y2) / 2);
+        else if (finite0 || finite1 || finite2)
+            return Double.POSITIVE_INFINITY;
+        return 0;
+    }
+
+    /**
+     * Returns the number of evaluations done.
+     *
+     * @return the number of evaluations
+     */
+    int getEvaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * Passes the real points of the last complete pass to the given consumer, in X-coordinate order.
+     *
+     * @param consumer the point consumer
+     */
+    void forEach(Graph.PointConsumer consumer) {
+        for (int i = 0; i < this.count; i++) {
+            if (this.real[i])
+                consumer.consume(this.xs[i], this.ys[i]);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.util.NumberFormatters;
+
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+
+/**
+ * Represents an array of complex numbers.
+ * <p>
+ * The real and imaginary parts are stored in two separate primitive arrays,
+ * so storing a complex number costs 16 bytes without any per-element object.
+ * <p>
+ * An array may be a view over a range of another array's storage, see {@link #slice(int, int)},
+ * writing into a view writes into the storage it shares.
+ */
+public final class ComplexArray implements Value {
+    private final double[] real;
+    private final double[] imaginary;
+    private final int offset;
+    private final int length;
+
+    private ComplexArray(double[] real, double[] imaginary, int offset, int length) {
+        this.real = real;
+        this.imaginary = imaginary;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns a new array of the given length filled with zeros.
+     *
+     * @param length the length of the array
+     * @return the new array
+     */
+    public static ComplexArray allocate(int length) {
+        if (length < 0)
+            throw new IllegalArgumentException("The length (" + length + ") cannot be negative.");
+        return new ComplexArray(new double[length], new double[length], 0, length);
+    }
+
+    /**
+     * Returns an array backed by the given real and imaginary parts, without copying them.
+     *
+     * @param real the real parts
+     * @param imaginary the imaginary parts
+     * @return the array
+     * @throws IllegalArgumentException if the parts have different lengths
+     */
+    public static ComplexArray wrap(double[] real, double[] imaginary) {
+        if (real.length != imaginary.length)
+            throw new IllegalArgumentException("The real parts (" + real.length + ") and the imaginary parts (" + imaginary.length
+                    + ") have different lengths.");
+        return new ComplexArray(real, imaginary, 0, real.length);
+    }
+
+    /**
+     * Returns an array of real numbers backed by the given array, without copying it.
+     *
+     * @param real the real numbers
+     * @return the array
+     */
+    public static ComplexArray wrapReal(double[] real) {
+        return new ComplexArray(real, new double[real.length], 0, real.length);
+    }
+
+    /**
+     * Returns an array containing the given complex numbers.
+     *
+     * @param numbers the complex numbers
+     * @return the array
+     */
+    public static ComplexArray of(ComplexNumber... numbers) {
+        var array = allocate(numbers.length);
+        for (int i = 0; i < numbers.length; i++) {
+            array.set(i, numbers[i]);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the length of this array.
+     *
+     * @return the length
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns the backing array of the real parts.
+     * <p>
+     * The elements of this array are stored from {@link #offset()} to {@link #offset()} + {@link #length()}.
+     *
+     * @return the backing array of the real parts
+     */
+    public double[] realArray() {
+        return this.real;
+    }
+
+    /**
+     * Returns the backing array of the imaginary parts.
+     * <p>
+     * The elements of this array are stored from {@link #offset()} to {@link #offset()} + {@link #length()}.
+     *
+     * @return the backing array of the imaginary parts
+     */
+    public double[] imaginaryArray() {
+        return this.imaginary;
+    }
+
+    /**
+     * Returns the offset of the first element of this array in the backing arrays.
+     *
+     * @return the offset
+     */
+    public int offset() {
+        return this.offset;
+    }
+
+    private int index(int index) {
+        Objects.checkIndex(index, this.length);
+        return this.offset + index;
+    }
+
+    /**
+     * Returns the complex number at the given index.
+     *
+     * @param index the index
+     * @return the complex number
+     */
+    public ComplexNumber get(int index) {
+        var i = this.index(index);
+        return new ComplexNumber(this.real[i], this.imaginary[i]);
+    }
+
+    /**
+     * Returns the real part of the complex number at the given index.
+     *
+     * @param index the index
+     * @return the real part
+     */
+    public double getReal(int index) {
+        return this.real[this.index(index)];
+    }
+
+    /**
+     * Returns the imaginary part of the complex number at the given index.
+     *
+     * @param index the index
+     * @return the imaginary part
+     */
+    public double getImaginary(int index) {
+        return this.imaginary[this.index(index)];
+    }
+
+    /**
+     * Sets the complex number at the given index.
+     *
+     * @param index the index
+     * @param real the real part
+     * @param imaginary the imaginary part
+     */
+    public void set(int index, double real, double imaginary) {
+        var i = this.index(index);
+        this.real[i] = real;
+        this.imaginary[i] = imaginary;
+    }
+
+    /**
+     * Sets the complex number at the given index.
+     *
+     * @param index the index
+     * @param number the complex number
+     */
+    public void set(int index, ComplexNumber number) {
+        this.set(index, number.real(), number.imaginary());
+    }
+
+    /**
+     * Returns a view of the range of this array from {@code from} (inclusive) to {@code to} (exclusive).
+     * <p>
+     * The view shares the storage of this array.
+     *
+     * @param from the start of the range
+     * @param to the end of the range
+     * @return the view
+     */
+    public ComplexArray slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, this.length);
+        return new ComplexArray(this.real, this.imaginary, this.offset + from, to - from);
+    }
+
+    /**
+     * Returns a copy of this array with its own storage.
+     *
+     * @return the copy
+     */
+    public ComplexArray copy() {
+        var copy = allocate(this.length);
+        this.copyTo(copy, 0);
+        return copy;
+    }
+
+    /**
+     * Copies the elements of this array into the destination array, starting at the given index.
+     *
+     * @param destination the destination array
+     * @param index the index in the destination array
+     */
+    public void copyTo(ComplexArray destination, int index) {
+        Objects.checkFromIndexSize(index, this.length, destination.length);
+        System.arraycopy(this.real, this.offset, destination.real, destination.offset + index, this.length);
+        System.arraycopy(this.imaginary, this.offset, destination.imaginary, destination.offset + index, this.length);
+    }
+
+    private void checkSameLength(ComplexArray other) {
+        if (this.length != other.length)
+            throw new IllegalArgumentException("The arrays have different lengths (" + this.length + " and " + other.length + ").");
+    }
+
+    /**
+     * Adds element-wise the other array to this array.
+     *
+     * @param other the other array
+     * @return the result of the addition
+     */
+    public ComplexArray add(ComplexArray other) {
+        this.checkSameLength(other);
+        var result = allocate(this.length);
+        for (int i = 0; i < this.length; i++) {
+            result.real[i] = this.real[this.offset + i] + other.real[other.offset + i];
+            result.imaginary[i] = this.imaginary[this.offset + i] + other.imaginary[other.offset + i];
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts element-wise the other array to this array.
+     *
+     * @param other the other array
+     * @return the result of the subtraction
+     */
+    public ComplexArray subtract(ComplexArray other) {
+        this.checkSameLength(other);
+        var result = allocate(this.length);
+        for (int i = 0; i < this.length; i++) {
+            result.real[i] = this.real[this.offset + i] - other.real[other.offset + i];
+            result.imaginary[i] = this.imaginary[this.offset + i] - other.imaginary[other.offset + i];
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies element-wise the other array with this array.
+     *
+     * @param other the other array
+     * @return the result of the multiplication
+     */
+    public ComplexArray multiply(ComplexArray other) {
+        this.checkSameLength(other);
+        var result = allocate(this.length);
+        for (int i = 0; i < this.length; i++) {
+            double a = this.real[this.offset + i];
+            double b = this.imaginary[this.offset + i];
+            double c = other.real[other.offset + i];
+            double d = other.imaginary[other.offset + i];
+            result.real[i] = a * c - b * d;
+            result.imaginary[i] = a * d + b * c;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies every element of this array by a complex coefficient.
+     *
+     * @param coefficient the coefficient
+     * @return the result of the multiplication
+     */
+    public ComplexArray multiply(ComplexNumber coefficient) {
+        var result = allocate(this.length);
+        double c = coefficient.real();
+        double d = coefficient.imaginary();
+        for (int i = 0; i < this.length; i++) {
+            double a = this.real[this.offset + i];
+            double b = this.imaginary[this.offset + i];
+            result.real[i] = a * c - b * d;
+            result.imaginary[i] = a * d + b * c;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of the elements of this array.
+     *
+     * @return the sum
+     */
+    public ComplexNumber sum() {
+        double real = 0.0;
+        double imaginary = 0.0;
+        for (int i = this.offset; i < this.offset + this.length; i++) {
+            real += this.real[i];
+            imaginary += this.imaginary[i];
+        }
+        return new ComplexNumber(real, imaginary);
+    }
+
+    /**
+     * Returns the string representation of this array using the given number formatter.
+     *
+     * @param formatter the number formatter
+     * @return the array as string
+     */
+    public String toStringWithFormat(DoubleFunction<String> formatter) {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < this.length; i++) {
+            if (i != 0) builder.append(", ");
+            builder.append(this.get(i).toStringWithFormat(formatter));
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.toStringWithFormat(NumberFormatters.SCIENTIFIC_FORMATTER);
+    }
+}
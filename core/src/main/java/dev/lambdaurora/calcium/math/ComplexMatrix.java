@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.util.NumberFormatters;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleFunction;
+
+/**
+ * Represents a matrix of complex numbers.
+ * <p>
+ * The real and imaginary parts are stored in two separate primitive arrays in row-major order.
+ * A matrix holds at most {@link #MAX_ELEMENTS} elements.
+ */
+public final class ComplexMatrix implements Value {
+    /**
+     * The maximum number of elements of a matrix, 2<sup>22</sup> elements or 64 MiB.
+     */
+    public static final int MAX_ELEMENTS = 1 << 22;
+
+    // Size of the square blocks used by the multiplication kernel, 3 blocks of doubles fit in a typical L2 cache.
+    private static final int BLOCK_SIZE = 64;
+    // Amount of complex multiply-adds above which the multiplication is split across the fork/join pool.
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    private final int rows;
+    private final int columns;
+    private final double[] real;
+    private final double[] imaginary;
+
+    private ComplexMatrix(int rows, int columns, double[] real, double[] imaginary) {
+        this.rows = rows;
+        this.columns = columns;
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Returns a new matrix of the given size filled with zeros.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the new matrix
+     * @throws IllegalArgumentException if the size is negative or the matrix has more than {@link #MAX_ELEMENTS} elements
+     */
+    public static ComplexMatrix allocate(int rows, int columns) {
+        if (rows < 0 || columns < 0)
+            throw new IllegalArgumentException("Invalid matrix size " + rows + "x" + columns + ".");
+        if ((long) rows * columns > MAX_ELEMENTS)
+            throw new IllegalArgumentException("The matrix size " + rows + "x" + columns + " exceeds the maximum of " + MAX_ELEMENTS
+                    + " elements.");
+        var length = rows * columns;
+        return new ComplexMatrix(rows, columns, new double[length], new double[length]);
+    }
+
+    /**
+     * Returns the identity matrix of the given size.
+     *
+     * @param size the number of rows and columns
+     * @return the identity matrix
+     */
+    public static ComplexMatrix identity(int size) {
+        var matrix = allocate(size, size);
+        for (int i = 0; i < size; i++) {
+            matrix.real[i * size + i] = 1.0;
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the number of rows of this matrix.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of columns of this matrix.
+     *
+     * @return the number of columns
+     */
+    public int columns() {
+        return this.columns;
+    }
+
+    private int index(int row, int column) {
+        Objects.checkIndex(row, this.rows);
+        Objects.checkIndex(column, this.columns);
+        return row * this.columns + column;
+    }
+
+    /**
+     * Returns the complex number at the given position.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the complex number
+     */
+    public ComplexNumber get(int row, int column) {
+        var i = this.index(row, column);
+        return new ComplexNumber(this.real[i], this.imaginary[i]);
+    }
+
+    /**
+     * Sets the complex number at the given position.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @param number the complex number
+     */
+    public void set(int row, int column, ComplexNumber number) {
+        var i = this.index(row, column);
+        this.real[i] = number.real();
+        this.imaginary[i] = number.imaginary();
+    }
+
+    /**
+     * Returns a view of the given row of this matrix.
+     * <p>
+     * The view shares the storage of this matrix.
+     *
+     * @param row the row index
+     * @return the row
+     */
+    public ComplexArray getRow(int row) {
+        Objects.checkIndex(row, this.rows);
+        return ComplexArray.wrap(this.real, this.imaginary).slice(row * this.columns, (row + 1) * this.columns);
+    }
+
+    private void checkSameSize(ComplexMatrix other) {
+        if (this.rows != other.rows || this.columns != other.columns)
+            throw new IllegalArgumentException("The matrices have different sizes (" + this.rows + "x" + this.columns
+                    + " and " + other.rows + "x" + other.columns + ").");
+    }
+
+    /**
+     * Adds the other matrix to this matrix.
+     *
+     * @param other the other matrix
+     * @return the result of the addition
+     */
+    public ComplexMatrix add(ComplexMatrix other) {
+        this.checkSameSize(other);
+        var result = allocate(this.rows, this.columns);
+        for (int i = 0; i < this.real.length; i++) {
+            result.real[i] = this.real[i] + other.real[i];
+            result.imaginary[i] = this.imaginary[i] + other.imaginary[i];
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts the other matrix to this matrix.
+     *
+     * @param other the other matrix
+     * @return the result of the subtraction
+     */
+    public ComplexMatrix subtract(ComplexMatrix other) {
+        this.checkSameSize(other);
+        var result = allocate(this.rows, this.columns);
+        for (int i = 0; i < this.real.length; i++) {
+            result.real[i] = this.real[i] - other.real[i];
+            result.imaginary[i] = this.imaginary[i] - other.imaginary[i];
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies every element of this matrix by a complex coefficient.
+     *
+     * @param coefficient the coefficient
+     * @return the result of the multiplication
+     */
+    public ComplexMatrix multiply(ComplexNumber coefficient) {
+        var result = allocate(this.rows, this.columns);
+        double c = coefficient.real();
+        double d = coefficient.imaginary();
+        for (int i = 0; i < this.real.length; i++) {
+            result.real[i] = this.real[i] * c - this.imaginary[i] * d;
+            result.imaginary[i] = this.real[i] * d + this.imaginary[i] * c;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by the given column vector.
+     *
+     * @param vector the vector
+     * @return the resulting column vector
+     */
+    public ComplexArray multiply(ComplexArray vector) {
+        if (vector.length() != this.columns)
+            throw new IllegalArgumentException("Cannot multiply a " + this.rows + "x" + this.columns + " matrix by a vector of length "
+                    + vector.length() + ".");
+
+        var result = ComplexArray.allocate(this.rows);
+        var vectorReal = vector.realArray();
+        var vectorImaginary = vector.imaginaryArray();
+        var offset = vector.offset();
+        for (int row = 0; row < this.rows; row++) {
+            double real = 0.0;
+            double imaginary = 0.0;
+            for (int column = 0, i = row * this.columns; column < this.columns; column++, i++) {
+                double c = vectorReal[offset + column];
+                double d = vectorImaginary[offset + column];
+                real += this.real[i] * c - this.imaginary[i] * d;
+                imaginary += this.real[i] * d + this.imaginary[i] * c;
+            }
+            result.set(row, real, imaginary);
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by the other matrix.
+     * <p>
+     * The product is computed by blocks to stay in cache, and large products are split across the common fork/join pool.
+     *
+     * @param other the other matrix
+     * @return the result of the multiplication
+     */
+    public ComplexMatrix multiply(ComplexMatrix other) {
+        if (this.columns != other.rows)
+            throw new IllegalArgumentException("Cannot multiply a " + this.rows + "x" + this.columns + " matrix by a "
+                    + other.rows + "x" + other.columns + " matrix.");
+
+        var result = allocate(this.rows, other.columns);
+        var task = new MultiplyTask(this, other, result, 0, this.rows);
+        if ((long) this.rows * this.columns * other.columns >= PARALLEL_THRESHOLD)
+            ForkJoinPool.commonPool().invoke(task);
+        else
+            task.multiplyRows();
+        return result;
+    }
+
+    /**
+     * Returns the transpose of this matrix.
+     *
+     * @return the transpose
+     */
+    public ComplexMatrix transpose() {
+        var result = allocate(this.columns, this.rows);
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                result.real[column * this.rows + row] = this.real[row * this.columns + column];
+                result.imaginary[column * this.rows + row] = this.imaginary[row * this.columns + column];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the string representation of this matrix using the given number formatter.
+     *
+     * @param formatter the number formatter
+     * @return the matrix as string
+     */
+    public String toStringWithFormat(DoubleFunction<String> formatter) {
+        var builder = new StringBuilder("[");
+        for (int row = 0; row < this.rows; row++) {
+            if (row != 0) builder.append("; ");
+            for (int column = 0; column < this.columns; column++) {
+                if (column != 0) builder.append(", ");
+                builder.append(this.get(row, column).toStringWithFormat(formatter));
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.toStringWithFormat(NumberFormatters.SCIENTIFIC_FORMATTER);
+    }
+
+    /**
+     * Computes the rows {@code [from, to)} of the product of two matrices, splitting itself while the range is large.
+     */
+    private static class MultiplyTask extends RecursiveAction {
+        private final ComplexMatrix left;
+        private final ComplexMatrix right;
+        private final ComplexMatrix result;
+        private final int from;
+        private final int to;
+
+        private MultiplyTask(ComplexMatrix left, ComplexMatrix right, ComplexMatrix result, int from, int to) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BLOCK_SIZE
+                    || (long) (this.to - this.from) * this.left.columns * this.right.columns < PARALLEL_THRESHOLD) {
+                this.multiplyRows();
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new MultiplyTask(this.left, this.right, this.result, this.from, middle),
+                        new MultiplyTask(this.left, this.right, this.result, middle, this.to));
+            }
+        }
+
+        private void multiplyRows() {
+            int n = this.left.columns;
+            int p = this.right.columns;
+            double[] aReal = this.left.real;
+            double[] aImaginary = this.left.imaginary;
+            double[] bReal = this.right.real;
+            double[] bImaginary = this.right.imaginary;
+            double[] cReal = this.result.real;
+            double[] cImaginary = this.result.imaginary;
+
+            for (int i0 = this.from; i0 < this.to; i0 += BLOCK_SIZE) {
+                int iMax = Math.min(i0 + BLOCK_SIZE, this.to);
+                for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+                    int kMax = Math.min(k0 + BLOCK_SIZE, n);
+                    for (int j0 = 0; j0 < p; j0 += BLOCK_SIZE) {
+                        int jMax = Math.min(j0 + BLOCK_SIZE, p);
+
+                        for (int i = i0; i < iMax; i++) {
+                            int cRow = i * p;
+                            for (int k = k0; k < kMax; k++) {
+                                double ar = aReal[i * n + k];
+                                double ai = aImaginary[i * n + k];
+                                int bRow = k * p;
+                                // Contiguous inner loop over a row of B and C, which the JIT can vectorize.
+                                for (int j = j0; j < jMax; j++) {
+                                    double br = bReal[bRow + j];
+                                    double bi = bImaginary[bRow + j];
+                                    cReal[cRow + j] += ar * br - ai * bi;
+                                    cImaginary[cRow + j] += ar * bi + ai * br;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
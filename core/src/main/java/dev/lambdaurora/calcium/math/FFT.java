@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * Provides the fast Fourier transform of {@link ComplexArray complex arrays}.
+ * <p>
+ * Power of two sizes use an iterative radix-2 transform, other sizes use Bluestein's algorithm
+ * which turns the transform into a convolution of power of two size.
+ * The twiddle factors and Bluestein's chirps of the most recently used sizes are cached,
+ * so the memory they hold stays bounded whatever the sizes of the transforms.
+ * Large transforms split their butterflies across the common fork/join pool.
+ */
+public final class FFT {
+    // Butterfly count of a stage above which the stage is split across the fork/join pool.
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int PARALLEL_CHUNK = 1 << 13;
+    private static final SizeCache<Twiddles> TWIDDLES = new SizeCache<>(16, Twiddles::new);
+    private static final SizeCache<Chirp> CHIRPS = new SizeCache<>(4, Chirp::new);
+
+    private FFT() {
+        throw new UnsupportedOperationException("FFT only contains static definitions.");
+    }
+
+    /**
+     * Returns the discrete Fourier transform of the given array.
+     *
+     * @param input the input array
+     * @return the transform
+     */
+    public static ComplexArray fft(ComplexArray input) {
+        return transform(input, false);
+    }
+
+    /**
+     * Returns the inverse discrete Fourier transform of the given array, including the {@code 1/n} scaling.
+     *
+     * @param input the input array
+     * @return the inverse transform
+     */
+    public static ComplexArray ifft(ComplexArray input) {
+        var result = transform(input, true);
+        var n = result.length();
+        var real = result.realArray();
+        var imaginary = result.imaginaryArray();
+        for (int i = 0; i < n; i++) {
+            real[i] /= n;
+            imaginary[i] /= n;
+        }
+        return result;
+    }
+
+    private static ComplexArray transform(ComplexArray input, boolean inverse) {
+        var result = input.copy();
+        var n = result.length();
+        if (n <= 1)
+            return result;
+
+        if (Integer.bitCount(n) == 1)
+            radix2(result.realArray(), result.imaginaryArray(), inverse);
+        else
+            bluestein(result.realArray(), result.imaginaryArray(), inverse);
+        return result;
+    }
+
+    /**
+     * Computes in-place the transform of a power of two size.
+     *
+     * @param real the real parts
+     * @param imaginary the imaginary parts
+     * @param inverse {@code true} to compute the unscaled inverse transform, otherwise {@code false}
+     */
+    private static void radix2(double[] real, double[] imaginary, boolean inverse) {
+        int n = real.length;
+        var twiddles = TWIDDLES.get(n);
+        double sign = inverse ? 1.0 : -1.0;
+
+        // Bit-reversal permutation.
+        int shift = Integer.numberOfLeadingZeros(n) + 1;
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> shift;
+            if (j > i) {
+                double t = real[i];
+                real[i] = real[j];
+                real[j] = t;
+                t = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = t;
+            }
+        }
+
+        for (int half = 1; half < n; half <<= 1) {
+            if (n / 2 >= PARALLEL_THRESHOLD)
+                ForkJoinPool.commonPool().invoke(new StageTask(real, imaginary, twiddles, sign, half, 0, n / 2));
+            else
+                butterflies(real, imaginary, twiddles, sign, half, 0, n / 2);
+        }
+    }
+
+    /**
+     * Computes the butterflies {@code [from, to)} of the stage combining transforms of size {@code half}.
+     */
+    private static void butterflies(double[] real, double[] imaginary, Twiddles twiddles, double sign, int half, int from, int to) {
+        int stride = twiddles.cos.length / half;
+        for (int b = from; b < to; b++) {
+            int j = b & (half - 1);
+            int i = ((b - j) << 1) + j;
+            int k = i + half;
+            double wr = twiddles.cos[j * stride];
+            double wi = sign * twiddles.sin[j * stride];
+            double tr = wr * real[k] - wi * imaginary[k];
+            double ti = wr * imaginary[k] + wi * real[k];
+            real[k] = real[i] - tr;
+            imaginary[k] = imaginary[i] - ti;
+            real[i] += tr;
+            imaginary[i] += ti;
+        }
+    }
+
+    /**
+     * Computes in-place the transform of an arbitrary size with Bluestein's algorithm.
+     *
+     * @param real the real parts
+     * @param imaginary the imaginary parts
+     * @param inverse {@code true} to compute the unscaled inverse transform, otherwise {@code false}
+     */
+    private static void bluestein(double[] real, double[] imaginary, boolean inverse) {
+        int n = real.length;
+        var chirp = CHIRPS.get(n);
+        int m = chirp.filterReal.length;
+        double sign = inverse ? -1.0 : 1.0;
+
+        // a_k = x_k * w_k, where w_k = exp(-i pi k^2 / n) for the forward transform and its conjugate for the inverse one.
+        var aReal = new double[m];
+        var aImaginary = new double[m];
+        for (int k = 0; k < n; k++) {
+            double wr = chirp.real[k];
+            double wi = sign * chirp.imaginary[k];
+            aReal[k] = real[k] * wr - imaginary[k] * wi;
+            aImaginary[k] = real[k] * wi + imaginary[k] * wr;
+        }
+
+        // Convolution with the conjugate chirp, through the cached transform of the filter.
+        radix2(aReal, aImaginary, false);
+        double[] filterImaginary = inverse ? chirp.inverseFilterImaginary : chirp.filterImaginary;
+        for (int k = 0; k < m; k++) {
+            double br = chirp.filterReal[k];
+            double bi = filterImaginary[k];
+            double r = aReal[k] * br - aImaginary[k] * bi;
+            aImaginary[k] = aReal[k] * bi + aImaginary[k] * br;
+            aReal[k] = r;
+        }
+        radix2(aReal, aImaginary, true);
+
+        for (int k = 0; k < n; k++) {
+            double cr = aReal[k] / m;
+            double ci = aImaginary[k] / m;
+            double wr = chirp.real[k];
+            double wi = sign * chirp.imaginary[k];
+            real[k] = cr * wr - ci * wi;
+            imaginary[k] = cr * wi + ci * wr;
+        }
+    }
+
+    /**
+     * Represents a cache of the precomputed values of the most recently used transform sizes.
+     */
+    private static final class SizeCache<T> {
+        private final Map<Integer, T> entries;
+        private final IntFunction<T> factory;
+
+        private SizeCache(int capacity, IntFunction<T> factory) {
+            this.entries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                    return this.size() > capacity;
+                }
+            };
+            this.factory = factory;
+        }
+
+        T get(int n) {
+            synchronized (this) {
+                var value = this.entries.get(n);
+                if (value != null)
+                    return value;
+            }
+
+            // Computed outside of the lock, large sizes take a while and a chirp needs the twiddles of its filter.
+            var value = this.factory.apply(n);
+            synchronized (this) {
+                var existing = this.entries.putIfAbsent(n, value);
+                return existing != null ? existing : value;
+            }
+        }
+    }
+
+    /**
+     * Represents the twiddle factors {@code exp(-2 pi i k / n)} of a power of two size, for {@code k} in {@code [0, n / 2)}.
+     */
+    private static final class Twiddles {
+        private final double[] cos;
+        private final double[] sin;
+
+        private Twiddles(int n) {
+            this.cos = new double[n / 2];
+            this.sin = new double[n / 2];
+            for (int k = 0; k < n / 2; k++) {
+                double angle = 2.0 * Math.PI * k / n;
+                this.cos[k] = Math.cos(angle);
+                this.sin[k] = Math.sin(angle);
+            }
+        }
+    }
+
+    /**
+     * Represents Bluestein's chirp of a given size, and the transform of its convolution filter.
+     */
+    private static final class Chirp {
+        private final double[] real;
+        private final double[] imaginary;
+        private final double[] filterReal;
+        private final double[] filterImaginary;
+        private final double[] inverseFilterImaginary;
+
+        private Chirp(int n) {
+            this.real = new double[n];
+            this.imaginary = new double[n];
+            for (int k = 0; k < n; k++) {
+                // k^2 mod 2n keeps the angle small, so it stays precise for large sizes.
+                long k2 = (long) k * k % (2L * n);
+                double angle = Math.PI * k2 / n;
+                this.real[k] = Math.cos(angle);
+                this.imaginary[k] = -Math.sin(angle);
+            }
+
+            int m = Integer.highestOneBit(2 * n - 1);
+            if (m < 2 * n - 1) m <<= 1;
+
+            // The filter is the conjugate chirp, wrapped around for the negative indices.
+            this.filterReal = new double[m];
+            this.filterImaginary = new double[m];
+            this.filterReal[0] = this.real[0];
+            this.filterImaginary[0] = -this.imaginary[0];
+            for (int k = 1; k < n; k++) {
+                this.filterReal[k] = this.filterReal[m - k] = this.real[k];
+                this.filterImaginary[k] = this.filterImaginary[m - k] = -this.imaginary[k];
+            }
+
+            radix2(this.filterReal, this.filterImaginary, false);
+
+            // The inverse transform uses the conjugate filter, which is symmetric like the filter,
+            // so its transform is the conjugate of the filter transform.
+            this.inverseFilterImaginary = new double[m];
+            for (int k = 0; k < m; k++) {
+                this.inverseFilterImaginary[k] = -this.filterImaginary[k];
+            }
+        }
+    }
+
+    /**
+     * Computes a range of butterflies of one stage, splitting itself while the range is large.
+     */
+    private static final class StageTask extends RecursiveAction {
+        private final double[] real;
+        private final double[] imaginary;
+        private final Twiddles twiddles;
+        private final double sign;
+        private final int half;
+        private final int from;
+        private final int to;
+
+        private StageTask(double[] real, double[] imaginary, Twiddles twiddles, double sign, int half, int from, int to) {
+            this.real = real;
+            this.imaginary = imaginary;
+            this.twiddles = twiddles;
+            this.sign = sign;
+            this.half = half;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_CHUNK) {
+                butterflies(this.real, this.imaginary, this.twiddles, this.sign, this.half, this.from, this.to);
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new StageTask(this.real, this.imaginary, this.twiddles, this.sign, this.half, this.from, middle),
+                        new StageTask(this.real, this.imaginary, this.twiddles, this.sign, this.half, middle, this.to));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+/**
+ * Provides fast approximations of elementary functions.
+ * <p>
+ * The approximations trade a few units in the last place for speed:
+ * <ul>
+ *     <li>{@link #sin(double)}, {@link #cos(double)} and {@link #tan(double)} use a lookup table of 128 angles and small polynomials,
+ *     with an absolute error below 1E-15 for {@code |x| <= 1E5} (relative error below 64 ulp for {@code tan}),
+ *     larger arguments use {@link Math}</li>
+ *     <li>{@link #sinh(double)}, {@link #cosh(double)} and {@link #tanh(double)} are derived from a single {@link Math#exp(double)} call,
+ *     with a relative error below 16 ulp, {@code sinh} and {@code cosh} use {@link Math} for {@code |x| > 709}
+ *     where {@code exp} would overflow before them</li>
+ * </ul>
+ * There are no approximations of {@code exp} and {@code log}, the {@link Math} ones are intrinsics which are already faster
+ * than a table-based approximation.
+ * <p>
+ * Special values (infinities, NaN) behave like their {@link Math} counterparts.
+ *
+ * @see MathPolicy#FAST
+ */
+public final class FastMath {
+    private static final int SIN_TABLE_BITS = 7;
+    private static final int SIN_TABLE_SIZE = 1 << SIN_TABLE_BITS;
+    private static final int SIN_TABLE_MASK = SIN_TABLE_SIZE - 1;
+    private static final double[] SIN_TABLE = new double[SIN_TABLE_SIZE];
+    // pi / 64 split in three parts to reduce the argument without losing precision (Cody-Waite).
+    private static final double PI_64_INVERSE = 64.0 / Math.PI;
+    private static final double PI_64_HIGH = Double.longBitsToDouble(Double.doubleToRawLongBits(Math.PI / 64.0) & 0xfffffffff0000000L);
+    private static final double PI_64_MIDDLE = Math.PI / 64.0 - PI_64_HIGH;
+    private static final double PI_64_LOW = 1.2246467991473532E-16 / 64.0; // pi - Math.PI
+    private static final double SIN_COS_LIMIT = 1E5;
+    // Adding then subtracting this constant rounds a double to the nearest integer, which is stored in the low bits.
+    private static final double ROUND_SHIFTER = 0x1.8p52;
+    // exp overflows past ~709.78, while sinh and cosh only overflow past ~710.48.
+    private static final double HYPERBOLIC_LIMIT = 709.0;
+
+    private FastMath() {
+        throw new UnsupportedOperationException("FastMath only contains static definitions.");
+    }
+
+    /**
+     * Returns the sine of the given angle.
+     *
+     * @param x an angle, in radians
+     * @return the sine of the argument
+     */
+    public static double sin(double x) {
+        if (!(Math.abs(x) <= SIN_COS_LIMIT))
+            return Math.sin(x);
+
+        double shifted = x * PI_64_INVERSE + ROUND_SHIFTER;
+        long k = Double.doubleToRawLongBits(shifted);
+        double kd = shifted - ROUND_SHIFTER;
+        double r = ((x - kd * PI_64_HIGH) - kd * PI_64_MIDDLE) - kd * PI_64_LOW;
+        double sinA = SIN_TABLE[(int) (k & SIN_TABLE_MASK)];
+        double cosA = SIN_TABLE[(int) ((k + SIN_TABLE_SIZE / 4) & SIN_TABLE_MASK)];
+        return sinA * cosPolynomial(r) + cosA * sinPolynomial(r);
+    }
+
+    /**
+     * Returns the cosine of the given angle.
+     *
+     * @param x an angle, in radians
+     * @return the cosine of the argument
+     */
+    public static double cos(double x) {
+        if (!(Math.abs(x) <= SIN_COS_LIMIT))
+            return Math.cos(x);
+
+        double shifted = x * PI_64_INVERSE + ROUND_SHIFTER;
+        long k = Double.doubleToRawLongBits(shifted);
+        double kd = shifted - ROUND_SHIFTER;
+        double r = ((x - kd * PI_64_HIGH) - kd * PI_64_MIDDLE) - kd * PI_64_LOW;
+        double sinA = SIN_TABLE[(int) (k & SIN_TABLE_MASK)];
+        double cosA = SIN_TABLE[(int) ((k + SIN_TABLE_SIZE / 4) & SIN_TABLE_MASK)];
+        return cosA * cosPolynomial(r) - sinA * sinPolynomial(r);
+    }
+
+    /**
+     * Returns the tangent of the given angle.
+     *
+     * @param x an angle, in radians
+     * @return the tangent of the argument
+     */
+    public static double tan(double x) {
+        if (!(Math.abs(x) <= SIN_COS_LIMIT))
+            return Math.tan(x);
+
+        double shifted = x * PI_64_INVERSE + ROUND_SHIFTER;
+        long k = Double.doubleToRawLongBits(shifted);
+        double kd = shifted - ROUND_SHIFTER;
+        double r = ((x - kd * PI_64_HIGH) - kd * PI_64_MIDDLE) - kd * PI_64_LOW;
+        double sinA = SIN_TABLE[(int) (k & SIN_TABLE_MASK)];
+        double cosA = SIN_TABLE[(int) ((k + SIN_TABLE_SIZE / 4) & SIN_TABLE_MASK)];
+        double sinR = sinPolynomial(r);
+        double cosR = cosPolynomial(r);
+        return (sinA * cosR + cosA * sinR) / (cosA * cosR - sinA * sinR);
+    }
+
+    // Taylor series of sin on [-pi/128, pi/128], the next term is below 1E-20.
+    private static double sinPolynomial(double r) {
+        double r2 = r * r;
+        return r + r * r2 * (-1.0 / 6.0 + r2 * (1.0 / 120.0 + r2 * (-1.0 / 5040.0)));
+    }
+
+    // Taylor series of cos on [-pi/128, pi/128], the next term is below 1E-19.
+    private static double cosPolynomial(double r) {
+        double r2 = r * r;
+        return 1.0 + r2 * (-0.5 + r2 * (1.0 / 24.0 + r2 * (-1.0 / 720.0)));
+    }
+
+    /**
+     * Returns the hyperbolic sine of the given value.
+     *
+     * @param x a value
+     * @return the hyperbolic sine of {@code x}
+     */
+    public static double sinh(double x) {
+        double abs = Math.abs(x);
+        if (abs < 0.125) {
+            double x2 = x * x;
+            return x + x * x2 * (1.0 / 6.0 + x2 * (1.0 / 120.0 + x2 * (1.0 / 5040.0 + x2 * (1.0 / 362880.0))));
+        }
+
+        if (abs > HYPERBOLIC_LIMIT)
+            return Math.sinh(x);
+
+        double e = Math.exp(abs);
+        return Math.copySign(0.5 * (e - 1.0 / e), x);
+    }
+
+    /**
+     * Returns the hyperbolic cosine of the given value.
+     *
+     * @param x a value
+     * @return the hyperbolic cosine of {@code x}
+     */
+    public static double cosh(double x) {
+        double abs = Math.abs(x);
+        if (abs > HYPERBOLIC_LIMIT)
+            return Math.cosh(x);
+
+        double e = Math.exp(abs);
+        return 0.5 * (e + 1.0 / e);
+    }
+
+    /**
+     * Returns the hyperbolic tangent of the given value.
+     *
+     * @param x a value
+     * @return the hyperbolic tangent of {@code x}
+     */
+    public static double tanh(double x) {
+        double abs = Math.abs(x);
+        if (abs > 22.0)
+            return Math.copySign(1.0, x);
+        else if (abs < 0.125)
+            return sinh(x) / cosh(x);
+
+        double e = Math.exp(2.0 * abs);
+        return Math.copySign((e - 1.0) / (e + 1.0), x);
+    }
+
+    static {
+        for (int i = 0; i < SIN_TABLE_SIZE; i++) {
+            SIN_TABLE[i] = Math.sin(i * Math.PI / 64.0);
+        }
+    }
+}
@@ -17,25 +17,63 @@
 
 package dev.lambdaurora.calcium.math;
 
+import dev.lambdaurora.calcium.evaluation.EvaluationCancelledException;
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
 import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.metrics.EvaluationEvent;
+import dev.lambdaurora.calcium.metrics.GraphComputeEvent;
+import dev.lambdaurora.calcium.metrics.Metrics;
 import dev.lambdaurora.calcium.symbol.SymbolTable;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a graph.
  * <p>
  * Evaluates the given expression from {@code xMin} to {@code xMax} incrementing of {@code step}.
+ * The samples are taken at the multiples of the step, so that changing the range or changing the step
+ * by an integer factor or divisor only evaluates the expression at the new X-coordinates.
+ * The points are stored in primitive arrays, ordered by X-coordinate, and are accessed by index.
+ * <p>
+ * In {@linkplain #setAdaptive(boolean) adaptive mode}, the step is ignored and the points are placed
+ * where the curve needs them, given the {@linkplain #setResolution(int, int) resolution} of the plot.
  */
 public class Graph {
+    /**
+     * The minimum number of points to sample a pure expression in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK_SIZE = 1024;
+    private static final int MAX_POINTS = 1 << 26;
+    // Beyond, the grid indices can't be represented exactly as doubles.
+    private static final double MAX_GRID_INDEX = 1L << 52;
+    /**
+     * The default maximum number of evaluations in adaptive mode.
+     */
+    public static final int DEFAULT_MAX_EVALUATIONS = 8192;
+
     private double xMin;
     private double xMax;
     private double step;
     private double min;
     private double max;
     private Expression expression;
-    private final Map<Double, Double> points = new LinkedHashMap<>();
+    private MathPolicy mathPolicy = MathPolicy.EXACT;
+    private boolean adaptive = false;
+    private int width = 1024;
+    private int height = 768;
+    private int maxEvaluations = DEFAULT_MAX_EVALUATIONS;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int pointCount;
+    private Grid grid;
+    private Grid spareGrid;
+    private int evaluationCount;
+    private GraphSnapshot snapshot;
+    private volatile EvaluationContext evaluationContext;
 
     /**
      * Returns a new {@linkplain Graph} instance.
@@ -99,40 +137,325 @@ public class Graph {
 
     public void setExpression(Expression expression) {
         this.expression = expression;
+        this.invalidateGrid();
         this.compute();
     }
 
-    protected void compute() {
-        this.points.clear();
-        this.min = this.max = 0;
+    public MathPolicy getMathPolicy() {
+        return this.mathPolicy;
+    }
+
+    /**
+     * Sets the policy used to compute elementary functions while evaluating the graph.
+     *
+     * @param mathPolicy the math policy
+     */
+    public void setMathPolicy(MathPolicy mathPolicy) {
+        this.mathPolicy = mathPolicy;
+        this.invalidateGrid();
+        this.compute();
+    }
+
+    /**
+     * Returns whether this graph is sampled adaptively.
+     *
+     * @return {@code true} if this graph is sampled adaptively, or {@code false} if it is sampled at each step
+     */
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+
+    /**
+     * Sets whether this graph is sampled adaptively.
+     * <p>
+     * Adaptive sampling starts with a coarse grid, and refines where the curve bends or jumps more than half a pixel,
+     * up to the {@linkplain #setMaxEvaluations(int) maximum number of evaluations}.
+     *
+     * @param adaptive {@code true} to sample adaptively, or {@code false} to sample at each step
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        this.compute();
+    }
+
+    /**
+     * Sets the resolution in pixels of the plot of this graph, used by the adaptive sampling.
+     *
+     * @param width the width in pixels
+     * @param height the height in pixels
+     */
+    public void setResolution(int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The resolution (" + width + "x" + height + ") must be positive.");
+        this.width = width;
+        this.height = height;
+        if (this.adaptive)
+            this.compute();
+    }
+
+    public int getMaxEvaluations() {
+        return this.maxEvaluations;
+    }
 
+    /**
+     * Sets the maximum number of evaluations of the adaptive sampling.
+     *
+     * @param maxEvaluations the maximum number of evaluations
+     */
+    public void setMaxEvaluations(int maxEvaluations) {
+        if (maxEvaluations < 2)
+            throw new IllegalArgumentException("The maximum number of evaluations (" + maxEvaluations + ") must be at least 2.");
+        this.maxEvaluations = maxEvaluations;
+        if (this.adaptive)
+            this.compute();
+    }
+
+    /**
+     * Cancels the computation in progress, if any.
+     * <p>
+     * The computation stops at its next checkpoint, keeping the points computed so far.
+     */
+    public void cancel() {
+        var context = this.evaluationContext;
+        if (context != null)
+            context.cancel();
+    }
+
+    protected void compute() {
+        var context = new EvaluationContext();
+        this.evaluationContext = context;
         var symbolTable = new SymbolTable();
+        symbolTable.setMathPolicy(this.mathPolicy);
+        symbolTable.setEvaluationContext(context);
 
-        for (double x = this.xMin; x <= this.xMax; x += this.step) {
-            symbolTable.setVariable("x", new ComplexNumber(x));
+        var grid = this.adaptive ? null : this.prepareGrid();
+        int count = grid == null ? this.maxEvaluations : grid.length + 2;
+        if (count > this.xs.length) {
+            this.xs = new double[count];
+            this.ys = new double[count];
+        }
+        var samples = new Samples(this.xs, this.ys);
+        this.evaluationCount = 0;
+        this.snapshot = null;
 
-            try {
-                var result = this.expression.evaluate(symbolTable);
+        var event = new GraphComputeEvent();
+        event.begin();
+        var start = Metrics.GRAPH_COMPUTE.start();
+        try {
+            if (grid == null)
+                this.computePointsAdaptive(symbolTable, samples);
+            else if (grid.missing >= PARALLEL_THRESHOLD && this.expression.isPure(symbolTable))
+                this.computeGridParallel(symbolTable, grid);
+            else
+                this.computeGrid(symbolTable, grid);
+        } catch (EvaluationCancelledException e) {
+            // Cancelled, keep the points computed so far.
+            event.cancelled = true;
+        } finally {
+            if (grid != null)
+                grid.collect(samples);
+            this.pointCount = samples.count;
+            this.min = samples.min;
+            this.max = samples.max;
+            Metrics.GRAPH_COMPUTE.stop(start);
 
-                if (result instanceof ComplexNumber number && number.isReal()) {
-                    var val = number.realValue();
-                    if (val > this.max && !Double.isInfinite(val)) this.max = val;
-                    if (val < this.min && !Double.isInfinite(val)) this.min = val;
-                    this.points.put(x, val);
-                }
-            } catch (ArithmeticException e) {
-                this.points.put(x, Double.NaN); // Uh oh
+            event.end();
+            if (event.shouldCommit()) {
+                event.xMin = this.xMin;
+                event.xMax = this.xMax;
+                event.step = this.step;
+                event.expressionHash = EvaluationEvent.structuralHash(this.expression);
+                event.pointCount = this.pointCount;
+                event.evaluations = this.evaluationCount;
+                event.commit();
             }
         }
     }
 
+    /**
+     * Prepares the sampling grid of the current range and step, reusing the samples of the previous grid.
+     * <p>
+     * The grid is anchored at the multiples of the step, so that panning keeps the samples of the overlapping range,
+     * and changing the step by an integer factor or divisor keeps the samples at the common X-coordinates.
+     * The bounds of the range which don't fall on the grid are sampled as edges, so the graph spans the whole range.
+     *
+     * @return the sampling grid
+     */
+    private Grid prepareGrid() {
+        double first = Math.ceil(this.xMin / this.step - 1E-9);
+        double last = Math.floor(this.xMax / this.step + 1E-9);
+        if (Math.abs(first) > MAX_GRID_INDEX || Math.abs(last) > MAX_GRID_INDEX)
+            throw new IllegalArgumentException("The step (" + this.step + ") is too small for the range ["
+                    + this.xMin + ", " + this.xMax + "].");
+
+        double count = last - first + 1;
+        if (count > MAX_POINTS)
+            throw new IllegalArgumentException("The step (" + this.step + ") is too small for the range ["
+                    + this.xMin + ", " + this.xMax + "].");
+
+        var previous = this.grid;
+        var grid = Grid.allocate(this.spareGrid, (long) first, this.step, Math.max(0, (int) count));
+        if (this.xMin <= this.xMax) {
+            grid.edges[Grid.LEFT] = count <= 0 || first - this.xMin / this.step > 1E-9 ? this.xMin : Double.NaN;
+            grid.edges[Grid.RIGHT] = (count <= 0 || this.xMax / this.step - last > 1E-9) && this.xMax != this.xMin
+                    ? this.xMax : Double.NaN;
+        }
+        if (previous != null)
+            grid.reuse(previous);
+
+        this.spareGrid = previous;
+        this.grid = grid;
+        return grid;
+    }
+
+    /**
+     * Invalidates the samples of the grid, they have to be evaluated again.
+     */
+    private void invalidateGrid() {
+        if (this.grid != null)
+            this.spareGrid = this.grid;
+        this.grid = null;
+    }
+
+    private void computeGrid(SymbolTable symbolTable, Grid grid) {
+        this.computeEdge(symbolTable, grid, Grid.LEFT);
+        for (int i = 0; i < grid.length; i++) {
+            if (!grid.known[i]) {
+                this.evaluationCount++;
+                grid.xs[i] = grid.getX(i);
+                evaluate(this.expression, symbolTable, grid.xs[i], grid.values, grid.real, i);
+                grid.known[i] = true;
+            }
+        }
+        this.computeEdge(symbolTable, grid, Grid.RIGHT);
+    }
+
+    private void computeEdge(SymbolTable symbolTable, Grid grid, int side) {
+        if (!Double.isNaN(grid.edges[side]) && !grid.edgeKnown[side]) {
+            this.evaluationCount++;
+            evaluate(this.expression, symbolTable, grid.edges[side], grid.edgeValues, grid.edgeReal, side);
+            grid.edgeKnown[side] = true;
+        }
+    }
+
+    private void computeGridParallel(SymbolTable symbolTable, Grid grid) {
+        this.computeEdge(symbolTable, grid, Grid.LEFT);
+        var chunks = new AtomicReferenceArray<Chunk>((grid.length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        try {
+            ForkJoinPool.commonPool().invoke(new SampleTask(this.expression, symbolTable, grid, chunks, 0, chunks.length()));
+        } finally {
+            // Merge the complete chunks, the other ones are evaluated again by the next computation.
+            for (int i = 0; i < chunks.length(); i++) {
+                var chunk = chunks.get(i);
+                if (chunk != null)
+                    this.evaluationCount += chunk.mergeInto(grid, i * CHUNK_SIZE);
+            }
+        }
+        this.computeEdge(symbolTable, grid, Grid.RIGHT);
+    }
+
+    private void computePointsAdaptive(SymbolTable symbolTable, Samples samples) {
+        var sampler = new AdaptiveSampler(this.expression, symbolTable);
+        try {
+            sampler.sample(this.xMin, this.xMax, this.width, this.height, this.maxEvaluations);
+        } finally {
+            this.evaluationCount = sampler.getEvaluations();
+            sampler.forEach(samples::add);
+        }
+    }
+
+    /**
+     * Evaluates the expression at the given X-coordinate.
+     * <p>
+     * Non-real results are flagged in {@code real}, an arithmetic error gives a {@code NaN} value.
+     */
+    private static void evaluate(Expression expression, SymbolTable symbolTable, double x, double[] values, boolean[] real, int index) {
+        symbolTable.checkpoint();
+        symbolTable.setVariable("x", new ComplexNumber(x));
+
+        try {
+            var result = expression.evaluate(symbolTable);
+
+            if (result instanceof ComplexNumber number && number.isReal()) {
+                values[index] = number.realValue();
+                real[index] = true;
+            } else {
+                values[index] = Double.NaN;
+                real[index] = false;
+            }
+        } catch (ArithmeticException e) {
+            values[index] = Double.NaN; // Uh oh
+            real[index] = true;
+        }
+    }
+
+    /**
+     * Returns the number of evaluations of the expression done by the last computation.
+     * <p>
+     * Samples reused from the previous computation are not counted.
+     *
+     * @return the number of evaluations
+     */
+    public int getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Returns an immutable snapshot of the points of this graph, as of the last computation.
+     * <p>
+     * The snapshot is copied once per computation, it can be published to other threads while this graph is computed again.
+     *
+     * @return the snapshot of the points
+     */
+    public GraphSnapshot snapshot() {
+        if (this.snapshot == null)
+            this.snapshot = new GraphSnapshot(this.xMin, this.xMax, this.step, this.min, this.max, this.xs, this.ys, this.pointCount);
+        return this.snapshot;
+    }
+
+    /**
+     * Returns the number of points in this graph.
+     *
+     * @return the number of points
+     */
+    public int getPointCount() {
+        return this.pointCount;
+    }
+
+    /**
+     * Returns the X-coordinate of the point at the given index.
+     *
+     * @param index the index of the point
+     * @return the X-coordinate of the point
+     */
+    public double getX(int index) {
+        this.checkIndex(index);
+        return this.xs[index];
+    }
+
+    /**
+     * Returns the value of the point at the given index.
+     *
+     * @param index the index of the point
+     * @return the value of the point, may be {@code NaN} or infinite
+     */
+    public double getY(int index) {
+        this.checkIndex(index);
+        return this.ys[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.pointCount)
+            throw new IndexOutOfBoundsException("Point index " + index + " out of bounds for " + this.pointCount + " points.");
+    }
+
     /**
      * Returns the first X-coordinate with value in this graph.
      *
      * @return the first X-coordinate with value
      */
     public double getFirstX() {
-        return this.points.keySet().stream().findFirst().orElse(this.getXMin());
+        return this.pointCount == 0 ? this.getXMin() : this.xs[0];
     }
 
     /**
@@ -141,15 +464,238 @@ public class Graph {
      * @return the first value
      */
     public double getFirstValue() {
-        return this.points.values().stream().findFirst().orElse(0.0);
+        return this.pointCount == 0 ? 0.0 : this.ys[0];
     }
 
     public void forEach(PointConsumer pointConsumer) {
-        this.points.forEach(pointConsumer::consume);
+        for (int i = 0; i < this.pointCount; i++) {
+            pointConsumer.consume(this.xs[i], this.ys[i]);
+        }
     }
 
     @FunctionalInterface
     public interface PointConsumer {
-        void consume(double x, Double y);
+        void consume(double x, double y);
+    }
+
+    /**
+     * Represents sampled points with their minimum and maximum values.
+     */
+    private static final class Samples {
+        private final double[] xs;
+        private final double[] ys;
+        private int count;
+        private double min;
+        private double max;
+
+        Samples(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+        }
+
+        void add(double x, double y) {
+            if (y > this.max && !Double.isInfinite(y)) this.max = y;
+            if (y < this.min && !Double.isInfinite(y)) this.min = y;
+
+            this.xs[this.count] = x;
+            this.ys[this.count] = y;
+            this.count++;
+        }
+    }
+
+    /**
+     * Represents the sampling grid, the i-th slot being at the X-coordinate {@code (start + i) * step}.
+     * <p>
+     * Each slot remembers whether it is known, so a grid can be partially filled from a previous grid.
+     * The edges are the bounds of the range outside of the grid, {@code NaN} when the bound falls on the grid.
+     */
+    private static final class Grid {
+        private static final int LEFT = 0;
+        private static final int RIGHT = 1;
+
+        private final double[] edges = new double[2];
+        private final double[] edgeValues = new double[2];
+        private final boolean[] edgeReal = new boolean[2];
+        private final boolean[] edgeKnown = new boolean[2];
+        private long start;
+        private double step;
+        private int length;
+        private int missing;
+        private final double[] xs;
+        private final double[] values;
+        private final boolean[] real;
+        private final boolean[] known;
+
+        private Grid(int capacity) {
+            this.xs = new double[capacity];
+            this.values = new double[capacity];
+            this.real = new boolean[capacity];
+            this.known = new boolean[capacity];
+        }
+
+        /**
+         * Returns an empty grid, reusing the arrays of the spare grid if large enough.
+         */
+        static Grid allocate(Grid spare, long start, double step, int length) {
+            var grid = spare != null && spare.values.length >= length ? spare : new Grid(length);
+            grid.start = start;
+            grid.step = step;
+            grid.length = length;
+            grid.missing = length;
+            Arrays.fill(grid.known, 0, length, false);
+            Arrays.fill(grid.edges, Double.NaN);
+            Arrays.fill(grid.edgeKnown, false);
+            return grid;
+        }
+
+        double getX(int index) {
+            return (this.start + index) * this.step;
+        }
+
+        /**
+         * Copies the known samples of the given grid which fall on this grid.
+         */
+        void reuse(Grid previous) {
+            for (int side = LEFT; side <= RIGHT; side++) {
+                if (previous.edgeKnown[side] && previous.edges[side] == this.edges[side]) {
+                    this.edgeValues[side] = previous.edgeValues[side];
+                    this.edgeReal[side] = previous.edgeReal[side];
+                    this.edgeKnown[side] = true;
+                }
+            }
+
+            long multiple = integerRatio(this.step, previous.step);
+            long divisor = multiple == 0 ? integerRatio(previous.step, this.step) : 0;
+            if (multiple == 0 && divisor == 0)
+                return;
+
+            for (int i = 0; i < this.length; i++) {
+                long k = this.start + i;
+                long previousK;
+                if (multiple != 0) {
+                    previousK = k * multiple;
+                } else {
+                    if (Math.floorMod(k, divisor) != 0) continue;
+                    previousK = k / divisor;
+                }
+
+                long previousIndex = previousK - previous.start;
+                if (previousIndex >= 0 && previousIndex < previous.length && previous.known[(int) previousIndex]) {
+                    // Keep the X-coordinate the sample was evaluated at, it may differ from the new one by rounding.
+                    this.xs[i] = previous.xs[(int) previousIndex];
+                    this.values[i] = previous.values[(int) previousIndex];
+                    this.real[i] = previous.real[(int) previousIndex];
+                    this.known[i] = true;
+                    this.missing--;
+                }
+            }
+        }
+
+        /**
+         * Collects the real points of this grid and its edges in X-coordinate order, up to the first unknown sample.
+         */
+        void collect(Samples samples) {
+            if (!this.collectEdge(samples, LEFT))
+                return;
+            for (int i = 0; i < this.length; i++) {
+                if (!this.known[i]) return;
+                if (this.real[i])
+                    samples.add(this.xs[i], this.values[i]);
+            }
+            this.collectEdge(samples, RIGHT);
+        }
+
+        private boolean collectEdge(Samples samples, int side) {
+            if (Double.isNaN(this.edges[side]))
+                return true;
+            if (!this.edgeKnown[side])
+                return false;
+            if (this.edgeReal[side])
+                samples.add(this.edges[side], this.edgeValues[side]);
+            return true;
+        }
+
+        /**
+         * Returns {@code a / b} if it's a positive integer, within rounding errors, or {@code 0} otherwise.
+         */
+        private static long integerRatio(double a, double b) {
+            double ratio = a / b;
+            long rounded = Math.round(ratio);
+            return rounded >= 1 && Math.abs(ratio - rounded) <= 1E-9 * rounded ? rounded : 0;
+        }
+    }
+
+    /**
+     * Represents the samples of the missing slots of a chunk of a grid.
+     */
+    private record Chunk(double[] xs, double[] values, boolean[] real, boolean[] known) {
+        /**
+         * Merges this chunk into the grid, and returns the number of merged samples.
+         */
+        int mergeInto(Grid grid, int offset) {
+            int merged = 0;
+            for (int i = 0; i < this.known.length; i++) {
+                if (this.known[i]) {
+                    grid.xs[offset + i] = this.xs[i];
+                    grid.values[offset + i] = this.values[i];
+                    grid.real[offset + i] = this.real[i];
+                    grid.known[offset + i] = true;
+                    merged++;
+                }
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Represents the sampling of a range of chunks of a grid, split in halves until a single chunk remains.
+     * <p>
+     * Each chunk is sampled in its own arrays with its own copy of the symbol table, and is published once complete.
+     * The grid itself is only read.
+     */
+    private static final class SampleTask extends RecursiveAction {
+        private final Expression expression;
+        private final SymbolTable symbolTable;
+        private final Grid grid;
+        private final AtomicReferenceArray<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        SampleTask(Expression expression, SymbolTable symbolTable, Grid grid, AtomicReferenceArray<Chunk> chunks, int from, int to) {
+            this.expression = expression;
+            this.symbolTable = symbolTable;
+            this.grid = grid;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new SampleTask(this.expression, this.symbolTable, this.grid, this.chunks, this.from, middle),
+                        new SampleTask(this.expression, this.symbolTable, this.grid, this.chunks, middle, this.to));
+                return;
+            }
+
+            int start = this.from * CHUNK_SIZE;
+            int length = Math.min(this.grid.length, start + CHUNK_SIZE) - start;
+
+            SymbolTable scope;
+            synchronized (this.symbolTable) {
+                scope = this.symbolTable.copy();
+            }
+
+            var chunk = new Chunk(new double[length], new double[length], new boolean[length], new boolean[length]);
+            for (int i = 0; i < length; i++) {
+                if (!this.grid.known[start + i]) {
+                    chunk.xs()[i] = this.grid.getX(start + i);
+                    evaluate(this.expression, scope, chunk.xs()[i], chunk.values(), chunk.real(), i);
+                    chunk.known()[i] = true;
+                }
+            }
+            this.chunks.set(this.from, chunk);
+        }
     }
 }
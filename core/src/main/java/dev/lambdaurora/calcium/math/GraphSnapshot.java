@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import java.util.Arrays;
+
+/**
+ * Represents an immutable copy of the points of a {@link Graph}.
+ * <p>
+ * Unlike the graph itself, a snapshot can be safely published to and read from other threads,
+ * which lets the graph be computed in the background while the last snapshot is displayed.
+ *
+ * @see Graph#snapshot()
+ */
+public final class GraphSnapshot {
+    private final double xMin;
+    private final double xMax;
+    private final double step;
+    private final double min;
+    private final double max;
+    private final double[] xs;
+    private final double[] ys;
+
+    GraphSnapshot(double xMin, double xMax, double step, double min, double max, double[] xs, double[] ys, int pointCount) {
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.step = step;
+        this.min = min;
+        this.max = max;
+        this.xs = Arrays.copyOf(xs, pointCount);
+        this.ys = Arrays.copyOf(ys, pointCount);
+    }
+
+    /**
+     * Returns an empty snapshot of the given range, used before the first computation is done.
+     *
+     * @param xMin the minimum X-coordinate
+     * @param xMax the maximum X-coordinate
+     * @return the empty snapshot
+     */
+    public static GraphSnapshot empty(double xMin, double xMax) {
+        return new GraphSnapshot(xMin, xMax, 0.0, 0.0, 0.0, new double[0], new double[0], 0);
+    }
+
+    public double getXMin() {
+        return this.xMin;
+    }
+
+    public double getXMax() {
+        return this.xMax;
+    }
+
+    public double getXAxisLength() {
+        return this.xMax - this.xMin;
+    }
+
+    public double getStep() {
+        return this.step;
+    }
+
+    public double getMinValue() {
+        return this.min;
+    }
+
+    public double getMaxValue() {
+        return this.max;
+    }
+
+    /**
+     * Returns the number of points in this snapshot.
+     *
+     * @return the number of points
+     */
+    public int getPointCount() {
+        return this.xs.length;
+    }
+
+    /**
+     * Returns the X-coordinate of the point at the given index.
+     *
+     * @param index the index of the point
+     * @return the X-coordinate of the point
+     */
+    public double getX(int index) {
+        return this.xs[index];
+    }
+
+    /**
+     * Returns the value of the point at the given index.
+     *
+     * @param index the index of the point
+     * @return the value of the point, may be {@code NaN} or infinite
+     */
+    public double getY(int index) {
+        return this.ys[index];
+    }
+
+    /**
+     * Returns the first X-coordinate with value in this snapshot.
+     *
+     * @return the first X-coordinate with value
+     */
+    public double getFirstX() {
+        return this.xs.length == 0 ? this.xMin : this.xs[0];
+    }
+
+    /**
+     * Returns the first value of this snapshot.
+     *
+     * @return the first value
+     */
+    public double getFirstValue() {
+        return this.ys.length == 0 ? 0.0 : this.ys[0];
+    }
+
+    /**
+     * Returns a snapshot reduced to the points which are visually relevant when drawn on the given number of pixel columns.
+     * <p>
+     * For each column, only the first, minimum, maximum and last points are kept (the M4 aggregation),
+     * which draws the same pixels as all the points while the number of points depends only on the number of columns.
+     * {@code NaN} values are kept as gaps between the columns.
+     *
+     * @param columns the number of pixel columns spanning the X-axis
+     * @return the reduced snapshot, or this snapshot if it has few enough points
+     */
+    public GraphSnapshot downsample(int columns) {
+        if (columns <= 0)
+            throw new IllegalArgumentException("The number of columns must be positive, got " + columns + ".");
+
+        int count = this.xs.length;
+        if (count <= 4 * columns)
+            return this;
+
+        var reduced = new Samples(4 * columns + 16);
+        double scale = columns / this.getXAxisLength();
+
+        int i = 0;
+        while (i < count) {
+            if (Double.isNaN(this.ys[i])) {
+                // A single NaN point is enough to break the line.
+                reduced.add(this.xs[i], this.ys[i]);
+                while (i < count && Double.isNaN(this.ys[i]))
+                    i++;
+                continue;
+            }
+
+            int column = this.column(i, scale, columns);
+            int first = i;
+            int min = i;
+            int max = i;
+            for (i++; i < count && !Double.isNaN(this.ys[i]) && this.column(i, scale, columns) == column; i++) {
+                if (this.ys[i] < this.ys[min]) min = i;
+                if (this.ys[i] > this.ys[max]) max = i;
+            }
+            int last = i - 1;
+
+            // Kept in order, first <= low <= high <= last.
+            int low = Math.min(min, max);
+            int high = Math.max(min, max);
+            reduced.add(this.xs[first], this.ys[first]);
+            if (low > first)
+                reduced.add(this.xs[low], this.ys[low]);
+            if (high > low)
+                reduced.add(this.xs[high], this.ys[high]);
+            if (last > high)
+                reduced.add(this.xs[last], this.ys[last]);
+        }
+
+        return new GraphSnapshot(this.xMin, this.xMax, this.step, this.min, this.max, reduced.xs, reduced.ys, reduced.count);
+    }
+
+    private int column(int index, double scale, int columns) {
+        int column = (int) ((this.xs[index] - this.xMin) * scale);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    public void forEach(Graph.PointConsumer pointConsumer) {
+        for (int i = 0; i < this.xs.length; i++) {
+            pointConsumer.consume(this.xs[i], this.ys[i]);
+        }
+    }
+
+    /**
+     * Represents a growable list of points.
+     */
+    private static final class Samples {
+        private double[] xs;
+        private double[] ys;
+        private int count;
+
+        Samples(int capacity) {
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+        }
+
+        void add(double x, double y) {
+            if (this.count == this.xs.length) {
+                this.xs = Arrays.copyOf(this.xs, this.count * 2);
+                this.ys = Arrays.copyOf(this.ys, this.count * 2);
+            }
+
+            this.xs[this.count] = x;
+            this.ys[this.count] = y;
+            this.count++;
+        }
+    }
+}
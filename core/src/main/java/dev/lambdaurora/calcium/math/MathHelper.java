@@ -82,8 +82,20 @@ public final class MathHelper {
      * @return the value <i>e</i><sup>{@code z}</sup>, where <i>e</i> is the base of the natural logarithms
      */
     public static ComplexNumber exp(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.exp(z.real()));
-        return ComplexNumber.polar(Math.exp(z.real()), z.imaginary());
+        return exp(z, MathPolicy.EXACT);
+    }
+
+    /**
+     * Returns Euler's number <i>e</i> raised to the power of a {@link ComplexNumber} value.
+     *
+     * @param z the exponent to raise <i>e</i> to
+     * @param policy the policy used to compute the elementary functions
+     * @return the value <i>e</i><sup>{@code z}</sup>, where <i>e</i> is the base of the natural logarithms
+     */
+    public static ComplexNumber exp(ComplexNumber z, MathPolicy policy) {
+        var r = policy.exp(z.real());
+        if (z.isReal()) return new ComplexNumber(r);
+        return new ComplexNumber(r * policy.cos(z.imaginary()), r * policy.sin(z.imaginary()));
     }
 
     /**
@@ -93,7 +105,18 @@ public final class MathHelper {
      * @return the value ln({@code z}), the natural logarithm of {@code z}
      */
     public static ComplexNumber ln(ComplexNumber z) {
-        return new ComplexNumber(Math.log(z.abs()), z.arg());
+        return ln(z, MathPolicy.EXACT);
+    }
+
+    /**
+     * Returns the natural logarithm (base <i>e</i>) of a {@link ComplexNumber} value.
+     *
+     * @param z a value
+     * @param policy the policy used to compute the elementary functions
+     * @return the value ln({@code z}), the natural logarithm of {@code z}
+     */
+    public static ComplexNumber ln(ComplexNumber z, MathPolicy policy) {
+        return new ComplexNumber(policy.log(z.abs()), z.arg());
     }
 
     /**
@@ -103,7 +126,18 @@ public final class MathHelper {
      * @return the base 10 logarithm of {@code z}
      */
     public static ComplexNumber log(ComplexNumber z) {
-        return ln(z).divide(Math.log(10));
+        return log(z, MathPolicy.EXACT);
+    }
+
+    /**
+     * Returns the base 10 logarithm of a {@link ComplexNumber} value.
+     *
+     * @param z a value
+     * @param policy the policy used to compute the elementary functions
+     * @return the base 10 logarithm of {@code z}
+     */
+    public static ComplexNumber log(ComplexNumber z, MathPolicy policy) {
+        return ln(z, policy).divide(Math.log(10));
     }
 
     /**
@@ -113,20 +147,35 @@ public final class MathHelper {
      * @return the cosine of the argument
      */
     public static ComplexNumber cos(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.cos(z.real()));
+        return cos(z, MathPolicy.EXACT);
+    }
+
+    /**
+     * Returns the trigonometric cosine of an angle.
+     *
+     * @param z an angle, in radians
+     * @param policy the policy used to compute the elementary functions
+     * @return the cosine of the argument
+     */
+    public static ComplexNumber cos(ComplexNumber z, MathPolicy policy) {
+        if (z.isReal()) return new ComplexNumber(policy.cos(z.real()));
 
         return new ComplexNumber(
-                Math.cos(z.real()) * Math.cosh(z.imaginary()),
-                -Math.sin(z.real()) * Math.sinh(z.imaginary())
+                policy.cos(z.real()) * policy.cosh(z.imaginary()),
+                -policy.sin(z.real()) * policy.sinh(z.imaginary())
         );
     }
 
     public static ComplexNumber cosh(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.cosh(z.real()));
+        return cosh(z, MathPolicy.EXACT);
+    }
+
+    public static ComplexNumber cosh(ComplexNumber z, MathPolicy policy) {
+        if (z.isReal()) return new ComplexNumber(policy.cosh(z.real()));
 
         return new ComplexNumber(
-                Math.cosh(z.real()) * Math.cos(z.imaginary()),
-                Math.sinh(z.real()) * Math.sin(z.imaginary())
+                policy.cosh(z.real()) * policy.cos(z.imaginary()),
+                policy.sinh(z.real()) * policy.sin(z.imaginary())
         );
     }
 
@@ -152,26 +201,41 @@ public final class MathHelper {
      * @return the sine of the argument
      */
     public static ComplexNumber sin(ComplexNumber z) {
+        return sin(z, MathPolicy.EXACT);
+    }
+
+    /**
+     * Returns the trigonometric sine of an angle.
+     *
+     * @param z an angle, in radians
+     * @param policy the policy used to compute the elementary functions
+     * @return the sine of the argument
+     */
+    public static ComplexNumber sin(ComplexNumber z, MathPolicy policy) {
         if (z.isReal()) {
             var val = z.real();
             var piTest = val / Math.PI;
             if (piTest == (long) piTest) // The goal is to make the result of sin a little bit more exact.
                 return ComplexNumber.ZERO; // The number is a = pi * x where x is an integer. So the result of sin is 0.
-            return new ComplexNumber(Math.sin(val));
+            return new ComplexNumber(policy.sin(val));
         }
 
         return new ComplexNumber(
-                Math.sin(z.real()) * Math.cosh(z.imaginary()),
-                -Math.cos(z.real()) * Math.sinh(z.imaginary())
+                policy.sin(z.real()) * policy.cosh(z.imaginary()),
+                -policy.cos(z.real()) * policy.sinh(z.imaginary())
         );
     }
 
     public static ComplexNumber sinh(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.sinh(z.real()));
+        return sinh(z, MathPolicy.EXACT);
+    }
+
+    public static ComplexNumber sinh(ComplexNumber z, MathPolicy policy) {
+        if (z.isReal()) return new ComplexNumber(policy.sinh(z.real()));
 
         return new ComplexNumber(
-                Math.sinh(z.real()) * Math.cos(z.imaginary()),
-                Math.cosh(z.real()) * Math.sin(z.imaginary())
+                policy.sinh(z.real()) * policy.cos(z.imaginary()),
+                policy.cosh(z.real()) * policy.sin(z.imaginary())
         );
     }
 
@@ -199,15 +263,30 @@ public final class MathHelper {
      * @return the tangent of the argument
      */
     public static ComplexNumber tan(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.tan(z.real()));
+        return tan(z, MathPolicy.EXACT);
+    }
 
-        return sin(z).divide(cos(z));
+    /**
+     * Returns the trigonometric tangent of an angle.
+     *
+     * @param z an angle, in radians
+     * @param policy the policy used to compute the elementary functions
+     * @return the tangent of the argument
+     */
+    public static ComplexNumber tan(ComplexNumber z, MathPolicy policy) {
+        if (z.isReal()) return new ComplexNumber(policy.tan(z.real()));
+
+        return sin(z, policy).divide(cos(z, policy));
     }
 
     public static ComplexNumber tanh(ComplexNumber z) {
-        if (z.isReal()) return new ComplexNumber(Math.tanh(z.real()));
+        return tanh(z, MathPolicy.EXACT);
+    }
+
+    public static ComplexNumber tanh(ComplexNumber z, MathPolicy policy) {
+        if (z.isReal()) return new ComplexNumber(policy.tanh(z.real()));
 
-        return sinh(z).divide(cosh(z));
+        return sinh(z, policy).divide(cosh(z, policy));
     }
 
     public static ComplexNumber atan(ComplexNumber z) {
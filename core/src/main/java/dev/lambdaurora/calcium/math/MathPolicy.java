@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+/**
+ * Represents the policy used to compute elementary functions.
+ *
+ * @see dev.lambdaurora.calcium.symbol.SymbolTable#setMathPolicy(MathPolicy)
+ */
+public enum MathPolicy {
+    /**
+     * Computes elementary functions with the full precision of {@link Math}.
+     */
+    EXACT {
+        @Override
+        public double sin(double x) {
+            return Math.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return Math.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return Math.tan(x);
+        }
+
+        @Override
+        public double sinh(double x) {
+            return Math.sinh(x);
+        }
+
+        @Override
+        public double cosh(double x) {
+            return Math.cosh(x);
+        }
+
+        @Override
+        public double tanh(double x) {
+            return Math.tanh(x);
+        }
+    },
+    /**
+     * Computes elementary functions with the fast approximations of {@link FastMath}, which have a bounded error.
+     * <p>
+     * The approximations overflow and handle special values like {@link Math}, the hyperbolic functions included
+     * as they fall back to {@link Math} near the overflow limit of {@code exp}.
+     * <p>
+     * Suited for plotting and coarse sweeps.
+     */
+    FAST {
+        @Override
+        public double sin(double x) {
+            return FastMath.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return FastMath.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return FastMath.tan(x);
+        }
+
+        @Override
+        public double sinh(double x) {
+            return FastMath.sinh(x);
+        }
+
+        @Override
+        public double cosh(double x) {
+            return FastMath.cosh(x);
+        }
+
+        @Override
+        public double tanh(double x) {
+            return FastMath.tanh(x);
+        }
+    };
+
+    public abstract double sin(double x);
+
+    public abstract double cos(double x);
+
+    public abstract double tan(double x);
+
+    public abstract double sinh(double x);
+
+    public abstract double cosh(double x);
+
+    public abstract double tanh(double x);
+
+    public double exp(double x) {
+        return Math.exp(x);
+    }
+
+    public double log(double x) {
+        return Math.log(x);
+    }
+}
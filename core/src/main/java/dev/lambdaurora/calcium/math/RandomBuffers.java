@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.math;
+
+import java.util.SplittableRandom;
+
+/**
+ * Provides bulk random number generation into primitive buffers.
+ * <p>
+ * Filling a buffer at once avoids going through the expression evaluation and {@link ComplexNumber} allocation for each draw.
+ */
+public final class RandomBuffers {
+    private RandomBuffers() {
+        throw new UnsupportedOperationException("RandomBuffers only contains static definitions.");
+    }
+
+    /**
+     * Fills the first {@code length} values of the buffer with uniformly distributed numbers between 0 (inclusive) and 1 (exclusive).
+     *
+     * @param random the random number generator
+     * @param buffer the buffer to fill
+     * @param length the amount of values to generate
+     */
+    public static void fillUniform(SplittableRandom random, double[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            buffer[i] = random.nextDouble();
+        }
+    }
+
+    /**
+     * Fills the first {@code length} values of the buffer with uniformly distributed numbers between {@code min} (inclusive)
+     * and {@code max} (exclusive).
+     *
+     * @param random the random number generator
+     * @param buffer the buffer to fill
+     * @param length the amount of values to generate
+     * @param min the minimum bound
+     * @param max the maximum bound
+     */
+    public static void fillUniform(SplittableRandom random, double[] buffer, int length, double min, double max) {
+        var range = max - min;
+        for (int i = 0; i < length; i++) {
+            buffer[i] = min + random.nextDouble() * range;
+        }
+    }
+
+    /**
+     * Fills the first {@code length} values of the buffer with normally distributed numbers.
+     * <p>
+     * Uses the Marsaglia polar method, which produces the numbers by pairs.
+     *
+     * @param random the random number generator
+     * @param buffer the buffer to fill
+     * @param length the amount of values to generate
+     * @param mean the mean of the distribution
+     * @param standardDeviation the standard deviation of the distribution
+     */
+    public static void fillNormal(SplittableRandom random, double[] buffer, int length, double mean, double standardDeviation) {
+        int i = 0;
+        while (i < length) {
+            double u, v, s;
+            do {
+                u = 2.0 * random.nextDouble() - 1.0;
+                v = 2.0 * random.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+
+            var multiplier = standardDeviation * Math.sqrt(-2.0 * Math.log(s) / s);
+            buffer[i++] = mean + u * multiplier;
+            if (i < length)
+                buffer[i++] = mean + v * multiplier;
+        }
+    }
+
+    /**
+     * Returns a normally distributed number.
+     *
+     * @param random the random number generator
+     * @param mean the mean of the distribution
+     * @param standardDeviation the standard deviation of the distribution
+     * @return the random number
+     */
+    public static double nextNormal(SplittableRandom random, double mean, double standardDeviation) {
+        double u, v, s;
+        do {
+            u = 2.0 * random.nextDouble() - 1.0;
+            v = 2.0 * random.nextDouble() - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+
+        return mean + standardDeviation * u * Math.sqrt(-2.0 * Math.log(s) / s);
+    }
+
+    /**
+     * Fills the first {@code length} values of the buffer with uniformly distributed integers between {@code min} (inclusive)
+     * and {@code max} (exclusive).
+     *
+     * @param random the random number generator
+     * @param buffer the buffer to fill
+     * @param length the amount of values to generate
+     * @param min the minimum bound
+     * @param max the maximum bound
+     */
+    public static void fillIntegers(SplittableRandom random, double[] buffer, int length, long min, long max) {
+        for (int i = 0; i < length; i++) {
+            buffer[i] = random.nextLong(min, max);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.FunctionCallExpression;
+import dev.lambdaurora.calcium.expression.IdentifierExpression;
+import dev.lambdaurora.calcium.expression.LiteralExpression;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the Flight Recorder event of the evaluation of a top-level expression.
+ */
+@Name("dev.lambdaurora.calcium.Evaluation")
+@Label("Expression Evaluation")
+@Category("Calcium")
+@Description("Evaluation of a top-level expression.")
+public final class EvaluationEvent extends Event {
+    @Label("Expression Hash")
+    @Description("The structural hash of the expression, equal for expressions of the same formula.")
+    public int expressionHash;
+
+    @Label("Node Count")
+    @Description("The number of nodes of the expression tree.")
+    public int nodeCount;
+
+    @Label("Result Type")
+    public String resultType;
+
+    /**
+     * Fills the expression fields of this event.
+     *
+     * @param expression the evaluated expression
+     */
+    public void setExpression(Expression expression) {
+        this.expressionHash = structuralHash(expression);
+        this.nodeCount = nodeCount(expression);
+    }
+
+    /**
+     * Returns the structural hash of the given expression.
+     * <p>
+     * Unlike {@link Object#hashCode()}, the hash only depends on the formula: its operators,
+     * its literals, and its variable and function names.
+     *
+     * @param expression the expression
+     * @return the structural hash
+     */
+    public static int structuralHash(Expression expression) {
+        int hash = expression.getClass().getName().hashCode();
+
+        if (expression instanceof LiteralExpression literal)
+            hash = 31 * hash + literal.getConstant().hashCode();
+        else if (expression instanceof IdentifierExpression identifier)
+            hash = 31 * hash + identifier.id().hashCode();
+        else if (expression instanceof FunctionCallExpression call)
+            hash = 31 * hash + call.id().hashCode();
+
+        for (var child : expression.getChildren()) {
+            hash = 31 * hash + structuralHash(child);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the number of nodes of the given expression tree.
+     *
+     * @param expression the expression
+     * @return the number of nodes
+     */
+    public static int nodeCount(Expression expression) {
+        int count = 1;
+        for (var child : expression.getChildren()) {
+            count += nodeCount(child);
+        }
+        return count;
+    }
+}
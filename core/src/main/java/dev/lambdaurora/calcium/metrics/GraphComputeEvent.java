@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the Flight Recorder event of the computation of a graph.
+ */
+@Name("dev.lambdaurora.calcium.GraphCompute")
+@Label("Graph Compute")
+@Category("Calcium")
+@Description("Sampling of the expression of a graph.")
+public final class GraphComputeEvent extends Event {
+    @Label("Minimum X")
+    public double xMin;
+
+    @Label("Maximum X")
+    public double xMax;
+
+    @Label("Step")
+    public double step;
+
+    @Label("Expression Hash")
+    @Description("The structural hash of the sampled expression.")
+    public int expressionHash;
+
+    @Label("Point Count")
+    @Description("The number of computed points.")
+    public int pointCount;
+
+    @Label("Evaluations")
+    @Description("The number of evaluations of the expression, the samples reused from the previous computation are not counted.")
+    public int evaluations;
+
+    @Label("Cancelled")
+    public boolean cancelled;
+}
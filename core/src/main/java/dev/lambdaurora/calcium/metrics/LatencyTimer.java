@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a latency timer, counting operations and recording their durations in a base 2 logarithmic histogram.
+ * <p>
+ * A timer is thread-safe and is meant to be used as follows:
+ * <pre>{@code
+ * var start = timer.start();
+ * try {
+ *     // ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * }</pre>
+ * While {@linkplain Metrics#isEnabled() metrics are disabled}, {@link #start()} does not read the clock
+ * and {@link #stop(long)} does nothing.
+ */
+public final class LatencyTimer implements LatencyTimerMXBean {
+    /**
+     * The number of histogram buckets, enough for any non-negative {@code long} duration.
+     */
+    public static final int BUCKETS = 64;
+    /**
+     * The start value returned while metrics are disabled.
+     */
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    LatencyTimer(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            this.histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the name of this timer.
+     *
+     * @return the name of this timer
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return the start time to give to {@link #stop(long)}
+     */
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Stops timing an operation and records it.
+     *
+     * @param start the start time returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if (start != DISABLED)
+            this.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records an operation.
+     *
+     * @param nanos the duration of the operation in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        this.count.increment();
+        this.totalTime.add(nanos);
+        this.maxTime.accumulate(nanos);
+        this.histogram[bucket(nanos)].increment();
+    }
+
+    static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos));
+    }
+
+    @Override
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    @Override
+    public long getTotalTime() {
+        return this.totalTime.sum();
+    }
+
+    @Override
+    public double getMeanTime() {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotalTime() / count;
+    }
+
+    @Override
+    public long getMaxTime() {
+        return this.maxTime.get();
+    }
+
+    @Override
+    public long getMedianTime() {
+        return this.getPercentileTime(0.5);
+    }
+
+    @Override
+    public long get99thPercentileTime() {
+        return this.getPercentileTime(0.99);
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the operation time, taken from the histogram.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 1}
+     * @return the percentile upper bound in nanoseconds
+     */
+    public long getPercentileTime(double percentile) {
+        if (percentile < 0 || percentile > 1)
+            throw new IllegalArgumentException("The percentile (" + percentile + ") must be between 0 and 1.");
+
+        var histogram = this.getHistogram();
+        long total = 0;
+        for (var count : histogram) {
+            total += count;
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank)
+                return Math.min(this.getMaxTime(), upperBound(i));
+        }
+
+        return this.getMaxTime();
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public long[] getHistogram() {
+        var result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            result[i] = this.histogram[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        this.count.reset();
+        this.totalTime.reset();
+        this.maxTime.reset();
+        for (var bucket : this.histogram) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+/**
+ * Represents the management interface of a {@link LatencyTimer}.
+ * <p>
+ * Durations are in nanoseconds.
+ */
+public interface LatencyTimerMXBean {
+    /**
+     * Returns the number of recorded operations.
+     *
+     * @return the number of recorded operations
+     */
+    long getCount();
+
+    /**
+     * Returns the total time spent in the recorded operations.
+     *
+     * @return the total time in nanoseconds
+     */
+    long getTotalTime();
+
+    /**
+     * Returns the mean time of the recorded operations.
+     *
+     * @return the mean time in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    double getMeanTime();
+
+    /**
+     * Returns the longest recorded operation time.
+     *
+     * @return the maximum time in nanoseconds
+     */
+    long getMaxTime();
+
+    /**
+     * Returns an upper bound of the median operation time, taken from the histogram.
+     *
+     * @return the median time upper bound in nanoseconds
+     */
+    long getMedianTime();
+
+    /**
+     * Returns an upper bound of the 99th percentile of the operation time, taken from the histogram.
+     *
+     * @return the 99th percentile upper bound in nanoseconds
+     */
+    long get99thPercentileTime();
+
+    /**
+     * Returns the latency histogram.
+     * <p>
+     * The bucket {@code 0} counts the operations which took {@code 0} nanoseconds,
+     * and the bucket {@code i > 0} counts the operations which took between {@code 2^(i-1)} and {@code 2^i - 1} nanoseconds.
+     *
+     * @return the counts of the 64 buckets
+     */
+    long[] getHistogram();
+
+    /**
+     * Resets this timer.
+     */
+    void reset();
+}
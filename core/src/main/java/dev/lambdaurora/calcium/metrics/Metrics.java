@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the instrumentation of the lexing, parsing, optimization, evaluation and graph sampling stages,
+ * and of the built-in function calls.
+ * <p>
+ * Metrics are disabled by default, they can be enabled with the {@code calcium.metrics} system property
+ * or with {@link #setEnabled(boolean)}. While disabled, timing an operation costs a single volatile read.
+ * <p>
+ * Once enabled, the timers are published as MXBeans under the {@code dev.lambdaurora.calcium} domain.
+ * The times of function calls include the evaluation of their arguments, and of the nested calls.
+ */
+public final class Metrics {
+    /**
+     * The domain of the published MXBeans.
+     */
+    public static final String DOMAIN = "dev.lambdaurora.calcium";
+
+    private static volatile boolean enabled = Boolean.getBoolean("calcium.metrics");
+
+    /**
+     * The timer of the lexer, per token.
+     */
+    public static final LatencyTimer LEX = new LatencyTimer("lex");
+    /**
+     * The timer of the parser, per expression and including the lexing.
+     */
+    public static final LatencyTimer PARSE = new LatencyTimer("parse");
+    /**
+     * The timer of the expression optimizer, per expression.
+     */
+    public static final LatencyTimer OPTIMIZE = new LatencyTimer("optimize");
+    /**
+     * The timer of the evaluation of top-level expressions.
+     */
+    public static final LatencyTimer EVALUATE = new LatencyTimer("evaluate");
+    /**
+     * The timer of the graph sampling.
+     */
+    public static final LatencyTimer GRAPH_COMPUTE = new LatencyTimer("graph_compute");
+
+    private static final ConcurrentMap<String, LatencyTimer> FUNCTIONS = new ConcurrentHashMap<>();
+    private static boolean registered = false;
+
+    static {
+        if (enabled)
+            registerMBeans();
+    }
+
+    private Metrics() {
+        throw new UnsupportedOperationException("Metrics only contains static definitions.");
+    }
+
+    /**
+     * Returns whether metrics are recorded.
+     *
+     * @return {@code true} if metrics are recorded, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether metrics are recorded. Enabling the metrics publishes the MXBeans.
+     *
+     * @param enabled {@code true} to record metrics, otherwise {@code false}
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled)
+            registerMBeans();
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the timer of the function of the given name, created on first use.
+     *
+     * @param name the name of the function
+     * @return the timer of the function
+     */
+    public static LatencyTimer function(String name) {
+        var timer = FUNCTIONS.get(name);
+        if (timer != null) return timer;
+
+        return FUNCTIONS.computeIfAbsent(name, key -> {
+            var newTimer = new LatencyTimer(key);
+            registerFunction(newTimer);
+            return newTimer;
+        });
+    }
+
+    /**
+     * Returns the timers of the functions called so far.
+     *
+     * @return the function timers
+     */
+    public static Collection<LatencyTimer> getFunctionTimers() {
+        return Collections.unmodifiableCollection(FUNCTIONS.values());
+    }
+
+    /**
+     * Resets all the timers.
+     */
+    public static void reset() {
+        LEX.reset();
+        PARSE.reset();
+        OPTIMIZE.reset();
+        EVALUATE.reset();
+        GRAPH_COMPUTE.reset();
+        FUNCTIONS.values().forEach(LatencyTimer::reset);
+    }
+
+    /**
+     * Publishes the metrics MXBeans to the platform MBean server, if not already done.
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) return;
+        registered = true;
+
+        register(DOMAIN + ":type=Metrics", new Control());
+        for (var timer : new LatencyTimer[]{LEX, PARSE, OPTIMIZE, EVALUATE, GRAPH_COMPUTE}) {
+            register(DOMAIN + ":type=Timer,name=" + timer.getName(), timer);
+        }
+        FUNCTIONS.values().forEach(Metrics::registerFunction);
+    }
+
+    private static synchronized void registerFunction(LatencyTimer timer) {
+        if (registered)
+            register(DOMAIN + ":type=Function,name=" + ObjectName.quote(timer.getName()), timer);
+    }
+
+    private static void register(String name, Object bean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, new ObjectName(name));
+        } catch (InstanceAlreadyExistsException e) {
+            // Another class loader already published its metrics.
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the MXBean " + name + ".", e);
+        }
+    }
+
+    private static final class Control implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
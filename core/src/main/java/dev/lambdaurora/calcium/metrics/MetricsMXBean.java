@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+/**
+ * Represents the management interface of the Calcium metrics.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns whether metrics are recorded.
+     *
+     * @return {@code true} if metrics are recorded, otherwise {@code false}
+     */
+    boolean isEnabled();
+
+    /**
+     * Sets whether metrics are recorded.
+     *
+     * @param enabled {@code true} to record metrics, otherwise {@code false}
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Resets all the timers.
+     */
+    void reset();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the Flight Recorder event of the parsing of an expression.
+ */
+@Name("dev.lambdaurora.calcium.Parse")
+@Label("Expression Parse")
+@Category("Calcium")
+@Description("Parsing of an expression, including its lexing.")
+public final class ParseEvent extends Event {
+    @Label("Source Length")
+    @Description("The number of characters of the parsed source.")
+    public int sourceLength;
+
+    @Label("Token Count")
+    @Description("The number of tokens read, including the end of file token.")
+    public int tokenCount;
+}
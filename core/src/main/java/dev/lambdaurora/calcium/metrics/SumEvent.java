@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the Flight Recorder event of a call to the {@code sum} function.
+ */
+@Name("dev.lambdaurora.calcium.Sum")
+@Label("Sum")
+@Category("Calcium")
+@Description("Evaluation of a sum over a range of integers.")
+public final class SumEvent extends Event {
+    @Label("Variable")
+    public String variable;
+
+    @Label("Iterations")
+    @Description("The number of iterations done, lower than the range size if the evaluation was aborted.")
+    public long iterations;
+}
@@ -17,6 +17,7 @@
 
 package dev.lambdaurora.calcium.parser;
 
+import dev.lambdaurora.calcium.metrics.Metrics;
 import dev.lambdaurora.calcium.parser.token.Token;
 import dev.lambdaurora.calcium.parser.token.TokenType;
 import dev.lambdaurora.calcium.parser.token.UnknownTokenException;
@@ -57,6 +58,15 @@ public class Lexer implements Iterator<Token> {
     }
 
     private void pickNext() {
+        var start = Metrics.LEX.start();
+        try {
+            this.pickNextToken();
+        } finally {
+            Metrics.LEX.stop(start);
+        }
+    }
+
+    private void pickNextToken() {
         while (this.index < this.text.length()) {
             var part = this.text.substring(this.index);
 
@@ -18,6 +18,8 @@
 package dev.lambdaurora.calcium.parser;
 
 import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.metrics.Metrics;
+import dev.lambdaurora.calcium.metrics.ParseEvent;
 import dev.lambdaurora.calcium.parser.token.Token;
 import dev.lambdaurora.calcium.parser.token.TokenType;
 
@@ -34,6 +36,9 @@ import java.util.List;
 public class Parser {
     private final Iterator<Token> lexer;
     private final List<Token> read = new ArrayList<>();
+    private boolean parsing = false;
+    private int tokenCount = 0;
+    private int sourceEnd = 0;
 
     public Parser(Iterator<Token> lexer) {
         this.lexer = lexer;
@@ -76,7 +81,27 @@ public class Parser {
      * @see #parseExpression(int)
      */
     public Expression parseExpression() throws ParseException {
-        return this.parseExpression(0);
+        if (this.parsing)
+            return this.parseExpression(0);
+
+        // Only time the outermost expression, parselets parse their sub-expressions through this method too.
+        var event = new ParseEvent();
+        event.begin();
+        var start = Metrics.PARSE.start();
+        this.parsing = true;
+        try {
+            return this.parseExpression(0);
+        } finally {
+            this.parsing = false;
+            Metrics.PARSE.stop(start);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.sourceLength = this.sourceEnd;
+                event.tokenCount = this.tokenCount;
+                event.commit();
+            }
+        }
     }
 
     /**
@@ -131,7 +156,10 @@ public class Parser {
     private Token lookAhead(int distance) {
         // Read as many as needed.
         while (distance >= this.read.size()) {
-            this.read.add(this.lexer.next());
+            var token = this.lexer.next();
+            this.read.add(token);
+            this.tokenCount++;
+            this.sourceEnd = token.offset() + token.text().length();
         }
 
         // Get the queued token.
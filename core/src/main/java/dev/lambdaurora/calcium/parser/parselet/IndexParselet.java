@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.parser.parselet;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.IndexExpression;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.parser.Precedence;
+import dev.lambdaurora.calcium.parser.token.Token;
+import dev.lambdaurora.calcium.parser.token.TokenType;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+
+/**
+ * Parses an index access like {@code v[1]} or {@code m[0, 1]}.
+ */
+public class IndexParselet implements InfixParselet {
+    @Override
+    public Expression parse(Parser parser, Expression left, Token token) throws ParseException {
+        // Parse the comma-separated indices until we hit "]".
+        var indices = new ArrayList<Expression>();
+
+        do {
+            indices.add(parser.parseExpression());
+        } while (parser.match(TokenType.COMMA));
+        parser.expect(TokenType.RIGHT_BRACKET);
+
+        return new IndexExpression(left, indices);
+    }
+
+    @Override
+    public int getPrecedence() {
+        return Precedence.CALL;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.parser.parselet;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ListExpression;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.parser.token.Token;
+import dev.lambdaurora.calcium.parser.token.TokenType;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+
+/**
+ * Parses a list literal.
+ */
+public class ListParselet implements PrefixParselet {
+    @Override
+    public Expression parse(Parser parser, Token token) throws ParseException {
+        // Parse the comma-separated elements until we hit "}".
+        var elements = new ArrayList<Expression>();
+
+        // The list may be empty.
+        if (!parser.match(TokenType.RIGHT_BRACE)) {
+            do {
+                elements.add(parser.parseExpression());
+            } while (parser.match(TokenType.COMMA));
+            parser.expect(TokenType.RIGHT_BRACE);
+        }
+
+        return new ListExpression(elements);
+    }
+}
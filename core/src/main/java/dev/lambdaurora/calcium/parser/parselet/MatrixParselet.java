@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.parser.parselet;
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.MatrixExpression;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.parser.token.Token;
+import dev.lambdaurora.calcium.parser.token.TokenType;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a vector or matrix literal like {@code [1, 2]} or {@code [1, 2; 3, 4]}.
+ */
+public class MatrixParselet implements PrefixParselet {
+    @Override
+    public Expression parse(Parser parser, Token token) throws ParseException {
+        // Parse the comma-separated elements, rows are separated by ";", until we hit "]".
+        var rows = new ArrayList<List<Expression>>();
+        var row = new ArrayList<Expression>();
+        rows.add(row);
+
+        // The vector may be empty.
+        if (!parser.match(TokenType.RIGHT_BRACKET)) {
+            while (true) {
+                row.add(parser.parseExpression());
+
+                if (parser.match(TokenType.SEMICOLON)) {
+                    row = new ArrayList<>();
+                    rows.add(row);
+                } else if (!parser.match(TokenType.COMMA)) {
+                    break;
+                }
+            }
+            parser.expect(TokenType.RIGHT_BRACKET);
+        }
+
+        for (var other : rows) {
+            if (other.size() != rows.get(0).size())
+                throw new ParseException("All the rows of a matrix must have the same length.", token.offset());
+        }
+
+        return new MatrixExpression(rows);
+    }
+}
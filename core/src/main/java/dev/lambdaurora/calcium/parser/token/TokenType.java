@@ -28,7 +28,12 @@ import dev.lambdaurora.calcium.parser.parselet.binary.*;
 public enum TokenType {
     LEFT_PAREN(TokenMatcher.of('(', false), new GroupParselet(), new CallParselet()),
     RIGHT_PAREN(TokenMatcher.of(')', false), null, null),
+    LEFT_BRACKET(TokenMatcher.of('[', false), new MatrixParselet(), new IndexParselet()),
+    RIGHT_BRACKET(TokenMatcher.of(']', false), null, null),
+    LEFT_BRACE(TokenMatcher.of('{', false), new ListParselet(), null),
+    RIGHT_BRACE(TokenMatcher.of('}', false), null, null),
     COMMA(TokenMatcher.of(',', false), null, null),
+    SEMICOLON(TokenMatcher.of(';', false), null, null),
     ASSIGN(TokenMatcher.of('='), null, new AssignParselet()),
     PLUS(TokenMatcher.of('+'), null, new SumParselet()),
     MINUS(TokenMatcher.of('-'), new InvertParselet(), new SubtractionParselet()),
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.NoneValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.FFT;
+import dev.lambdaurora.calcium.math.MathHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the process-wide registry of built-in symbols.
+ * <p>
+ * The built-in constants and functions are registered once and are immutable,
+ * every {@link SymbolTable} looks them up here instead of registering its own copy.
+ */
+public final class BuiltinSymbols {
+    private static final Map<String, Variable> CONSTANTS;
+    private static final Map<String, FunctionSymbol> FUNCTIONS;
+
+    private BuiltinSymbols() {
+        throw new UnsupportedOperationException("BuiltinSymbols only contains static definitions.");
+    }
+
+    /**
+     * Gets a built-in constant by its identifier.
+     *
+     * @param id the constant identifier
+     * @return the constant if it exists, otherwise {@code null}
+     */
+    public static Variable getConstant(String id) {
+        return CONSTANTS.get(id);
+    }
+
+    /**
+     * Gets a built-in function by its identifier.
+     *
+     * @param id the identifier of the function
+     * @return the function if it exists, otherwise {@code null}
+     */
+    public static FunctionSymbol getFunction(String id) {
+        return FUNCTIONS.get(id);
+    }
+
+    /**
+     * Returns an unmodifiable view of the built-in constants.
+     *
+     * @return the built-in constants
+     */
+    public static Map<String, Variable> getConstants() {
+        return CONSTANTS;
+    }
+
+    /**
+     * Returns an unmodifiable view of the built-in functions.
+     *
+     * @return the built-in functions
+     */
+    public static Map<String, FunctionSymbol> getFunctions() {
+        return FUNCTIONS;
+    }
+
+    private static void registerConstant(Map<String, Variable> constants, String id, Value value) {
+        constants.put(id, new Variable(id, value, true));
+    }
+
+    private static ComplexArray expectVector(Value value) {
+        if (value instanceof ComplexArray array)
+            return array;
+        else if (value instanceof ComplexNumber complex)
+            return ComplexArray.of(complex);
+        throw new IllegalArgumentException("The argument is not a vector (" + value + "), while a vector was expected.");
+    }
+
+    private static void registerFunction(Map<String, FunctionSymbol> functions, String id, OneArgumentFunctionSymbol.OneArgumentFunction function) {
+        functions.put(id, new OneArgumentFunctionSymbol(function, true));
+    }
+
+    static {
+        var constants = new HashMap<String, Variable>();
+        var functions = new HashMap<String, FunctionSymbol>();
+
+        /* Constants */
+        registerConstant(constants, "i", ComplexNumber.I);
+        registerConstant(constants, "pi", new ComplexNumber(Math.PI));
+        registerConstant(constants, "e", new ComplexNumber(Math.E));
+        registerConstant(constants, "None", NoneValue.NONE);
+
+        /* Basic Functions */
+        registerFunction(functions, "abs", (number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).abs()));
+        registerFunction(functions, "sqr", (number, symbolTable) -> MathHelper.sqr(Expression.expectComplex(number)));
+        registerFunction(functions, "sqrt", (number, symbolTable) -> MathHelper.sqrt(Expression.expectComplex(number)));
+
+        registerFunction(functions, "exp", (number, symbolTable) -> MathHelper.exp(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+
+        registerFunction(functions, "ln", (number, symbolTable) -> MathHelper.ln(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+        registerFunction(functions, "log", (number, symbolTable) -> MathHelper.log(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+
+        /* Random functions */
+        functions.put("random", new RandomNumberFunctionSymbol());
+        functions.put("rand_int", new RandomIntegerFunctionSymbol());
+        functions.put("normal", new RandomNormalFunctionSymbol());
+        functions.put("montecarlo", new MonteCarloFunction());
+        functions.put("random_array", new RandomArrayFunctionSymbol(RandomArrayFunctionSymbol.Distribution.UNIFORM));
+        functions.put("normal_array", new RandomArrayFunctionSymbol(RandomArrayFunctionSymbol.Distribution.NORMAL));
+        functions.put("rand_int_array", new RandomArrayFunctionSymbol(RandomArrayFunctionSymbol.Distribution.INTEGER));
+
+        /* Complex-related functions */
+        registerFunction(functions, "arg", (number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).arg()));
+        registerFunction(functions, "Re", (number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).real()));
+        registerFunction(functions, "Im", (number, symbolTable) -> new ComplexNumber(0.0, Expression.expectComplex(number).imaginary()));
+        registerFunction(functions, "conj", (number, symbolTable) -> Expression.expectComplex(number).conjugate());
+
+        /* Trigonometry functions */
+        registerFunction(functions, "cos", (number, symbolTable) -> MathHelper.cos(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+        registerFunction(functions, "sin", (number, symbolTable) -> MathHelper.sin(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+        registerFunction(functions, "tan", (number, symbolTable) -> MathHelper.tan(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+
+        registerFunction(functions, "acos", (number, symbolTable) -> MathHelper.acos(Expression.expectComplex(number)));
+        registerFunction(functions, "asin", (number, symbolTable) -> MathHelper.asin(Expression.expectComplex(number)));
+        registerFunction(functions, "atan", (number, symbolTable) -> MathHelper.atan(Expression.expectComplex(number)));
+
+        registerFunction(functions, "cosh", (number, symbolTable) -> MathHelper.cosh(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+        registerFunction(functions, "sinh", (number, symbolTable) -> MathHelper.sinh(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+        registerFunction(functions, "tanh", (number, symbolTable) -> MathHelper.tanh(Expression.expectComplex(number), symbolTable.getMathPolicy()));
+
+        registerFunction(functions, "acosh", (number, symbolTable) -> MathHelper.acosh(Expression.expectComplex(number)));
+        registerFunction(functions, "asinh", (number, symbolTable) -> MathHelper.asinh(Expression.expectComplex(number)));
+        registerFunction(functions, "atanh", (number, symbolTable) -> MathHelper.atanh(Expression.expectComplex(number)));
+
+        /* Linear algebra functions */
+        registerFunction(functions, "transpose", (value, symbolTable) -> {
+            if (!(value instanceof ComplexMatrix matrix))
+                throw new IllegalArgumentException("The argument is not a matrix (" + value + "), while a matrix was expected.");
+            return matrix.transpose();
+        });
+        registerFunction(functions, "identity",
+                (value, symbolTable) -> ComplexMatrix.identity(Math.toIntExact(Expression.expectIntStrict(value))));
+        registerFunction(functions, "fft", (value, symbolTable) -> FFT.fft(expectVector(value)));
+        registerFunction(functions, "ifft", (value, symbolTable) -> FFT.ifft(expectVector(value)));
+
+        /* Misc functions */
+        functions.put("sum", new SumFunction());
+        functions.put("map", new MapFunction());
+        functions.put("filter", new FilterFunction());
+        functions.put("reduce", new ReduceFunction());
+
+        CONSTANTS = Map.copyOf(constants);
+        FUNCTIONS = Map.copyOf(functions);
+    }
+}
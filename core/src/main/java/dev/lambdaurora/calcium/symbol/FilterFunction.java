@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a filter function, taking a list, an element variable name, and a condition expression to evaluate.
+ * <p>
+ * The function will return the list of the elements for which the condition evaluates to a non-zero number.
+ * <p>
+ * Example: {@code filter({1, 2, 3, 4}, x, x mod 2)} will return {@code {1, 3}}.
+ */
+public class FilterFunction extends ListFunction {
+    @Override
+    public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+        checkArgumentCount(arguments, 3);
+
+        var list = getList(arguments, symbolTable, 0);
+        var variable = getVariableName(arguments, 1);
+        var expr = arguments.get(2);
+
+        var result = process(list, expr, symbolTable, (chunk, scope) -> {
+            var values = new ArrayList<Value>();
+            chunk.forEachRemaining(value -> {
+                scope.checkpoint();
+                scope.setVariable(variable, value);
+                var condition = Expression.expectComplex(expr.evaluate(scope));
+                if (condition.real() != 0.0 || condition.imaginary() != 0.0)
+                    values.add(value);
+            });
+            return values;
+        }, (left, right, scope) -> {
+            left.addAll(right);
+            return left;
+        });
+
+        return new ListValue(result);
+    }
+}
@@ -82,4 +82,13 @@ public abstract class FunctionSymbol {
     public boolean isBuiltin() {
         return this.builtin;
     }
+
+    /**
+     * Returns whether this function is pure, meaning it has no side effects and always returns the same result for the same arguments.
+     *
+     * @return {@code true} if this function is pure, otherwise {@code false}
+     */
+    public boolean isPure() {
+        return true;
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.IdentifierExpression;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+/**
+ * Represents a function operating on the elements of a list, with an expression over bound variables.
+ * <p>
+ * When the expression is pure and the list is large enough, the list is split into chunks which are evaluated
+ * on the common fork/join pool, each chunk with its own copy of the symbol table.
+ */
+public abstract class ListFunction extends FunctionSymbol {
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final int CHUNK_SIZE = 256;
+
+    protected ListFunction() {
+        super(true);
+    }
+
+    /**
+     * Checks that the given argument count is the expected one.
+     *
+     * @param arguments the arguments
+     * @param expected the expected argument count
+     */
+    protected static void checkArgumentCount(List<Expression> arguments, int expected) {
+        if (arguments.size() != expected) {
+            if (arguments.size() < expected) throw new IllegalArgumentException("Too few arguments (" + arguments.size() + "), expected " + expected + ".");
+            else throw new IllegalArgumentException("Too many arguments (" + arguments.size() + "), expected " + expected + ".");
+        }
+    }
+
+    /**
+     * Evaluates the list argument at the given index.
+     *
+     * @param arguments the arguments
+     * @param symbolTable the symbol table
+     * @param index the index of the argument
+     * @return the list
+     */
+    protected static ListValue getList(List<Expression> arguments, SymbolTable symbolTable, int index) {
+        var value = arguments.get(index).evaluate(symbolTable);
+
+        if (!(value instanceof ListValue list))
+            throw new IllegalArgumentException("Argument " + index + " is not a list (" + value + "), while a list was expected.");
+
+        return list;
+    }
+
+    /**
+     * Returns the variable name given as argument at the given index.
+     *
+     * @param arguments the arguments
+     * @param index the index of the argument
+     * @return the variable name
+     */
+    protected static String getVariableName(List<Expression> arguments, int index) {
+        if (!(arguments.get(index) instanceof IdentifierExpression variable))
+            throw new IllegalArgumentException("Expected a variable name for argument " + (index + 1) + ".");
+
+        return variable.id();
+    }
+
+    /**
+     * Returns a new copy of the given scope.
+     * <p>
+     * Copying splits the random generator of the scope, so concurrent copies have to be synchronized.
+     *
+     * @param scope the scope to copy
+     * @return the copy
+     */
+    protected static SymbolTable copyScope(SymbolTable scope) {
+        synchronized (scope) {
+            return scope.copy();
+        }
+    }
+
+    /**
+     * Processes the given list by chunks, in parallel if the expression is pure and the list large enough.
+     *
+     * @param list the list to process
+     * @param expression the expression evaluated on the elements
+     * @param symbolTable the symbol table
+     * @param chunkFunction the function processing a chunk with its own scope
+     * @param combiner the function combining the results of two consecutive chunks, with the scope of the combining task
+     * @param <R> the type of the result
+     * @return the result
+     */
+    protected static <R> R process(ListValue list, Expression expression, SymbolTable symbolTable,
+                                   BiFunction<Spliterator<Value>, SymbolTable, R> chunkFunction, Combiner<R> combiner) {
+        var scope = symbolTable.copy();
+
+        if (list.size() < PARALLEL_THRESHOLD || !expression.isPure(symbolTable))
+            return chunkFunction.apply(list.values().spliterator(), scope);
+
+        return ForkJoinPool.commonPool().invoke(new ChunkTask<>(list.values().spliterator(), scope, chunkFunction, combiner));
+    }
+
+    /**
+     * Represents a function combining the results of two consecutive chunks.
+     *
+     * @param <R> the type of the result
+     */
+    @FunctionalInterface
+    protected interface Combiner<R> {
+        /**
+         * Combines the results of two consecutive chunks.
+         *
+         * @param left the result of the first chunk
+         * @param right the result of the second chunk
+         * @param scope the scope of the combining task, which may be reused by the following combinations of the task
+         * @return the combined result
+         */
+        R combine(R left, R right, SymbolTable scope);
+    }
+
+    /**
+     * Represents a task processing a chunk of a list, splitting itself while the chunk is large.
+     * <p>
+     * A task splitting itself computes its second half on its own thread, then combines the two halves
+     * with the scope of that second half, so combining never copies the symbol table.
+     *
+     * @param <R> the type of the result
+     */
+    private static final class ChunkTask<R> extends RecursiveTask<R> {
+        private final Spliterator<Value> spliterator;
+        private final SymbolTable scope;
+        private final BiFunction<Spliterator<Value>, SymbolTable, R> chunkFunction;
+        private final Combiner<R> combiner;
+        private SymbolTable workScope;
+
+        private ChunkTask(Spliterator<Value> spliterator, SymbolTable scope,
+                          BiFunction<Spliterator<Value>, SymbolTable, R> chunkFunction, Combiner<R> combiner) {
+            this.spliterator = spliterator;
+            this.scope = scope;
+            this.chunkFunction = chunkFunction;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            Spliterator<Value> prefix;
+            if (this.spliterator.estimateSize() > CHUNK_SIZE && (prefix = this.spliterator.trySplit()) != null) {
+                var left = new ChunkTask<>(prefix, this.scope, this.chunkFunction, this.combiner);
+                var right = new ChunkTask<>(this.spliterator, this.scope, this.chunkFunction, this.combiner);
+                left.fork();
+                var rightResult = right.compute();
+                this.workScope = right.workScope;
+                return this.combiner.combine(left.join(), rightResult, this.workScope);
+            }
+
+            this.workScope = copyScope(this.scope);
+            return this.chunkFunction.apply(this.spliterator, this.workScope);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.data.BlockEvaluator;
+import dev.lambdaurora.calcium.evaluation.CostEstimator;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.IdentifierExpression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.RandomBuffers;
+
+import java.util.List;
+
+/**
+ * Represents a Monte Carlo estimation function, taking a sample count, a sample variable name, and an expression to evaluate.
+ * <p>
+ * The function will return the mean of the expression evaluated with the variable bound to uniformly distributed numbers
+ * between 0 and 1. The random numbers are drawn in blocks into a primitive buffer.
+ * <p>
+ * If the expression is made of real arithmetic and elementary functions, it is compiled and evaluated over whole blocks
+ * of samples, with a checkpoint between blocks. The blocks of expensive expressions are smaller, so the checkpoints stay frequent.
+ * Only the samples for which the compiled expression gives {@code NaN}, such as the square root of a negative number,
+ * are interpreted again to get their complex value.
+ * <p>
+ * Example: {@code montecarlo(100000, u, 4 * sqrt(1 - u**2))} will return an approximation of pi.
+ */
+public class MonteCarloFunction extends FunctionSymbol {
+    private static final int BLOCK_SIZE = 1024;
+    // Estimated cost of a compiled block between two checkpoints, expensive expressions are evaluated by smaller blocks.
+    private static final long BLOCK_COST = 1 << 16;
+
+    protected MonteCarloFunction() {
+        super(true);
+    }
+
+    @Override
+    public ComplexNumber evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+        if (arguments.size() != 3) {
+            if (arguments.size() < 3) throw new IllegalArgumentException("Too few arguments (" + arguments.size() + "), expected 3.");
+            else throw new IllegalArgumentException("Too many arguments (" + arguments.size() + "), expected 3.");
+        }
+
+        var samples = getInteger(arguments, symbolTable, 0);
+
+        if (samples <= 0) {
+            throw new IllegalArgumentException("The sample count (" + samples + ") must be positive.");
+        }
+
+        if (!(arguments.get(1) instanceof IdentifierExpression sampleVariable)) {
+            throw new IllegalArgumentException("Expected a variable name for argument 2.");
+        }
+        var variable = sampleVariable.id();
+
+        var newScope = symbolTable.copy();
+        var random = newScope.getRandom();
+        var buffer = new double[(int) Math.min(BLOCK_SIZE, samples)];
+        var columns = new double[][] {buffer};
+        double real = 0.0;
+        double imaginary = 0.0;
+
+        var expr = arguments.get(2);
+        var compiled = BlockEvaluator.compiled(expr, List.of(variable), newScope, buffer.length);
+        var output = compiled == null ? null : new double[buffer.length];
+        var blockSize = buffer.length;
+        if (compiled != null)
+            blockSize = (int) Math.max(1, Math.min(blockSize, BLOCK_COST / Math.max(1, CostEstimator.estimate(expr, newScope))));
+
+        for (long done = 0; done < samples; ) {
+            var length = (int) Math.min(blockSize, samples - done);
+            RandomBuffers.fillUniform(random, buffer, length);
+
+            if (compiled != null) {
+                newScope.checkpoint(length);
+                compiled.evaluate(columns, output, length);
+
+                for (int i = 0; i < length; i++) {
+                    if (Double.isNaN(output[i])) {
+                        var res = this.evaluateSample(expr, newScope, variable, buffer[i]);
+                        real += res.real();
+                        imaginary += res.imaginary();
+                    } else {
+                        real += output[i];
+                    }
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    newScope.checkpoint();
+                    var res = this.evaluateSample(expr, newScope, variable, buffer[i]);
+                    real += res.real();
+                    imaginary += res.imaginary();
+                }
+            }
+
+            done += length;
+        }
+
+        return new ComplexNumber(real / samples, imaginary / samples);
+    }
+
+    private ComplexNumber evaluateSample(Expression expression, SymbolTable scope, String variable, double sample) {
+        scope.setVariable(variable, new ComplexNumber(sample));
+        return Expression.expectComplex(expression.evaluate(scope));
+    }
+
+    @Override
+    public boolean isPure() {
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.RandomBuffers;
+
+import java.util.List;
+
+/**
+ * Represents a function which returns an array of random numbers, drawn in bulk into the primitive storage of the array.
+ * <p>
+ * The first argument is the length of the array, the optional following arguments are the parameters of the distribution:
+ * <ul>
+ *     <li>{@code random_array(n, min, max)}: uniformly distributed numbers, between 0 and 1 by default;</li>
+ *     <li>{@code normal_array(n, mean, standard_deviation)}: normally distributed numbers, the standard distribution by default;</li>
+ *     <li>{@code rand_int_array(n, min, max)}: uniformly distributed integers, the bounds are required.</li>
+ * </ul>
+ * The maximum bounds are exclusive. The length is limited to {@link #MAX_LENGTH}, so a single call cannot exhaust the memory.
+ */
+public final class RandomArrayFunctionSymbol extends FunctionSymbol {
+    /**
+     * The maximum length of a random array, 2<sup>22</sup> numbers or 64 MiB.
+     */
+    public static final int MAX_LENGTH = 1 << 22;
+
+    private final Distribution distribution;
+
+    public RandomArrayFunctionSymbol(Distribution distribution) {
+        super(true);
+        this.distribution = distribution;
+    }
+
+    @Override
+    public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+        if (arguments.size() != 3 && (arguments.size() != 1 || this.distribution == Distribution.INTEGER)) {
+            if (this.distribution == Distribution.INTEGER)
+                throw new IllegalArgumentException("Invalid amount of arguments (" + arguments.size() + "), expected 3.");
+            throw new IllegalArgumentException("Invalid amount of arguments (" + arguments.size() + "), expected 1 or 3.");
+        }
+
+        var length = getInteger(arguments, symbolTable, 0);
+        if (length < 0 || length > MAX_LENGTH)
+            throw new IllegalArgumentException("The length (" + length + ") must be between 0 and " + MAX_LENGTH + ".");
+
+        var buffer = new double[(int) length];
+        var random = symbolTable.getRandom();
+        switch (this.distribution) {
+            case UNIFORM -> {
+                if (arguments.size() == 3) {
+                    double min = getReal(arguments, symbolTable, 1).real();
+                    double max = getReal(arguments, symbolTable, 2).real();
+                    if (min >= max)
+                        throw new IllegalArgumentException("The minimum bound (" + min + ") is greater than the maximum bound (" + max + ").");
+                    RandomBuffers.fillUniform(random, buffer, buffer.length, min, max);
+                } else {
+                    RandomBuffers.fillUniform(random, buffer, buffer.length);
+                }
+            }
+            case NORMAL -> {
+                double mean = 0.0;
+                double standardDeviation = 1.0;
+                if (arguments.size() == 3) {
+                    mean = getReal(arguments, symbolTable, 1).real();
+                    standardDeviation = getReal(arguments, symbolTable, 2).real();
+                    if (standardDeviation < 0.0)
+                        throw new IllegalArgumentException("The standard deviation (" + standardDeviation + ") cannot be negative.");
+                }
+                RandomBuffers.fillNormal(random, buffer, buffer.length, mean, standardDeviation);
+            }
+            case INTEGER -> {
+                var min = getInteger(arguments, symbolTable, 1);
+                var max = getInteger(arguments, symbolTable, 2);
+                if (min >= max)
+                    throw new IllegalArgumentException("The minimum bound (" + min + ") is greater than the maximum bound (" + max + ").");
+                RandomBuffers.fillIntegers(random, buffer, buffer.length, min, max);
+            }
+        }
+
+        return ComplexArray.wrapReal(buffer);
+    }
+
+    @Override
+    public boolean isPure() {
+        return false;
+    }
+
+    /**
+     * Represents the distribution of the numbers of a random array.
+     */
+    public enum Distribution {
+        UNIFORM,
+        NORMAL,
+        INTEGER
+    }
+}
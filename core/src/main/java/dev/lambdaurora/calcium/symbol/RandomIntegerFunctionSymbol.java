@@ -47,9 +47,18 @@ public final class RandomIntegerFunctionSymbol extends FunctionSymbol {
             if (first >= max)
                 throw new IllegalArgumentException("The minimum bound (" + first + ") is greater than the maximum bound (" + max + ").");
 
-            return new ComplexNumber(first + Math.floorMod(symbolTable.getRandom().nextLong(), max - first));
+            return new ComplexNumber(symbolTable.getRandom().nextLong(first, max));
+        } else if (first > 0) {
+            return new ComplexNumber(symbolTable.getRandom().nextLong(first));
+        } else if (first < 0) {
+            return new ComplexNumber(-symbolTable.getRandom().nextLong(-first));
         } else {
-            return new ComplexNumber(Math.floorMod(symbolTable.getRandom().nextLong(), first));
+            throw new IllegalArgumentException("The bound cannot be 0.");
         }
     }
+
+    @Override
+    public boolean isPure() {
+        return false;
+    }
 }
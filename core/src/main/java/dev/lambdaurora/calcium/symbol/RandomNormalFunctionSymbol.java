@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.RandomBuffers;
+
+import java.util.List;
+
+/**
+ * Represents a function which returns a normally distributed random number.
+ * <p>
+ * Without arguments the standard normal distribution is used, otherwise the mean and the standard deviation can be specified.
+ */
+public final class RandomNormalFunctionSymbol extends FunctionSymbol {
+    public RandomNormalFunctionSymbol() {
+        super(true);
+    }
+
+    @Override
+    public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+        if (arguments.size() == 1 || arguments.size() > 2) {
+            throw new IllegalArgumentException("Invalid amount of arguments (" + arguments.size() + "), expected 0 or 2.");
+        }
+
+        double mean = 0.0;
+        double standardDeviation = 1.0;
+        if (arguments.size() == 2) {
+            mean = getReal(arguments, symbolTable, 0).real();
+            standardDeviation = getReal(arguments, symbolTable, 1).real();
+
+            if (standardDeviation < 0.0)
+                throw new IllegalArgumentException("The standard deviation (" + standardDeviation + ") cannot be negative.");
+        }
+
+        return new ComplexNumber(RandomBuffers.nextNormal(symbolTable.getRandom(), mean, standardDeviation));
+    }
+
+    @Override
+    public boolean isPure() {
+        return false;
+    }
+}
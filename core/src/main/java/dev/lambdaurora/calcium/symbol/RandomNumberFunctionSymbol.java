@@ -39,4 +39,9 @@ public final class RandomNumberFunctionSymbol extends FunctionSymbol {
 
         return new ComplexNumber(symbolTable.getRandom().nextDouble());
     }
+
+    @Override
+    public boolean isPure() {
+        return false;
+    }
 }
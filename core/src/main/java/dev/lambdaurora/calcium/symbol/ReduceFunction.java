@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.symbol;
+
+import dev.lambdaurora.calcium.NoneValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.expression.Expression;
+
+import java.util.List;
+
+/**
+ * Represents a reduce function, taking a list, an accumulator variable name, an element variable name,
+ * and an expression to evaluate.
+ * <p>
+ * The function will combine the elements from the first to the last one, with the accumulator bound to the result so far.
+ * The elements may be combined in parallel chunks, so the expression is expected to be associative.
+ * Reducing an empty list returns {@code None}.
+ * <p>
+ * Example: {@code reduce({1, 2, 3, 4}, a, b, a * b)} will return {@code 24}.
+ */
+public class ReduceFunction extends ListFunction {
+    @Override
+    public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+        checkArgumentCount(arguments, 4);
+
+        var list = getList(arguments, symbolTable, 0);
+        var accumulator = getVariableName(arguments, 1);
+        var variable = getVariableName(arguments, 2);
+        var expr = arguments.get(3);
+
+        if (accumulator.equals(variable))
+            throw new IllegalArgumentException("The accumulator and element variables must be different.");
+
+        var result = process(list, expr, symbolTable, (chunk, scope) -> {
+            var reduced = new Value[1];
+            chunk.forEachRemaining(value -> {
+                if (reduced[0] == null) {
+                    reduced[0] = value;
+                } else {
+                    reduced[0] = combine(reduced[0], value, accumulator, variable, expr, scope);
+                }
+            });
+            return reduced[0];
+        }, (left, right, scope) -> {
+            if (left == null) return right;
+            else if (right == null) return left;
+            return combine(left, right, accumulator, variable, expr, scope);
+        });
+
+        return result == null ? NoneValue.NONE : result;
+    }
+
+    private static Value combine(Value left, Value right, String accumulator, String variable, Expression expr, SymbolTable scope) {
+        scope.checkpoint();
+        scope.setVariable(accumulator, left);
+        scope.setVariable(variable, right);
+        return expr.evaluate(scope);
+    }
+}
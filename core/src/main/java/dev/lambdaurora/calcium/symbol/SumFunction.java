@@ -20,6 +20,7 @@ package dev.lambdaurora.calcium.symbol;
 import dev.lambdaurora.calcium.expression.Expression;
 import dev.lambdaurora.calcium.expression.IdentifierExpression;
 import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.metrics.SumEvent;
 
 import java.util.List;
 
@@ -61,13 +62,26 @@ public class SumFunction extends FunctionSymbol {
 
         var expr = arguments.get(3);
 
-        for (long i = min; i < max; i++) {
-            newScope.setVariable(variable, new ComplexNumber(i));
+        var event = new SumEvent();
+        event.begin();
+        long i = min;
+        try {
+            for (; i < max; i++) {
+                newScope.checkpoint();
+                newScope.setVariable(variable, new ComplexNumber(i));
 
-            var res = Expression.expectComplex(expr.evaluate(newScope));
+                var res = Expression.expectComplex(expr.evaluate(newScope));
 
-            real += res.real();
-            imaginary += res.imaginary();
+                real += res.real();
+                imaginary += res.imaginary();
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.variable = variable;
+                event.iterations = i - min;
+                event.commit();
+            }
         }
 
         return new ComplexNumber(real, imaginary);
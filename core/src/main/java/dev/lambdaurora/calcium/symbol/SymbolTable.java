@@ -17,101 +17,45 @@
 
 package dev.lambdaurora.calcium.symbol;
 
-import dev.lambdaurora.calcium.NoneValue;
 import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
 import dev.lambdaurora.calcium.expression.Expression;
-import dev.lambdaurora.calcium.math.ComplexNumber;
-import dev.lambdaurora.calcium.math.MathHelper;
+import dev.lambdaurora.calcium.math.MathPolicy;
+import dev.lambdaurora.calcium.metrics.EvaluationEvent;
+import dev.lambdaurora.calcium.metrics.Metrics;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents a symbol table.
  * <p>
  * A symbol table stores variables and functions.
+ * The built-in constants and functions are shared from {@link BuiltinSymbols},
+ * a symbol table only stores the user-defined symbols, which makes creating one cheap.
+ * <p>
+ * Each symbol table owns its own random number generator, copies get a generator split from their parent,
+ * so evaluations in different scopes or threads never contend on a shared generator,
+ * and seeding a symbol table makes its random functions and the ones of its copies reproducible.
  */
 public class SymbolTable {
     private final Map<String, Variable> variables = new HashMap<>();
     private final Map<String, FunctionSymbol> functions = new HashMap<>();
-    private final Random random = new Random();
+    private SplittableRandom random;
+    private MathPolicy mathPolicy = MathPolicy.EXACT;
+    private EvaluationContext evaluationContext;
 
     public SymbolTable() {
-        this.registerConstants();
-    }
-
-    protected void registerConstants() {
-        /* Constants */
-        this.setConstant("i", ComplexNumber.I);
-        this.setConstant("pi", new ComplexNumber(Math.PI));
-        this.setConstant("e", new ComplexNumber(Math.E));
-        this.setConstant("None", NoneValue.NONE);
-
-        /* Basic Functions */
-        this.setFunction("abs",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).abs()), true));
-        this.setFunction("sqr",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.sqr(Expression.expectComplex(number)), true));
-        this.setFunction("sqrt",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.sqrt(Expression.expectComplex(number)), true));
-
-        this.setFunction("exp",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.exp(Expression.expectComplex(number)), true));
-
-        this.setFunction("ln",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.ln(Expression.expectComplex(number)), true));
-        this.setFunction("log",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.log(Expression.expectComplex(number)), true));
-
-        /* Random functions */
-        this.setFunction("random", new RandomNumberFunctionSymbol());
-        this.setFunction("rand_int", new RandomIntegerFunctionSymbol());
-
-        /* Complex-related functions */
-        this.setFunction("arg",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).arg()),
-                        true));
-        this.setFunction("Re",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> new ComplexNumber(Expression.expectComplex(number).real()),
-                        true));
-        this.setFunction("Im",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> new ComplexNumber(0.0, Expression.expectComplex(number).imaginary()),
-                        true));
-        this.setFunction("conj",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> Expression.expectComplex(number).conjugate(), true));
-
-        /* Trigonometry functions */
-        this.setFunction("cos",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.cos(Expression.expectComplex(number)), true));
-        this.setFunction("sin",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.sin(Expression.expectComplex(number)), true));
-        this.setFunction("tan",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.tan(Expression.expectComplex(number)), true));
-
-        this.setFunction("acos",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.acos(Expression.expectComplex(number)), true));
-        this.setFunction("asin",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.asin(Expression.expectComplex(number)), true));
-        this.setFunction("atan",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.atan(Expression.expectComplex(number)), true));
-
-        this.setFunction("cosh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.cosh(Expression.expectComplex(number)), true));
-        this.setFunction("sinh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.sinh(Expression.expectComplex(number)), true));
-        this.setFunction("tanh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.tanh(Expression.expectComplex(number)), true));
-
-        this.setFunction("acosh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.acosh(Expression.expectComplex(number)), true));
-        this.setFunction("asinh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.asinh(Expression.expectComplex(number)), true));
-        this.setFunction("atanh",
-                new OneArgumentFunctionSymbol((number, symbolTable) -> MathHelper.atanh(Expression.expectComplex(number)), true));
-
-        /* Misc functions */
-        this.setFunction("sum", new SumFunction());
+    }
+
+    /**
+     * Returns a new {@linkplain SymbolTable} instance whose random number generator is seeded with the given seed.
+     *
+     * @param seed the seed of the random number generator
+     */
+    public SymbolTable(long seed) {
+        this.random = new SplittableRandom(seed);
     }
 
     /**
@@ -119,10 +63,80 @@ public class SymbolTable {
      *
      * @return the random number generator
      */
-    public Random getRandom() {
+    public SplittableRandom getRandom() {
+        if (this.random == null)
+            this.random = new SplittableRandom();
         return this.random;
     }
 
+    /**
+     * Seeds the random number generator used by this symbol table.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns the policy used by the built-in functions to compute elementary functions.
+     *
+     * @return the math policy
+     */
+    public MathPolicy getMathPolicy() {
+        return this.mathPolicy;
+    }
+
+    /**
+     * Sets the policy used by the built-in functions to compute elementary functions.
+     * <p>
+     * {@link MathPolicy#FAST} trades a bounded amount of precision for speed, which suits plotting and coarse sweeps.
+     *
+     * @param mathPolicy the math policy
+     */
+    public void setMathPolicy(MathPolicy mathPolicy) {
+        this.mathPolicy = mathPolicy;
+    }
+
+    /**
+     * Returns the evaluation context attached to this symbol table.
+     *
+     * @return the evaluation context, or {@code null} if none is attached
+     */
+    public EvaluationContext getEvaluationContext() {
+        return this.evaluationContext;
+    }
+
+    /**
+     * Attaches an evaluation context to this symbol table, to cancel or budget the evaluations using it.
+     *
+     * @param evaluationContext the evaluation context, or {@code null} to detach the current one
+     */
+    public void setEvaluationContext(EvaluationContext evaluationContext) {
+        this.evaluationContext = evaluationContext;
+    }
+
+    /**
+     * Reaches a checkpoint of the attached evaluation context, if any.
+     *
+     * @throws dev.lambdaurora.calcium.evaluation.EvaluationCancelledException if the evaluation is cancelled or exceeds a budget
+     */
+    public void checkpoint() {
+        if (this.evaluationContext != null)
+            this.evaluationContext.checkpoint();
+    }
+
+    /**
+     * Reaches a checkpoint of the attached evaluation context, if any, after the given number of steps.
+     *
+     * @param steps the number of steps done since the last checkpoint
+     * @throws dev.lambdaurora.calcium.evaluation.EvaluationCancelledException if the evaluation is cancelled or exceeds a budget
+     */
+    public void checkpoint(long steps) {
+        if (this.evaluationContext != null)
+            this.evaluationContext.checkpoint(steps);
+    }
+
     /**
      * Gets a variable by its identifier.
      *
@@ -130,7 +144,10 @@ public class SymbolTable {
      * @return the variable if it exists, otherwise {@code null}
      */
     public Variable getVariable(String id) {
-        return this.variables.get(id);
+        var variable = this.variables.get(id);
+        if (variable == null)
+            return BuiltinSymbols.getConstant(id);
+        return variable;
     }
 
     /**
@@ -140,7 +157,7 @@ public class SymbolTable {
      * @param value the new value
      */
     public void setVariable(String id, Value value) {
-        var variable = this.variables.get(id);
+        var variable = this.getVariable(id);
         if (variable != null)
             variable.setValue(value);
         else
@@ -153,16 +170,12 @@ public class SymbolTable {
      * @param variable the variable
      */
     public void setVariable(Variable variable) {
-        var oldVariable = this.variables.get(variable.getName());
+        var oldVariable = this.getVariable(variable.getName());
         if (oldVariable != null && oldVariable.isConstant())
             throw new IllegalStateException("Cannot replace variable \"" + variable.getName() + "\" as it is a constant.");
         this.variables.put(variable.getName(), variable);
     }
 
-    private void setConstant(String id, Value value) {
-        this.setVariable(new Variable(id, value, true));
-    }
-
     /**
      * Gets a function by its identifier.
      *
@@ -170,7 +183,10 @@ public class SymbolTable {
      * @return the function if it exists, otherwise {@code null}
      */
     public FunctionSymbol getFunction(String id) {
-        return this.functions.get(id);
+        var function = this.functions.get(id);
+        if (function == null)
+            return BuiltinSymbols.getFunction(id);
+        return function;
     }
 
     /**
@@ -180,7 +196,7 @@ public class SymbolTable {
      * @param function the function
      */
     public void setFunction(String id, FunctionSymbol function) {
-        var oldFunction = this.functions.get(id);
+        var oldFunction = this.getFunction(id);
         if (oldFunction != null && oldFunction.isBuiltin())
             throw new IllegalStateException("Cannot replace function \"" + id + "\" as it is a built-in function.");
         this.functions.put(id, function);
@@ -193,20 +209,46 @@ public class SymbolTable {
      * @return the result of the evaluation
      */
     public Value evaluateExpression(Expression expression) {
-        var result = expression.evaluate(this);
+        Value result = null;
+        var event = new EvaluationEvent();
+        event.begin();
+        var start = Metrics.EVALUATE.start();
+        try {
+            result = expression.evaluate(this);
+        } finally {
+            Metrics.EVALUATE.stop(start);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.setExpression(expression);
+                event.resultType = result == null ? null : result.getClass().getSimpleName();
+                event.commit();
+            }
+        }
         this.setVariable("Ans", result);
         return result;
     }
 
     /**
      * Returns a copy of this symbol table.
+     * <p>
+     * Non-constant variables are copied, so assigning a variable in the copy doesn't affect this symbol table.
+     * The copy gets its own random number generator split from the one of this symbol table,
+     * and shares the evaluation context of this symbol table.
      *
      * @return the copy
      */
     public SymbolTable copy() {
         var copy = new SymbolTable();
-        copy.variables.putAll(this.variables);
+        this.variables.forEach((id, variable) -> {
+            if (variable.isConstant()) copy.variables.put(id, variable);
+            else copy.variables.put(id, new Variable(id, variable.getValue(), false));
+        });
         copy.functions.putAll(this.functions);
+        if (this.random != null)
+            copy.random = this.random.split();
+        copy.mathPolicy = this.mathPolicy;
+        copy.evaluationContext = this.evaluationContext;
 
         return copy;
     }
@@ -217,6 +259,5 @@ public class SymbolTable {
     public void clear() {
         this.variables.clear();
         this.functions.clear();
-        this.registerConstants();
     }
 }
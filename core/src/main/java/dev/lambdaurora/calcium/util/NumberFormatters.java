@@ -28,10 +28,10 @@ import java.util.function.DoubleFunction;
 public final class NumberFormatters {
     public static final DoubleFunction<String> SCIENTIFIC_FORMATTER = a -> {
         if (a == (long) a && a < 1E7)
-            return String.format("%d", (long) a);
+            return Long.toString((long) a);
         else {
-            if (a >= 1E7 || a < 1E-3) return String.format("(%s)", a);
-            else return String.format("%s", a);
+            if (a >= 1E7 || a < 1E-3) return "(" + a + ")";
+            else return Double.toString(a);
         }
     };
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread per operation.
+ * <p>
+ * The operation is first warmed up so that the JIT compiler had a chance to remove allocations
+ * with escape analysis, the measure then reflects the steady state of a hot path.
+ */
+public final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    private AllocationMeter() {
+        throw new UnsupportedOperationException("AllocationMeter only contains static definitions.");
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether allocations can be measured on this JVM.
+     *
+     * @return {@code true} if allocations can be measured, otherwise {@code false}
+     */
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Returns the number of bytes allocated per call of the given operation.
+     *
+     * @param operation the operation
+     * @return the bytes allocated per operation
+     */
+    public static double measure(Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long start = THREAD_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        long allocated = THREAD_BEAN.getCurrentThreadAllocatedBytes() - start;
+
+        return (double) allocated / MEASURED_ITERATIONS;
+    }
+
+    /**
+     * Represents a measured operation.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.metrics.Metrics;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Guards the hot paths against allocation regressions.
+ * <p>
+ * Each operation has a budget of bytes allocated per operation, recorded from the current implementation.
+ * When an optimization lowers the allocations of an operation, lower its budget too so it stays that way.
+ */
+public class AllocationTests {
+    private static final String SOURCE = "3*x**4 + 2*sin(x) - 7 / (x + 1)";
+
+    // The recorded budgets, in bytes per operation.
+    private static final long LEX_BUDGET = 3_600;
+    private static final long PARSE_BUDGET = 8_000;
+    private static final long POLYNOMIAL_EVALUATION_BUDGET = 32;
+    private static final long FUNCTION_EVALUATION_BUDGET = 128;
+    private static final long GRAPH_POINT_BUDGET = 48;
+
+    private static Object sink;
+
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    public AllocationTests() {
+        this.symbolTable.setVariable("x", new ComplexNumber(1.5));
+    }
+
+    private static Expression parse(String expression) throws ParseException {
+        return ExpressionOptimizer.optimize(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    private static void assertBudget(String operation, long budget, AllocationMeter.Operation op) throws Exception {
+        if (!AllocationMeter.isSupported())
+            return;
+
+        // Rounded to absorb the rare allocations done by the runtime while measuring.
+        var allocated = Math.round(AllocationMeter.measure(op));
+        assertTrue(operation + " allocated " + allocated + " bytes per operation, over its budget of " + budget + " bytes.",
+                allocated <= budget);
+    }
+
+    @Test
+    public void testLexer() throws Exception {
+        assertBudget("Lexing", LEX_BUDGET, () -> {
+            var lexer = new Lexer(SOURCE);
+            while (lexer.hasNext()) {
+                sink = lexer.next();
+            }
+        });
+    }
+
+    @Test
+    public void testParser() throws Exception {
+        assertBudget("Parsing", PARSE_BUDGET, () -> sink = new Parser(new Lexer(SOURCE)).parseExpression());
+    }
+
+    @Test
+    public void testEvaluation() throws Exception {
+        var polynomial = parse("3*x**4 + 2*x**3 - x + 7");
+        assertBudget("Polynomial evaluation", POLYNOMIAL_EVALUATION_BUDGET, () -> sink = polynomial.evaluate(this.symbolTable));
+
+        var function = parse("sin(x) * cos(x) + 1");
+        assertBudget("Function evaluation", FUNCTION_EVALUATION_BUDGET, () -> sink = function.evaluate(this.symbolTable));
+    }
+
+    @Test
+    public void testGraphSampling() throws Exception {
+        if (!AllocationMeter.isSupported())
+            return;
+
+        // The graph evaluates every expression through a single call site, once other tests sampled graphs of other expressions
+        // it is megamorphic and the results cannot be scalar-replaced anymore.
+        // The sampling is measured in a forked JVM so the measure does not depend on the tests run before.
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), AllocationTests.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertEquals(output, 0, process.waitFor());
+
+        var allocated = Long.parseLong(output);
+        assertTrue("Graph sampling allocated " + allocated + " bytes per point, over its budget of " + GRAPH_POINT_BUDGET + " bytes.",
+                allocated <= GRAPH_POINT_BUDGET);
+    }
+
+    /**
+     * Prints the bytes allocated per point by the sampling of a graph, measured by {@link #testGraphSampling()} in a forked JVM.
+     *
+     * @param args the arguments, unused
+     */
+    public static void main(String[] args) throws Exception {
+        int points = 1000;
+        var expression = parse("3*x**4 + 2*x**3 - x + 7");
+        var graph = new Graph(0, 1, 1.0 / points, expression);
+        // Setting the expression evaluates every point again.
+        System.out.println(Math.round(AllocationMeter.measure(() -> graph.setExpression(expression)) / points));
+    }
+
+    @Test
+    public void testAllocationFree() throws Exception {
+        assertBudget("Checkpoint without context", 0, this.symbolTable::checkpoint);
+
+        assertBudget("Disabled timer", 0, () -> Metrics.EVALUATE.stop(Metrics.EVALUATE.start()));
+        Metrics.setEnabled(true);
+        try {
+            assertBudget("Enabled timer", 0, () -> Metrics.EVALUATE.stop(Metrics.EVALUATE.start()));
+        } finally {
+            Metrics.setEnabled(false);
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.data.ColumnEvaluator;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ColumnEvaluatorTests {
+    private static final int ROWS = 5000;
+
+    private static Path writeColumn(double[] values) throws IOException {
+        var path = Files.createTempFile("calcium", ".bin");
+        path.toFile().deleteOnExit();
+        var buffer = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(values);
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static double[] readColumn(Path path) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        var values = new double[buffer.remaining()];
+        buffer.get(values);
+        return values;
+    }
+
+    private static double[] evaluate(String expression, SymbolTable symbolTable, double[] a, double[] b) throws IOException, ParseException {
+        var output = Files.createTempFile("calcium", ".bin");
+        output.toFile().deleteOnExit();
+        var rows = ColumnEvaluator.evaluate(new Parser(new Lexer(expression)).parseExpression(),
+                Map.of("a", writeColumn(a), "b", writeColumn(b)), output, symbolTable);
+        assertEquals(a.length, rows);
+        return readColumn(output);
+    }
+
+    @Test
+    public void testCompiled() throws IOException, ParseException {
+        var a = new double[ROWS];
+        var b = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            a[i] = i - 100;
+            b[i] = i % 7;
+        }
+        var symbolTable = new SymbolTable();
+        symbolTable.setVariable("k", new ComplexNumber(0.5));
+
+        var result = evaluate("k * a * b + cos(pi * b) - |a|", symbolTable, a, b);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(0.5 * a[i] * b[i] + Math.cos(Math.PI * b[i]) - Math.abs(a[i]), result[i], 1E-9);
+        }
+
+        result = evaluate("sqrt(a) / b", symbolTable, a, b);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(a[i] < 0 || b[i] == 0 ? Double.NaN : Math.sqrt(a[i]) / b[i], result[i], 1E-9);
+        }
+    }
+
+    @Test
+    public void testExponent() throws IOException, ParseException {
+        double[] bases = {0, 2, -2, 0.5, -0.5};
+        double[] powers = {0, 1, 2, 3, -1, 0.5, -2.5};
+        var a = new double[bases.length * powers.length];
+        var b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = bases[i / powers.length];
+            b[i] = powers[i % powers.length];
+        }
+
+        // The compiled exponent gives the results of the interpreter, or NaN where they are not real.
+        var result = evaluate("a ** b", new SymbolTable(), a, b);
+        var symbolTable = new SymbolTable();
+        var expression = new Parser(new Lexer("a ** b")).parseExpression();
+        for (int i = 0; i < a.length; i++) {
+            symbolTable.setVariable("a", new ComplexNumber(a[i]));
+            symbolTable.setVariable("b", new ComplexNumber(b[i]));
+            var expected = (ComplexNumber) expression.evaluate(symbolTable);
+            assertEquals(a[i] + " ** " + b[i], expected.isReal() ? expected.real() : Double.NaN, result[i], 1E-12);
+        }
+        assertEquals(0.0, result[0], 0.0);
+
+        // Huge integer powers cost a few multiplications.
+        result = evaluate("a ** 1000000000000", new SymbolTable(), new double[] {1, -1, 0.5, 1.0000001}, new double[4]);
+        assertArrayEquals(new double[] {1, 1, 0, Double.POSITIVE_INFINITY}, result, 0.0);
+    }
+
+    @Test
+    public void testInterpreted() throws IOException, ParseException {
+        var a = new double[ROWS];
+        var b = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            a[i] = i;
+            b[i] = -i;
+        }
+
+        var result = evaluate("sum(0, 3, n, a + n) + Re(b)", new SymbolTable(), a, b);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(3 * a[i] + 3 + b[i], result[i], 1E-9);
+        }
+    }
+
+    @Test
+    public void testMismatchedColumns() throws IOException, ParseException {
+        try {
+            evaluate("a + b", new SymbolTable(), new double[3], new double[4]);
+            fail("Expected the mismatched columns to be rejected.");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+    }
+}
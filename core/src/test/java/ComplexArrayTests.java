@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ComplexArrayTests {
+    @Test
+    public void testSliceSharesStorage() {
+        var array = ComplexArray.of(new ComplexNumber(1), new ComplexNumber(2), new ComplexNumber(3), new ComplexNumber(4));
+        var slice = array.slice(1, 3);
+
+        assertEquals(2, slice.length());
+        assertEquals(new ComplexNumber(2), slice.get(0));
+
+        slice.set(1, new ComplexNumber(0, 5));
+        assertEquals(new ComplexNumber(0, 5), array.get(2));
+    }
+
+    @Test
+    public void testArithmetic() {
+        var a = ComplexArray.of(new ComplexNumber(1, 1), new ComplexNumber(2, -1));
+        var b = ComplexArray.of(new ComplexNumber(3), ComplexNumber.I);
+
+        assertEquals(new ComplexNumber(4, 1), a.add(b).get(0));
+        assertEquals(new ComplexNumber(2, -2), a.subtract(b).get(1));
+        assertEquals(new ComplexNumber(1, 2), a.multiply(b).get(1));
+        assertEquals(new ComplexNumber(-1, 1), a.multiply(ComplexNumber.I).get(0));
+        assertEquals(new ComplexNumber(3, 0), a.sum());
+    }
+
+    @Test
+    public void testSliceArithmetic() {
+        var a = ComplexArray.of(new ComplexNumber(1), new ComplexNumber(2), new ComplexNumber(3));
+        var sum = a.slice(0, 2).add(a.slice(1, 3));
+
+        assertEquals(new ComplexNumber(3), sum.get(0));
+        assertEquals(new ComplexNumber(5), sum.get(1));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.data.CsvReader;
+import dev.lambdaurora.calcium.data.DataStatistics;
+import dev.lambdaurora.calcium.data.QuantileSketch;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+public class DataStatisticsTests {
+    private static Path createFile(String content) throws IOException {
+        var path = Files.createTempFile("calcium", ".csv");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, content);
+        return path;
+    }
+
+    @Test
+    public void testColumn() throws IOException {
+        var reader = new CsvReader(createFile("time,voltage,current\n2021-01-01T00:00,1.5,2\n2021-01-01T00:01,2.5,4E-1\n"
+                + "2021-01-01T00:02,,1\n2021-01-01T00:03,-4,-0.5\n"));
+        assertEquals(List.of("time", "voltage", "current"), reader.getColumns());
+
+        var statistics = DataStatistics.compute(reader, "voltage");
+        assertEquals(3, statistics.getCount());
+        assertEquals(0.0, statistics.getMean(), 1E-12);
+        assertEquals(12.25, statistics.getVariance(), 1E-12);
+        assertEquals(-4.0, statistics.getMin(), 0.0);
+        assertEquals(2.5, statistics.getMax(), 0.0);
+        assertEquals(1.5, statistics.getQuantile(0.5), 0.0);
+    }
+
+    @Test
+    public void testExpression() throws IOException, ParseException {
+        var reader = new CsvReader(createFile("time,voltage,current\r\n0,1.5,2\r\n1,2.5,0.4\r\n2,,1\r\n3,-4,-0.5"));
+        var symbolTable = new SymbolTable();
+        var expression = new Parser(new Lexer("voltage * current")).parseExpression();
+
+        DataStatistics.compute(reader, expression, symbolTable).bind(symbolTable, "power");
+        assertEquals(new ComplexNumber(3), symbolTable.getVariable("power_count").getValue());
+        assertEquals(new ComplexNumber(3), symbolTable.getVariable("power_max").getValue());
+        assertEquals(new ComplexNumber(2), symbolTable.getVariable("power_median").getValue());
+        assertEquals(3, ((ListValue) symbolTable.getVariable("power_quantiles").getValue()).size());
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        var random = new SplittableRandom(42);
+        var values = new double[1000];
+        var content = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (i % 4) {
+                case 0 -> random.nextDouble();
+                case 1 -> random.nextDouble(-1E6, 1E6);
+                case 2 -> Math.scalb(random.nextDouble(), random.nextInt(-500, 500));
+                default -> random.nextInt(-1000, 1000) / 100.0;
+            };
+            content.append(values[i]).append('\n');
+        }
+
+        var reader = new CsvReader(createFile(content.toString()), ',', false);
+        assertEquals(List.of("A"), reader.getColumns());
+        var index = new int[1];
+        reader.read(new int[]{0}, row -> assertEquals(values[index[0]++], row[0], 0.0));
+        assertEquals(values.length, index[0]);
+    }
+
+    @Test
+    public void testQuantileSketch() {
+        var random = new SplittableRandom(42);
+        var median = new QuantileSketch(0.5);
+        var percentile = new QuantileSketch(0.99);
+        for (int i = 0; i < 100000; i++) {
+            double value = random.nextDouble();
+            median.accept(value);
+            percentile.accept(value);
+        }
+
+        assertEquals(0.5, median.getQuantile(), 0.01);
+        assertEquals(0.99, percentile.getQuantile(), 0.01);
+    }
+}
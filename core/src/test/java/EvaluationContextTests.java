@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.evaluation.EvaluationCancelledException;
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class EvaluationContextTests {
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    private Value evaluate(String expression) throws ParseException {
+        return this.symbolTable.evaluateExpression(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    private void assertCancelled(String expression, EvaluationCancelledException.Reason reason) throws ParseException {
+        try {
+            this.evaluate(expression);
+            fail("The evaluation of " + expression + " should have been cancelled.");
+        } catch (EvaluationCancelledException e) {
+            assertEquals(reason, e.getReason());
+        }
+    }
+
+    @Test
+    public void testStepBudget() throws ParseException {
+        this.symbolTable.setEvaluationContext(EvaluationContext.withStepBudget(10_000));
+        assertEquals(new ComplexNumber(55), this.evaluate("sum(1, 11, k, k)"));
+
+        this.symbolTable.setEvaluationContext(EvaluationContext.withStepBudget(10_000));
+        this.assertCancelled("sum(1, 1000000000, k, k)", EvaluationCancelledException.Reason.STEP_BUDGET_EXCEEDED);
+        this.assertCancelled("(10**12)!", EvaluationCancelledException.Reason.STEP_BUDGET_EXCEEDED);
+    }
+
+    @Test
+    public void testTimeBudget() throws ParseException {
+        this.symbolTable.setEvaluationContext(EvaluationContext.withTimeBudget(50, TimeUnit.MILLISECONDS));
+        this.assertCancelled("sum(1, 1000000000000, k, sin(k))", EvaluationCancelledException.Reason.TIME_BUDGET_EXCEEDED);
+    }
+
+    @Test
+    public void testCancel() throws ParseException {
+        var context = new EvaluationContext();
+        context.cancel();
+        this.symbolTable.setEvaluationContext(context);
+        this.assertCancelled("map({1, 2, 3}, x, x + 1)", EvaluationCancelledException.Reason.CANCELLED);
+
+        this.symbolTable.setEvaluationContext(null);
+        assertEquals(new ComplexNumber(2), this.evaluate("1 + 1"));
+    }
+
+    @Test
+    public void testCopySharesContext() {
+        var context = new EvaluationContext();
+        this.symbolTable.setEvaluationContext(context);
+        assertSame(context, this.symbolTable.copy().getEvaluationContext());
+    }
+}
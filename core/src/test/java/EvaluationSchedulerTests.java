@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.evaluation.CostEstimator;
+import dev.lambdaurora.calcium.evaluation.EvaluationScheduler;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.FunctionSymbol;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EvaluationSchedulerTests {
+    private static Expression parse(String expression) throws ParseException {
+        return new Parser(new Lexer(expression)).parseExpression();
+    }
+
+    /**
+     * Creates a symbol table with a {@code block()} function, which waits for the given latch.
+     */
+    private static SymbolTable blockingTable(CountDownLatch started, CountDownLatch release) {
+        var symbolTable = new SymbolTable();
+        symbolTable.setFunction("block", new FunctionSymbol(false) {
+            @Override
+            public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ComplexNumber.ZERO;
+            }
+        });
+        return symbolTable;
+    }
+
+    @Test
+    public void testCostEstimation() throws ParseException {
+        var symbolTable = new SymbolTable();
+        assertEquals(3, CostEstimator.estimate(parse("1 + 2"), symbolTable));
+        assertTrue(CostEstimator.estimate(parse("sum(0, 10**12, k, k)"), symbolTable) > 1_000_000_000_000L);
+        assertTrue(CostEstimator.estimate(parse("sum(0, rand_int(10), k, k)"), symbolTable) >= CostEstimator.UNKNOWN_ITERATIONS);
+        assertTrue(CostEstimator.estimate(parse("1000!"), symbolTable) > 1000);
+        assertEquals(Long.MAX_VALUE, CostEstimator.estimate(parse("sum(0, 10**18, k, sum(0, 10**18, j, j))"), symbolTable));
+    }
+
+    @Test
+    public void testCheapJobsFirst() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var order = Collections.synchronizedList(new ArrayList<String>());
+
+        try (var scheduler = new EvaluationScheduler(1, 16)) {
+            var blocker = scheduler.submit(parse("block()"), blockingTable(started, release));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            var expensive = scheduler.submit(parse("sum(0, 10**5, k, k)"), new SymbolTable()).thenRun(() -> order.add("expensive"));
+            var cheap = scheduler.submit(parse("1 + 1"), new SymbolTable()).thenRun(() -> order.add("cheap"));
+            assertEquals(2, scheduler.getQueueDepth());
+
+            release.countDown();
+            blocker.get(10, TimeUnit.SECONDS);
+            expensive.get(10, TimeUnit.SECONDS);
+            cheap.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("cheap", "expensive"), order);
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var scheduler = new EvaluationScheduler(1, 1)) {
+            scheduler.submit(parse("block()"), blockingTable(started, release));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            var queued = scheduler.submit(parse("2 * 3"), new SymbolTable());
+            try {
+                scheduler.submit(parse("1"), new SymbolTable());
+                fail("Expected the submission to be rejected.");
+            } catch (RejectedExecutionException e) {
+                // Expected.
+            }
+
+            var metrics = scheduler.getMetrics();
+            assertEquals(1, metrics.queueDepth());
+            assertEquals(1, metrics.running());
+            assertEquals(1, metrics.rejected());
+
+            release.countDown();
+            assertEquals(new ComplexNumber(6), queued.get(10, TimeUnit.SECONDS));
+            assertEquals(new ComplexNumber(1), scheduler.submit(parse("1"), new SymbolTable(), 10, TimeUnit.SECONDS)
+                    .get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        var symbolTable = new SymbolTable();
+        symbolTable.setFunction("exhaust", new FunctionSymbol(false) {
+            @Override
+            public Value evaluate(List<Expression> arguments, SymbolTable symbolTable) {
+                throw new OutOfMemoryError("Java heap space");
+            }
+        });
+
+        try (var scheduler = new EvaluationScheduler(1, 16)) {
+            var failed = scheduler.submit(parse("exhaust()"), symbolTable);
+            try {
+                failed.get(10, TimeUnit.SECONDS);
+                fail("Expected the evaluation to fail.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof OutOfMemoryError);
+            }
+
+            // The single worker survived the error.
+            assertEquals(new ComplexNumber(2), scheduler.submit(parse("1 + 1"), new SymbolTable()).get(10, TimeUnit.SECONDS));
+            assertEquals(1, scheduler.getMetrics().failed());
+        }
+    }
+}
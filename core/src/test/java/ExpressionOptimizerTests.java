@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.expression.PolynomialExpression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExpressionOptimizerTests {
+    private static Expression parse(String expression) throws ParseException {
+        return new Parser(new Lexer(expression)).parseExpression();
+    }
+
+    private static void assertSameValues(Expression expected, Expression got) {
+        var symbolTable = new SymbolTable();
+        for (double x = -3.0; x <= 3.0; x += 0.25) {
+            symbolTable.setVariable("x", new ComplexNumber(x));
+            var expectedValue = (ComplexNumber) expected.evaluate(symbolTable);
+            var gotValue = (ComplexNumber) got.evaluate(symbolTable);
+            assertEquals(expectedValue.real(), gotValue.real(), 1E-9);
+            assertEquals(expectedValue.imaginary(), gotValue.imaginary(), 1E-9);
+        }
+    }
+
+    @Test
+    public void testPolynomialRecognition() throws ParseException {
+        var expression = parse("3*x**4 + 2*x**3 - x + 7");
+        var optimized = ExpressionOptimizer.optimize(expression);
+
+        assertTrue(optimized instanceof PolynomialExpression);
+        var polynomial = (PolynomialExpression) optimized;
+        assertEquals(4, polynomial.getDegree());
+        assertEquals(new ComplexNumber(7), polynomial.getCoefficient(0));
+        assertEquals(new ComplexNumber(-1), polynomial.getCoefficient(1));
+        assertEquals(new ComplexNumber(3), polynomial.getCoefficient(4));
+        assertSameValues(expression, optimized);
+    }
+
+    @Test
+    public void testComplexPolynomial() throws ParseException {
+        var expression = parse("(x + i)**3 - pi * x / 2");
+        var optimized = ExpressionOptimizer.optimize(expression);
+
+        assertTrue(optimized instanceof PolynomialExpression);
+        assertSameValues(expression, optimized);
+    }
+
+    @Test
+    public void testNestedPolynomial() throws ParseException {
+        var expression = parse("sin(x**2 + 2*x + 1) + 1");
+        var optimized = ExpressionOptimizer.optimize(expression);
+
+        assertFalse(optimized instanceof PolynomialExpression);
+        assertSameValues(expression, optimized);
+    }
+
+    @Test
+    public void testMatrixPolynomial() throws ParseException {
+        var symbolTable = new SymbolTable();
+        symbolTable.evaluateExpression(parse("m = [1, 2; 3, 4]"));
+
+        var cube = ExpressionOptimizer.optimize(parse("m*m*m"));
+        assertTrue(cube instanceof PolynomialExpression);
+        assertEquals("[37, 54; 81, 118]", symbolTable.evaluateExpression(cube).toString());
+        assertEquals("[8, 12; 18, 26]", symbolTable.evaluateExpression(ExpressionOptimizer.optimize(parse("m*m + m"))).toString());
+    }
+
+    @Test
+    public void testNotPolynomial() throws ParseException {
+        assertFalse(ExpressionOptimizer.optimize(parse("x**2 + y")) instanceof PolynomialExpression);
+        assertFalse(ExpressionOptimizer.optimize(parse("1 / x**2")) instanceof PolynomialExpression);
+        assertFalse(ExpressionOptimizer.optimize(parse("x**0.5 + x**2")) instanceof PolynomialExpression);
+    }
+}
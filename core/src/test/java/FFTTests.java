@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.FFT;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+public class FFTTests {
+    private static final double EPSILON = 1E-9;
+
+    @Test
+    public void testPowerOfTwo() {
+        assertMatchesDft(randomArray(16));
+        assertMatchesDft(randomArray(1024));
+    }
+
+    @Test
+    public void testArbitrarySize() {
+        assertMatchesDft(randomArray(3));
+        assertMatchesDft(randomArray(12));
+        assertMatchesDft(randomArray(1000));
+    }
+
+    @Test
+    public void testManySizes() {
+        // More sizes than the caches hold, so the first ones are evicted then computed again.
+        for (int n = 2; n <= 40; n++) {
+            assertMatchesDft(randomArray(n));
+        }
+        assertMatchesDft(randomArray(3));
+        assertMatchesDft(randomArray(4));
+    }
+
+    @Test
+    public void testInverse() {
+        for (int n : new int[]{1, 8, 15, 1 << 16}) {
+            var array = randomArray(n);
+            var result = FFT.ifft(FFT.fft(array));
+            for (int i = 0; i < n; i++) {
+                assertEquals(array.getReal(i), result.getReal(i), EPSILON);
+                assertEquals(array.getImaginary(i), result.getImaginary(i), EPSILON);
+            }
+        }
+    }
+
+    private static ComplexArray randomArray(int n) {
+        var random = new SplittableRandom(n);
+        var array = ComplexArray.allocate(n);
+        for (int i = 0; i < n; i++) {
+            array.set(i, random.nextDouble(-1, 1), random.nextDouble(-1, 1));
+        }
+        return array;
+    }
+
+    private static void assertMatchesDft(ComplexArray array) {
+        int n = array.length();
+        var result = FFT.fft(array);
+        var inverse = FFT.ifft(array);
+        for (int k = 0; k < n; k++) {
+            double real = 0, imaginary = 0;
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                real += array.getReal(j) * Math.cos(angle) - array.getImaginary(j) * Math.sin(angle);
+                imaginary += array.getReal(j) * Math.sin(angle) + array.getImaginary(j) * Math.cos(angle);
+            }
+            assertEquals(real, result.getReal(k), EPSILON * n);
+            assertEquals(imaginary, result.getImaginary(k), EPSILON * n);
+            // The inverse transform is the conjugate direction, scaled by 1/n.
+            int mirror = (n - k) % n;
+            assertEquals(real / n, inverse.getReal(mirror), EPSILON);
+            assertEquals(imaginary / n, inverse.getImaginary(mirror), EPSILON);
+        }
+    }
+}
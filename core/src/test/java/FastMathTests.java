@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.math.FastMath;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FastMathTests {
+    private static void assertAbsoluteError(DoubleUnaryOperator fast, DoubleUnaryOperator exact, double min, double max, double bound) {
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            var x = min + (max - min) * random.nextDouble();
+            assertEquals("x = " + x, exact.applyAsDouble(x), fast.applyAsDouble(x), bound);
+        }
+    }
+
+    private static void assertUlpError(DoubleUnaryOperator fast, DoubleUnaryOperator exact, double min, double max, double bound) {
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            var x = min + (max - min) * random.nextDouble();
+            var expected = exact.applyAsDouble(x);
+            assertEquals("x = " + x, expected, fast.applyAsDouble(x), bound * Math.ulp(expected));
+        }
+    }
+
+    @Test
+    public void testTrigonometry() {
+        assertAbsoluteError(FastMath::sin, Math::sin, -1E5, 1E5, 1E-15);
+        assertAbsoluteError(FastMath::cos, Math::cos, -1E5, 1E5, 1E-15);
+        assertUlpError(FastMath::tan, Math::tan, -1.5, 1.5, 64);
+    }
+
+    @Test
+    public void testHyperbolic() {
+        assertUlpError(FastMath::sinh, Math::sinh, -710.4, 710.4, 16);
+        assertUlpError(FastMath::sinh, Math::sinh, -0.5, 0.5, 16);
+        assertUlpError(FastMath::cosh, Math::cosh, -710.4, 710.4, 16);
+        assertUlpError(FastMath::tanh, Math::tanh, -30, 30, 16);
+        assertUlpError(FastMath::tanh, Math::tanh, -0.5, 0.5, 16);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        assertTrue(Double.isNaN(FastMath.sin(Double.NaN)));
+        assertTrue(Double.isNaN(FastMath.cos(Double.POSITIVE_INFINITY)));
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.cosh(1000.0), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, FastMath.sinh(-1000.0), 0.0);
+        // Past the overflow of exp, but not of sinh and cosh.
+        assertEquals(Math.cosh(710.0), FastMath.cosh(710.0), 0.0);
+        assertEquals(Math.sinh(-710.0), FastMath.sinh(-710.0), 0.0);
+        assertEquals(-1.0, FastMath.tanh(-1000.0), 0.0);
+        assertEquals(0.0, FastMath.sin(0.0), 0.0);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.evaluation.CostEstimator;
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.expression.PolynomialExpression;
+import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.metrics.EvaluationEvent;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderTests {
+    private static final String SOURCE = "sum(0, 10, k, k * 2)";
+
+    @Test
+    public void testEvents() throws Exception {
+        // Parsed before recording, so the only parse event recorded is the one of the source.
+        var graphExpression = parse("x ** 2");
+
+        List<RecordedEvent> events;
+        var file = Files.createTempFile("calcium", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("dev.lambdaurora.calcium.Parse");
+            recording.enable("dev.lambdaurora.calcium.Evaluation");
+            recording.enable("dev.lambdaurora.calcium.Sum");
+            recording.enable("dev.lambdaurora.calcium.GraphCompute");
+            recording.start();
+
+            var expression = new Parser(new Lexer(SOURCE)).parseExpression();
+            new SymbolTable().evaluateExpression(expression);
+            new Graph(0, 1, 0.25, graphExpression);
+
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        var parse = single(events, "dev.lambdaurora.calcium.Parse");
+        assertEquals(SOURCE.length(), parse.getInt("sourceLength"));
+        // sum ( 0 , 10 , k , k * 2 ) and the end of file token.
+        assertEquals(13, parse.getInt("tokenCount"));
+
+        var evaluation = single(events, "dev.lambdaurora.calcium.Evaluation");
+        assertEquals(7, evaluation.getInt("nodeCount"));
+        assertEquals("ComplexNumber", evaluation.getString("resultType"));
+
+        var sum = single(events, "dev.lambdaurora.calcium.Sum");
+        assertEquals("k", sum.getString("variable"));
+        assertEquals(10, sum.getLong("iterations"));
+
+        var graph = single(events, "dev.lambdaurora.calcium.GraphCompute");
+        assertEquals(5, graph.getInt("pointCount"));
+        assertEquals(0.25, graph.getDouble("step"), 0);
+    }
+
+    @Test
+    public void testStructuralHash() throws ParseException {
+        assertEquals(EvaluationEvent.structuralHash(parse("sin(x) + 2")), EvaluationEvent.structuralHash(parse("sin(x) + 2")));
+        assertNotEquals(EvaluationEvent.structuralHash(parse("sin(x) + 2")), EvaluationEvent.structuralHash(parse("sin(x) + 3")));
+        assertNotEquals(EvaluationEvent.structuralHash(parse("sin(x) + 2")), EvaluationEvent.structuralHash(parse("cos(x) + 2")));
+
+        // Polynomials show the formula they were built from.
+        var polynomial = parse("3*x**2 + 1");
+        assertTrue(polynomial instanceof PolynomialExpression);
+        var source = new Parser(new Lexer("3*x**2 + 1")).parseExpression();
+        assertEquals(1 + EvaluationEvent.nodeCount(source), EvaluationEvent.nodeCount(polynomial));
+        assertNotEquals(EvaluationEvent.structuralHash(polynomial), EvaluationEvent.structuralHash(parse("3*x**2 + 2")));
+        assertTrue(CostEstimator.estimate(polynomial, new SymbolTable()) > 1);
+    }
+
+    private static Expression parse(String expression) throws ParseException {
+        return ExpressionOptimizer.optimize(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        var matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+        assertEquals("Expected one " + name + " event, got " + matching.size() + ".", 1, matching.size());
+        return matching.get(0);
+    }
+}
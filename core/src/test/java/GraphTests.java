@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GraphTests {
+    private static Expression parse(String expression) throws ParseException {
+        return ExpressionOptimizer.optimize(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    @Test
+    public void testPoints() throws ParseException {
+        var graph = new Graph(-2, 2, 0.5, parse("x**2 - 1"));
+
+        assertEquals(9, graph.getPointCount());
+        assertEquals(-2, graph.getFirstX(), 0);
+        assertEquals(3, graph.getFirstValue(), 0);
+        for (int i = 0; i < graph.getPointCount(); i++) {
+            double x = -2 + i * 0.5;
+            assertEquals(x, graph.getX(i), 1E-12);
+            assertEquals(x * x - 1, graph.getY(i), 1E-12);
+        }
+        assertEquals(-1, graph.getMinValue(), 0);
+        assertEquals(3, graph.getMaxValue(), 0);
+
+        var count = new int[1];
+        graph.forEach((x, y) -> {
+            assertEquals(graph.getX(count[0]), x, 0);
+            assertEquals(graph.getY(count[0]), y, 0);
+            count[0]++;
+        });
+        assertEquals(graph.getPointCount(), count[0]);
+    }
+
+    @Test
+    public void testRecompute() throws ParseException {
+        var graph = new Graph(0, 1, 0.001, parse("x"));
+        assertEquals(1001, graph.getPointCount(), 1);
+
+        graph.setStep(0.25);
+        assertEquals(5, graph.getPointCount());
+        assertEquals(1, graph.getY(4), 1E-12);
+
+        graph.setXMax(100);
+        assertEquals(401, graph.getPointCount());
+    }
+
+    @Test
+    public void testParallelSampling() throws ParseException {
+        // Large enough to be sampled in parallel, with non-real results skipped in the middle of chunks.
+        var graph = new Graph(-1, 1, 1E-4, parse("sqrt(x) * 2"));
+
+        int expected = 0;
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int k = -10000; k <= 10000; k++) {
+            double x = k * 1E-4;
+            if (x < 0) continue;
+            assertEquals(x, graph.getX(expected), 0);
+            assertEquals(Math.sqrt(x) * 2, graph.getY(expected), 1E-12);
+            assertTrue(graph.getX(expected) > previous);
+            previous = graph.getX(expected);
+            expected++;
+        }
+        assertEquals(expected, graph.getPointCount());
+        assertEquals(0, graph.getMinValue(), 0);
+        assertEquals(2, graph.getMaxValue(), 1E-12);
+    }
+
+    @Test
+    public void testImpureSampling() throws ParseException {
+        // Impure expressions are sampled serially.
+        var graph = new Graph(0, 1, 1E-4, parse("x + random() * 0"));
+        assertEquals(10001, graph.getPointCount());
+        assertEquals(0.5, graph.getY(5000), 1E-12);
+    }
+
+    @Test
+    public void testIncrementalPan() throws ParseException {
+        var graph = new Graph(0, 10, 0.01, parse("sin(x) * x"));
+        assertEquals(1001, graph.getEvaluationCount());
+
+        graph.setXMin(2);
+        assertEquals(0, graph.getEvaluationCount());
+        assertEquals(801, graph.getPointCount());
+
+        graph.setXMax(12);
+        assertEquals(200, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+
+        graph.setXMin(-3);
+        assertEquals(500, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+
+        // Large enough for the new portion to be sampled in parallel.
+        graph.setStep(1E-4);
+        graph.setXMax(13);
+        assertEquals(10000, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+    }
+
+    @Test
+    public void testIncrementalStep() throws ParseException {
+        var graph = new Graph(-5, 5, 0.01, parse("sqrt(x) + 1 / x"));
+
+        // A multiple of the step reuses every sample.
+        graph.setStep(0.05);
+        assertEquals(0, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+
+        // A divisor of the step reuses every other sample.
+        graph.setStep(0.025);
+        assertEquals(200, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+
+        // Any other step evaluates everything again, the bounds are now off the grid.
+        graph.setStep(0.03);
+        assertEquals(333 + 2, graph.getEvaluationCount());
+        assertSameAsFresh(graph);
+
+        graph.setExpression(parse("x"));
+        assertEquals(333 + 2, graph.getEvaluationCount());
+    }
+
+    @Test
+    public void testEdges() throws ParseException {
+        var graph = new Graph(0.3, 2, 0.5, parse("x**2"));
+        assertEquals(5, graph.getPointCount());
+        assertEquals(0.3, graph.getFirstX(), 0);
+        assertEquals(0.09, graph.getFirstValue(), 1E-12);
+        assertEquals(0.5, graph.getX(1), 1E-12);
+        assertEquals(2, graph.getX(4), 1E-12);
+
+        graph = new Graph(-10, 10, 3, parse("x"));
+        assertEquals(9, graph.getPointCount());
+        assertEquals(-10, graph.getFirstX(), 0);
+        assertEquals(-9, graph.getX(1), 1E-12);
+        assertEquals(9, graph.getX(7), 1E-12);
+        assertEquals(10, graph.getX(8), 0);
+        assertEquals(10, graph.getY(8), 0);
+
+        // Edges are reused as long as their bound doesn't move.
+        graph.setXMin(-11);
+        assertEquals(1, graph.getEvaluationCount());
+        assertEquals(-11, graph.getFirstX(), 0);
+        assertEquals(10, graph.getX(graph.getPointCount() - 1), 0);
+
+        // A range between two slots only has its edges.
+        graph = new Graph(0.1, 0.2, 1, parse("x"));
+        assertEquals(2, graph.getPointCount());
+        assertEquals(0.1, graph.getX(0), 0);
+        assertEquals(0.2, graph.getX(1), 0);
+    }
+
+    private static void assertSameAsFresh(Graph graph) {
+        var fresh = new Graph(graph.getXMin(), graph.getXMax(), graph.getStep(), graph.getExpression());
+        assertEquals(fresh.getPointCount(), graph.getPointCount());
+        for (int i = 0; i < fresh.getPointCount(); i++) {
+            // Reused samples may have been evaluated at X-coordinates differing by rounding.
+            assertEquals(fresh.getX(i), graph.getX(i), 1E-12);
+            assertEquals(fresh.getY(i), graph.getY(i), 1E-9);
+        }
+        assertEquals(fresh.getMinValue(), graph.getMinValue(), 1E-9);
+        assertEquals(fresh.getMaxValue(), graph.getMaxValue(), 1E-9);
+    }
+
+    @Test
+    public void testAdaptiveLine() throws ParseException {
+        var graph = new Graph(-10, 10, 0.01, parse("2 * x + 1"));
+        graph.setAdaptive(true);
+
+        // A line is never refined past the check of the midpoints of the coarse grid.
+        assertEquals(2 * 64 + 1, graph.getPointCount());
+        assertEquals(-19, graph.getFirstValue(), 1E-12);
+        assertEquals(21, graph.getY(graph.getPointCount() - 1), 1E-12);
+    }
+
+    @Test
+    public void testAdaptiveCurve() throws ParseException {
+        var graph = new Graph(-5, 5, 0.001, parse("sin(10 * x)"));
+        graph.setResolution(800, 600);
+        graph.setAdaptive(true);
+
+        assertTrue(graph.getPointCount() < 5000);
+
+        // The linear interpolation between the points stays within a couple of pixels of the curve.
+        double tolerance = 2 * 2.0 / 600;
+        for (int i = 0; i < graph.getPointCount() - 1; i++) {
+            double x0 = graph.getX(i), x1 = graph.getX(i + 1);
+            assertTrue(x1 > x0);
+            for (int k = 1; k < 8; k++) {
+                double x = x0 + (x1 - x0) * k / 8;
+                double interpolated = graph.getY(i) + (graph.getY(i + 1) - graph.getY(i)) * k / 8;
+                assertEquals(Math.sin(10 * x), interpolated, tolerance);
+            }
+        }
+    }
+
+    @Test
+    public void testAdaptivePole() throws ParseException {
+        var graph = new Graph(-1, 1.1, 0.001, parse("1 / x"));
+        graph.setResolution(800, 600);
+        graph.setAdaptive(true);
+
+        // The jump around 0 is refined down to a fraction of a pixel.
+        double pixel = 2.1 / 800;
+        double smallest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < graph.getPointCount() - 1; i++) {
+            if (graph.getX(i) < 0 && graph.getX(i + 1) > 0)
+                smallest = graph.getX(i + 1) - graph.getX(i);
+        }
+        assertTrue(smallest < pixel);
+    }
+
+    @Test
+    public void testAdaptiveCap() throws ParseException {
+        var graph = new Graph(-5, 5, 0.001, parse("sin(100 * x) / x"));
+        graph.setMaxEvaluations(100);
+        graph.setAdaptive(true);
+        assertTrue(graph.getPointCount() <= 100);
+        assertTrue(graph.getPointCount() > 64);
+    }
+
+    @Test
+    public void testSnapshot() throws ParseException {
+        var graph = new Graph(0, 2, 0.5, parse("x * 2"));
+        var snapshot = graph.snapshot();
+        assertSame(snapshot, graph.snapshot());
+        assertEquals(graph.getPointCount(), snapshot.getPointCount());
+        assertEquals(4, snapshot.getMaxValue(), 0);
+
+        // Computing the graph again doesn't alter the published snapshot.
+        graph.setXMax(10);
+        assertNotSame(snapshot, graph.snapshot());
+        assertEquals(5, snapshot.getPointCount());
+        assertEquals(2, snapshot.getXMax(), 0);
+        for (int i = 0; i < snapshot.getPointCount(); i++) {
+            assertEquals(i * 0.5, snapshot.getX(i), 1E-12);
+            assertEquals(i, snapshot.getY(i), 1E-12);
+        }
+        assertEquals(21, graph.snapshot().getPointCount());
+        assertEquals(20, graph.snapshot().getMaxValue(), 0);
+    }
+
+    @Test
+    public void testDownsample() throws ParseException {
+        // NaN on [-1, 1], the step is a power of 2 to hit the bounds exactly.
+        var snapshot = new Graph(-4, 4, 1.0 / 1024, parse("sin(x * 10) + 0 / (abs(x + 1) + abs(x - 1) - 2)")).snapshot();
+        int columns = 100;
+        var reduced = snapshot.downsample(columns);
+        assertTrue(reduced.getPointCount() <= 4 * columns + 1);
+        assertEquals(snapshot.getFirstX(), reduced.getFirstX(), 0);
+        assertEquals(snapshot.getX(snapshot.getPointCount() - 1), reduced.getX(reduced.getPointCount() - 1), 0);
+
+        // Each column keeps the same extrema, so the same pixels are drawn.
+        var expectedMin = new double[columns];
+        var expectedMax = new double[columns];
+        var actualMin = new double[columns];
+        var actualMax = new double[columns];
+        Arrays.fill(expectedMin, Double.POSITIVE_INFINITY);
+        Arrays.fill(expectedMax, Double.NEGATIVE_INFINITY);
+        Arrays.fill(actualMin, Double.POSITIVE_INFINITY);
+        Arrays.fill(actualMax, Double.NEGATIVE_INFINITY);
+        snapshot.forEach((x, y) -> {
+            int column = Math.min(columns - 1, (int) ((x + 4) * columns / 8));
+            expectedMin[column] = Math.min(expectedMin[column], y);
+            expectedMax[column] = Math.max(expectedMax[column], y);
+        });
+        var gaps = new int[1];
+        reduced.forEach((x, y) -> {
+            int column = Math.min(columns - 1, (int) ((x + 4) * columns / 8));
+            if (Double.isNaN(y)) {
+                assertEquals(-1, x, 0);
+                gaps[0]++;
+            }
+            actualMin[column] = Math.min(actualMin[column], y);
+            actualMax[column] = Math.max(actualMax[column], y);
+        });
+        assertEquals(1, gaps[0]);
+        for (int i = 0; i < columns; i++) {
+            if (!Double.isNaN(expectedMin[i])) {
+                assertEquals(expectedMin[i], actualMin[i], 0);
+                assertEquals(expectedMax[i], actualMax[i], 0);
+            }
+        }
+
+        // Sparse enough snapshots are kept as-is.
+        assertSame(snapshot, snapshot.downsample(snapshot.getPointCount()));
+    }
+
+    @Test
+    public void testOutOfBounds() throws ParseException {
+        var graph = new Graph(0, 1, 0.5, parse("x"));
+        try {
+            graph.getX(graph.getPointCount());
+            fail("Expected an IndexOutOfBoundsException.");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+    }
+}
@@ -28,7 +28,7 @@ public class LexerTests {
     @Test
     public void testLexer() {
         var expectedTokens = Arrays.stream(TokenType.values()).iterator();
-        var lexer = new Lexer("() , = + - * /\t**! |mod   536.25i hello_world");
+        var lexer = new Lexer("() [] {} , ; = + - * /\t**! |mod   536.25i hello_world");
 
         while (expectedTokens.hasNext()) {
             var expectedToken = expectedTokens.next();
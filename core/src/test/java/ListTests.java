@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.ListValue;
+import dev.lambdaurora.calcium.NoneValue;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ListTests {
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    private Value evaluate(String expression) throws ParseException {
+        return this.symbolTable.evaluateExpression(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    private static ListValue list(double... values) {
+        var list = new ArrayList<Value>();
+        for (var value : values) {
+            list.add(new ComplexNumber(value));
+        }
+        return new ListValue(list);
+    }
+
+    @Test
+    public void testLiterals() throws ParseException {
+        assertEquals(list(), this.evaluate("{}"));
+        assertEquals(list(1, 4), this.evaluate("{1, 2 * 2}"));
+        assertEquals(new ComplexNumber(2), this.evaluate("{1, 2, 3}[1]"));
+        assertEquals("{1, {2, 3.5}}", this.evaluate("{1, {2, 3.5}}").toString());
+    }
+
+    @Test
+    public void testFunctions() throws ParseException {
+        assertEquals(list(1, 4, 9), this.evaluate("map({1, 2, 3}, x, x**2)"));
+        assertEquals(list(1, 3), this.evaluate("filter({1, 2, 3, 4}, x, x mod 2)"));
+        assertEquals(new ComplexNumber(24), this.evaluate("reduce({1, 2, 3, 4}, a, b, a * b)"));
+        assertEquals(NoneValue.NONE, this.evaluate("reduce({}, a, b, a * b)"));
+    }
+
+    @Test
+    public void testParallel() throws ParseException {
+        var values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        this.symbolTable.setVariable("l", list(values));
+
+        var doubled = (ListValue) this.evaluate("map(l, x, 2 * x)");
+        assertEquals(values.length, doubled.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(new ComplexNumber(2.0 * i), doubled.get(i));
+        }
+
+        assertEquals(values.length / 2, ((ListValue) this.evaluate("filter(l, x, x mod 2)")).size());
+        assertEquals(new ComplexNumber(values.length * (values.length - 1) / 2.0), this.evaluate("reduce(l, a, b, a + b)"));
+    }
+
+    @Test
+    public void testPurity() throws ParseException {
+        assertTrue(new Parser(new Lexer("map({1, 2}, x, sin(x) + 1)")).parseExpression().isPure(this.symbolTable));
+        assertFalse(new Parser(new Lexer("map({1, 2}, x, x + random())")).parseExpression().isPure(this.symbolTable));
+        assertFalse(new Parser(new Lexer("map({1, 2}, x, y = x)")).parseExpression().isPure(this.symbolTable));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexMatrix;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class MatrixTests {
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    private Value evaluate(String expression) throws ParseException {
+        return this.symbolTable.evaluateExpression(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    @Test
+    public void testLiterals() throws ParseException {
+        assertTrue(this.evaluate("[1, 2, 3]") instanceof ComplexArray);
+
+        var matrix = this.evaluate("[1, 2; 3, 4; 5, 6]");
+        assertTrue(matrix instanceof ComplexMatrix);
+        assertEquals(3, ((ComplexMatrix) matrix).rows());
+        assertEquals(2, ((ComplexMatrix) matrix).columns());
+    }
+
+    @Test
+    public void testIndexing() throws ParseException {
+        this.evaluate("m = [1, 2; 3, 4]");
+        assertEquals(new ComplexNumber(3), this.evaluate("m[1, 0]"));
+        assertEquals(new ComplexNumber(4), this.evaluate("m[1][1]"));
+        assertEquals(ComplexNumber.I, this.evaluate("[1, i][1]"));
+    }
+
+    @Test
+    public void testOperators() throws ParseException {
+        this.evaluate("m = [1, 2; 3, 4]");
+        assertEquals("[7, 10; 15, 22]", this.evaluate("m * m").toString());
+        assertEquals("[5, 11]", this.evaluate("m * [1, 2]").toString());
+        assertEquals("[2, 4; 6, 8]", this.evaluate("m + m").toString());
+        assertEquals("[0, 0; 0, 0]", this.evaluate("m - m").toString());
+        assertEquals("[2i, 4i]", this.evaluate("2i * [1, 2]").toString());
+        assertEquals("[4, 6]", this.evaluate("[1, 2] + [3, 4]").toString());
+    }
+
+    @Test
+    public void testLargeProduct() {
+        // Large enough to go through the blocked and parallel kernel.
+        int n = 150;
+        var random = new SplittableRandom(1);
+        var a = ComplexMatrix.allocate(n, n);
+        var b = ComplexMatrix.allocate(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a.set(i, j, new ComplexNumber(random.nextDouble(), random.nextDouble()));
+                b.set(i, j, new ComplexNumber(random.nextDouble(), random.nextDouble()));
+            }
+        }
+
+        var product = a.multiply(b);
+        for (int i = 0; i < n; i += 37) {
+            for (int j = 0; j < n; j += 41) {
+                var expected = ComplexNumber.ZERO;
+                for (int k = 0; k < n; k++) {
+                    expected = expected.add(a.get(i, k).multiply(b.get(k, j)));
+                }
+                assertEquals(expected.real(), product.get(i, j).real(), 1E-9);
+                assertEquals(expected.imaginary(), product.get(i, j).imaginary(), 1E-9);
+            }
+        }
+    }
+
+    @Test
+    public void testMaximumSize() throws ParseException {
+        assertEquals(new ComplexNumber(1), ((ComplexMatrix) this.evaluate("identity(2048)")).get(2047, 2047));
+        assertThrows(IllegalArgumentException.class, () -> this.evaluate("identity(40000)"));
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.allocate(1 << 16, 1 << 16));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.expression.LiteralExpression;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.metrics.LatencyTimer;
+import dev.lambdaurora.calcium.metrics.Metrics;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTests {
+    private static void evaluate(String expression) throws ParseException {
+        var parsed = ExpressionOptimizer.optimize(new Parser(new Lexer(expression)).parseExpression());
+        new SymbolTable().evaluateExpression(parsed);
+    }
+
+    @Test
+    public void testDisabled() throws ParseException {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        evaluate("sin(1) + 2");
+        assertEquals(0, Metrics.PARSE.getCount());
+        assertEquals(0, Metrics.EVALUATE.getCount());
+    }
+
+    @Test
+    public void testStages() throws ParseException {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        try {
+            evaluate("sin(1) + cos(2) * sin(3)");
+
+            assertEquals(1, Metrics.PARSE.getCount());
+            assertEquals(1, Metrics.OPTIMIZE.getCount());
+            assertEquals(1, Metrics.EVALUATE.getCount());
+            // sin ( 1 ) + cos ( 2 ) * sin ( 3 ), plus the end of file token.
+            assertTrue(Metrics.LEX.getCount() > 14);
+            assertEquals(2, Metrics.function("sin").getCount());
+            assertEquals(1, Metrics.function("cos").getCount());
+
+            new Graph(0, 1, 0.1, new LiteralExpression(new ComplexNumber(1)));
+            assertEquals(1, Metrics.GRAPH_COMPUTE.getCount());
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testHistogram() {
+        var timer = Metrics.function("test_histogram");
+        timer.record(0);
+        timer.record(1);
+        timer.record(3);
+        timer.record(1000);
+
+        var histogram = timer.getHistogram();
+        assertEquals(LatencyTimer.BUCKETS, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(1, histogram[2]);
+        assertEquals(1, histogram[10]);
+        assertEquals(1004, timer.getTotalTime());
+        assertEquals(1000, timer.getMaxTime());
+        assertEquals(1, timer.getMedianTime());
+        assertEquals(1000, timer.get99thPercentileTime());
+    }
+
+    @Test
+    public void testMBeans() throws Exception {
+        Metrics.setEnabled(true);
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(server.isRegistered(new ObjectName(Metrics.DOMAIN + ":type=Metrics")));
+            assertTrue(server.isRegistered(new ObjectName(Metrics.DOMAIN + ":type=Timer,name=evaluate")));
+
+            Metrics.function("test_mbean");
+            assertTrue(server.isRegistered(new ObjectName(Metrics.DOMAIN + ":type=Function,name=\"test_mbean\"")));
+            assertEquals(true, server.getAttribute(new ObjectName(Metrics.DOMAIN + ":type=Metrics"), "Enabled"));
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.evaluation.EvaluationCancelledException;
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
+import dev.lambdaurora.calcium.math.ComplexArray;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class RandomTests {
+    private static Value evaluate(SymbolTable symbolTable, String expression) throws ParseException {
+        return symbolTable.evaluateExpression(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    @Test
+    public void testMonteCarloReproducibility() throws ParseException {
+        // The first expression is compiled, the second one is interpreted.
+        for (var expression : new String[] {"montecarlo(5000, u, 4 * sqrt(1 - u**2))", "montecarlo(5000, u, rand_int(1, 3) * u)"}) {
+            var first = evaluate(new SymbolTable(42), expression);
+            assertEquals(first, evaluate(new SymbolTable(42), expression));
+            assertNotEquals(first, evaluate(new SymbolTable(43), expression));
+        }
+
+        var pi = (ComplexNumber) evaluate(new SymbolTable(42), "montecarlo(100000, u, 4 * sqrt(1 - u**2))");
+        assertEquals(Math.PI, pi.real(), 0.05);
+    }
+
+    @Test
+    public void testMonteCarloCompiled() throws ParseException {
+        // Re(...) is not compiled, both estimations draw the same samples.
+        var compiled = (ComplexNumber) evaluate(new SymbolTable(7), "montecarlo(3000, u, u**2 + 2 * u)");
+        var interpreted = (ComplexNumber) evaluate(new SymbolTable(7), "montecarlo(3000, u, Re(u**2 + 2 * u))");
+        assertEquals(interpreted.real(), compiled.real(), 1e-12);
+
+        // Samples which are not real are interpreted again.
+        compiled = (ComplexNumber) evaluate(new SymbolTable(7), "montecarlo(3000, u, sqrt(u - 1))");
+        interpreted = (ComplexNumber) evaluate(new SymbolTable(7), "montecarlo(3000, u, Re(sqrt(u - 1)) + Im(sqrt(u - 1)))");
+        assertEquals(0.0, compiled.real(), 1e-12);
+        assertEquals(interpreted.imaginary(), compiled.imaginary(), 1e-12);
+        assertEquals(2.0 / 3.0, compiled.imaginary(), 0.05);
+    }
+
+    @Test
+    public void testMonteCarloBudget() throws ParseException {
+        // An expensive compiled expression is evaluated by small blocks, so the budget stops it soon after it is exceeded.
+        var symbolTable = new SymbolTable(3);
+        symbolTable.setEvaluationContext(EvaluationContext.withStepBudget(100));
+        var start = System.nanoTime();
+        assertThrows(EvaluationCancelledException.class,
+                () -> evaluate(symbolTable, "montecarlo(100000, u, " + "sin(".repeat(500) + "u" + ")".repeat(500) + ")"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(symbolTable.getEvaluationContext().getSteps() <= 200);
+    }
+
+    @Test
+    public void testArrays() throws ParseException {
+        var uniform = (ComplexArray) evaluate(new SymbolTable(1), "random_array(1000, -2, 3)");
+        assertEquals(1000, uniform.length());
+        for (int i = 0; i < uniform.length(); i++) {
+            assertTrue(uniform.getReal(i) >= -2 && uniform.getReal(i) < 3);
+            assertEquals(0.0, uniform.getImaginary(i), 0.0);
+        }
+        assertArrayEquals(uniform.realArray(), ((ComplexArray) evaluate(new SymbolTable(1), "random_array(1000, -2, 3)")).realArray(), 0.0);
+
+        var integers = (ComplexArray) evaluate(new SymbolTable(1), "rand_int_array(1000, 1, 7)");
+        for (int i = 0; i < integers.length(); i++) {
+            var value = integers.getReal(i);
+            assertTrue(value >= 1 && value < 7 && value == Math.rint(value));
+        }
+
+        var normal = (ComplexArray) evaluate(new SymbolTable(1), "normal_array(10001, 5, 2)");
+        double sum = 0.0;
+        for (int i = 0; i < normal.length(); i++) {
+            sum += normal.getReal(i);
+        }
+        assertEquals(5.0, sum / normal.length(), 0.1);
+
+        var constant = (ComplexArray) evaluate(new SymbolTable(1), "normal_array(3, 1, 0) * 2");
+        assertArrayEquals(new double[] {2, 2, 2}, constant.realArray(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> evaluate(new SymbolTable(), "rand_int_array(10)"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate(new SymbolTable(), "random_array(10, 1, 1)"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate(new SymbolTable(), "normal_array(-1)"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate(new SymbolTable(), "random_array(100000000)"));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.BuiltinSymbols;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+import dev.lambdaurora.calcium.symbol.Variable;
+import org.junit.Test;
+
+import java.text.ParseException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class SymbolTableTests {
+    private static Value evaluate(SymbolTable symbolTable, String expression) throws ParseException {
+        return symbolTable.evaluateExpression(new Parser(new Lexer(expression)).parseExpression());
+    }
+
+    private static double[] draw(SymbolTable symbolTable, int count) {
+        var values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = symbolTable.getRandom().nextDouble();
+        }
+        return values;
+    }
+
+    @Test
+    public void testBuiltins() throws ParseException {
+        var first = new SymbolTable();
+        var second = new SymbolTable();
+
+        assertSame(BuiltinSymbols.getConstant("pi"), first.getVariable("pi"));
+        assertSame(first.getVariable("pi"), second.getVariable("pi"));
+        assertSame(first.getFunction("sin"), second.getFunction("sin"));
+
+        assertThrows(UnsupportedOperationException.class, () -> BuiltinSymbols.getConstants().put("tau", new Variable("tau", null, true)));
+        assertThrows(UnsupportedOperationException.class, () -> BuiltinSymbols.getFunctions().remove("sin"));
+        assertThrows(IllegalStateException.class, () -> first.setVariable("pi", new ComplexNumber(3)));
+        assertThrows(IllegalStateException.class, () -> first.setFunction("sin", first.getFunction("cos")));
+        assertEquals(new ComplexNumber(Math.PI), evaluate(second, "pi"));
+    }
+
+    @Test
+    public void testShadowing() throws ParseException {
+        var symbolTable = new SymbolTable();
+
+        // Variables and functions have separate names, a variable may be named like a built-in function.
+        symbolTable.setVariable("sin", new ComplexNumber(2));
+        assertEquals(new ComplexNumber(Math.sin(2)), evaluate(symbolTable, "sin(sin)"));
+        assertNull(new SymbolTable().getVariable("sin"));
+
+        // The user-defined symbols do not leak into the built-in registry, nor to the other symbol tables.
+        symbolTable.setVariable("x", new ComplexNumber(4));
+        assertNull(BuiltinSymbols.getConstant("x"));
+        symbolTable.clear();
+        assertNull(symbolTable.getVariable("x"));
+        assertEquals(new ComplexNumber(Math.E), evaluate(symbolTable, "e"));
+    }
+
+    @Test
+    public void testCopy() throws ParseException {
+        var symbolTable = new SymbolTable();
+        symbolTable.setVariable("x", new ComplexNumber(1));
+
+        var copy = symbolTable.copy();
+        assertEquals(new ComplexNumber(1), evaluate(copy, "x"));
+
+        evaluate(copy, "x = 2");
+        evaluate(copy, "y = 3");
+        assertEquals(new ComplexNumber(1), evaluate(symbolTable, "x"));
+        assertNull(symbolTable.getVariable("y"));
+
+        symbolTable.setVariable("x", new ComplexNumber(5));
+        assertEquals(new ComplexNumber(2), evaluate(copy, "x"));
+    }
+
+    @Test
+    public void testSeed() throws ParseException {
+        assertArrayEquals(draw(new SymbolTable(42), 100), draw(new SymbolTable(42), 100), 0.0);
+
+        var seeded = new SymbolTable();
+        seeded.setSeed(42);
+        assertArrayEquals(draw(new SymbolTable(42), 100), draw(seeded, 100), 0.0);
+
+        var first = (ComplexNumber) evaluate(new SymbolTable(7), "random() + 10 * rand_int(100)");
+        assertEquals(first, evaluate(new SymbolTable(7), "random() + 10 * rand_int(100)"));
+        assertNotEquals(first, evaluate(new SymbolTable(8), "random() + 10 * rand_int(100)"));
+    }
+
+    @Test
+    public void testSplit() {
+        var parent = new SymbolTable(42);
+        var copy = parent.copy();
+
+        // The copy gets a generator split from the parent: a different stream, still reproducible from the seed.
+        var copyValues = draw(copy, 100);
+        var parentValues = draw(parent, 100);
+        assertNotEquals(parentValues[0], copyValues[0], 0.0);
+
+        var otherParent = new SymbolTable(42);
+        var otherCopy = otherParent.copy();
+        assertArrayEquals(copyValues, draw(otherCopy, 100), 0.0);
+        assertArrayEquals(parentValues, draw(otherParent, 100), 0.0);
+
+        // Splitting advances the parent, so two copies do not share a stream.
+        assertNotEquals(draw(parent.copy(), 1)[0], draw(parent.copy(), 1)[0], 0.0);
+    }
+}
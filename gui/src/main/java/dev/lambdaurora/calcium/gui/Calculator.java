@@ -17,6 +17,8 @@
 
 package dev.lambdaurora.calcium.gui;
 
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
 import dev.lambdaurora.calcium.parser.Lexer;
 import dev.lambdaurora.calcium.parser.Parser;
 import dev.lambdaurora.calcium.parser.token.UnknownTokenException;
@@ -26,9 +28,14 @@ import javax.swing.*;
 import javax.swing.text.BadLocationException;
 import java.awt.*;
 import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
 
 public class Calculator {
     public static final Font IO_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 14);
+    /**
+     * The time budget of an evaluation in seconds, evaluations run on the event dispatch thread.
+     */
+    private static final long EVALUATION_TIME_BUDGET = 10;
 
     private final SymbolTable symbolTable = new SymbolTable();
     private final ExpressionHistory history = new ExpressionHistory();
@@ -154,8 +161,9 @@ public class Calculator {
         try {
             var parser = new Parser(new Lexer(expressionString));
 
-            var expression = parser.parseExpression();
+            var expression = ExpressionOptimizer.optimize(parser.parseExpression());
 
+            this.symbolTable.setEvaluationContext(EvaluationContext.withTimeBudget(EVALUATION_TIME_BUDGET, TimeUnit.SECONDS));
             var result = this.symbolTable.evaluateExpression(expression);
 
             this.outputMode.print(this, result);
@@ -18,24 +18,51 @@
 package dev.lambdaurora.calcium.gui.component;
 
 import dev.lambdaurora.calcium.expression.Expression;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
 import dev.lambdaurora.calcium.gui.Calculator;
 import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.math.GraphSnapshot;
+import dev.lambdaurora.calcium.math.MathPolicy;
 import dev.lambdaurora.calcium.parser.Lexer;
 import dev.lambdaurora.calcium.parser.Parser;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ItemEvent;
 import java.text.ParseException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
  * An interactive graph panel, includes a {@link GraphViewerPanel} and controls.
+ * <p>
+ * The graph is computed on a background thread: the controls submit changes which are applied in batch before
+ * the next computation, superseding the computation in progress, and the viewer displays the last published snapshot.
  */
 public class GraphPanel extends JPanel {
     private final InteractiveGraph graph;
     private final JTextField expressionField;
+    private final JLabel feedbackLabel;
     private final GraphViewerPanel viewer;
+    private JSpinner yMinSpinner;
+    private JCheckBox yMinCheckbox;
+    private JSpinner yMaxSpinner;
+    private JCheckBox yMaxCheckbox;
+    private boolean yBoundsSeeded = false;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "Graph Computation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Consumer<Graph>> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
 
     /**
      * Returns a new {@linkplain GraphPanel} instance.
@@ -50,9 +77,83 @@ public class GraphPanel extends JPanel {
         super(new GridBagLayout());
         this.graph = new InteractiveGraph(xMin, xMax, step, expression);
         this.expressionField = new JTextField(expressionString);
-        this.viewer = new GraphViewerPanel(this.graph);
+        this.feedbackLabel = new JLabel("Computing...");
+        this.viewer = new GraphViewerPanel(GraphSnapshot.empty(xMin, xMax));
 
         this.init();
+        this.submit(graph -> {
+        });
+    }
+
+    /**
+     * Submits a change to the graph, the graph is then computed again in the background.
+     * <p>
+     * The computation in progress, if any, is cancelled as its result would be immediately replaced.
+     * Changes submitted in quick succession are coalesced into a single computation.
+     *
+     * @param change the change to apply to the graph on the computation thread
+     */
+    private void submit(Consumer<Graph> change) {
+        // Cancel before queueing, so the cancelled computation can never be the one which includes this change.
+        this.graph.cancel();
+        this.pendingChanges.add(change);
+        if (this.scheduled.compareAndSet(false, true))
+            this.executor.execute(this::computePending);
+    }
+
+    private void computePending() {
+        try {
+            while (!this.pendingChanges.isEmpty()) {
+                try {
+                    this.graph.recompute(this.pendingChanges);
+                } catch (RuntimeException e) {
+                    this.publishFeedback(Color.RED, e.getMessage());
+                    continue;
+                }
+
+                // A newer change superseded this computation, don't bother displaying it.
+                if (this.pendingChanges.isEmpty()) {
+                    var snapshot = this.graph.snapshot();
+                    this.viewer.setSnapshot(snapshot);
+                    SwingUtilities.invokeLater(() -> this.seedYBounds(snapshot));
+                    this.publishFeedback(Color.BLACK, "Took " + this.graph.getComputeTime() + "ms.");
+                }
+            }
+        } finally {
+            this.scheduled.set(false);
+        }
+
+        // A change may have been queued after the queue was last seen empty, but before the flag was cleared.
+        if (!this.pendingChanges.isEmpty() && this.scheduled.compareAndSet(false, true))
+            this.executor.execute(this::computePending);
+    }
+
+    /**
+     * Seeds the Y bounds controls from the range of the first computed graph, the viewer starts with an empty graph.
+     *
+     * @param snapshot the published snapshot
+     */
+    private void seedYBounds(GraphSnapshot snapshot) {
+        if (this.yBoundsSeeded || !Double.isFinite(snapshot.getMinValue()) || !Double.isFinite(snapshot.getMaxValue()))
+            return;
+        this.yBoundsSeeded = true;
+
+        // Setting a spinner goes through the viewer setter which enables the user-defined bound, hence the reset.
+        if (!this.yMinCheckbox.isSelected()) {
+            this.yMinSpinner.setValue(snapshot.getMinValue());
+            this.viewer.setUserDefinedYMin(false);
+        }
+        if (!this.yMaxCheckbox.isSelected()) {
+            this.yMaxSpinner.setValue(snapshot.getMaxValue());
+            this.viewer.setUserDefinedYMax(false);
+        }
+    }
+
+    private void publishFeedback(Color color, String message) {
+        SwingUtilities.invokeLater(() -> {
+            this.feedbackLabel.setForeground(color);
+            this.feedbackLabel.setText(message);
+        });
     }
 
     private void init() {
@@ -65,6 +166,16 @@ public class GraphPanel extends JPanel {
         c.gridheight = 1;
 
         this.add(this.viewer, c);
+        this.viewer.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                var viewer = GraphPanel.this.viewer;
+                int width = viewer.getWidth();
+                int height = viewer.getHeight();
+                if (width > 0 && height > 0)
+                    GraphPanel.this.submit(graph -> graph.setResolution(width, height));
+            }
+        });
 
         var controlsPanel = new JPanel(new GridBagLayout());
         var controlsConstraints = (GridBagConstraints) c.clone();
@@ -86,19 +197,22 @@ public class GraphPanel extends JPanel {
         var numbersInputPanel = new JPanel(new SpringLayout());
 
         numbersInputPanel.add(new JLabel("X min: ", JLabel.TRAILING));
-        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getXMin(), null, 1.0, this.graph::setXMin));
+        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getXMin(), null, 1.0,
+                value -> this.submit(graph -> graph.setXMin(value))));
 
         numbersInputPanel.add(new JLabel("X max: ", JLabel.TRAILING));
-        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getXMax(), null, 1.0, this.graph::setXMax));
+        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getXMax(), null, 1.0,
+                value -> this.submit(graph -> graph.setXMax(value))));
 
         numbersInputPanel.add(new JLabel("Step: ", JLabel.TRAILING));
-        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getStep(), 1E-16, 0.05, this.graph::setStep));
+        numbersInputPanel.add(this.makeSpinnerFor(this.graph.getStep(), 1E-16, 0.05,
+                value -> this.submit(graph -> graph.setStep(value))));
 
         numbersInputPanel.add(new JLabel("Y min: ", JLabel.TRAILING));
-        var yMinSpinner = this.makeSpinnerFor(this.viewer.getYMin(), null, 1.0, this.viewer::setYMin);
+        var yMinSpinner = this.yMinSpinner = this.makeSpinnerFor(this.viewer.getYMin(), null, 1.0, this.viewer::setYMin);
         yMinSpinner.setEnabled(false);
         numbersInputPanel.add(yMinSpinner);
-        var yMinCheckbox = new JCheckBox();
+        var yMinCheckbox = this.yMinCheckbox = new JCheckBox();
         yMinCheckbox.addChangeListener(e -> {
             this.viewer.setUserDefinedYMin(yMinCheckbox.isSelected());
             yMinSpinner.setEnabled(yMinCheckbox.isSelected());
@@ -106,10 +220,10 @@ public class GraphPanel extends JPanel {
         numbersInputPanel.add(yMinCheckbox);
 
         numbersInputPanel.add(new JLabel("Y max: ", JLabel.TRAILING));
-        var yMaxSpinner = this.makeSpinnerFor(this.viewer.getYMax(), null, 1.0, this.viewer::setYMax);
+        var yMaxSpinner = this.yMaxSpinner = this.makeSpinnerFor(this.viewer.getYMax(), null, 1.0, this.viewer::setYMax);
         yMaxSpinner.setEnabled(false);
         numbersInputPanel.add(yMaxSpinner);
-        var yMaxCheckbox = new JCheckBox();
+        var yMaxCheckbox = this.yMaxCheckbox = new JCheckBox();
         yMaxCheckbox.addChangeListener(e -> {
             this.viewer.setUserDefinedYMax(yMaxCheckbox.isSelected());
             yMaxSpinner.setEnabled(yMaxCheckbox.isSelected());
@@ -121,7 +235,7 @@ public class GraphPanel extends JPanel {
     }
 
     private JPanel buildExpressionPanel() {
-        var feedbackLabel = new JLabel("Took " + graph.getComputeTime() + "ms.");
+        var feedbackLabel = this.feedbackLabel;
         feedbackLabel.setFont(Calculator.IO_FONT);
         feedbackLabel.setForeground(Color.BLACK);
 
@@ -131,11 +245,9 @@ public class GraphPanel extends JPanel {
             try {
                 var parser = new Parser(new Lexer(this.expressionField.getText()));
 
-                var expression = parser.parseExpression();
+                var expression = ExpressionOptimizer.optimize(parser.parseExpression());
 
-                this.graph.setExpression(expression);
-                feedbackLabel.setForeground(Color.BLACK);
-                feedbackLabel.setText("Took " + graph.getComputeTime() + "ms.");
+                this.submit(graph -> graph.setExpression(expression));
             } catch (ParseException | RuntimeException e) {
                 feedbackLabel.setForeground(Color.RED);
                 feedbackLabel.setText(e.getMessage());
@@ -161,9 +273,26 @@ public class GraphPanel extends JPanel {
         submitButton.addActionListener(submitAction);
         expressionPanel.add(submitButton, c);
 
+        c.gridx = 3;
+        var fastMathCheckbox = new JCheckBox("Fast math");
+        fastMathCheckbox.addItemListener(e -> {
+            var policy = e.getStateChange() == ItemEvent.SELECTED ? MathPolicy.FAST : MathPolicy.EXACT;
+            this.submit(graph -> graph.setMathPolicy(policy));
+        });
+        expressionPanel.add(fastMathCheckbox, c);
+
+        c.gridx = 4;
+        var adaptiveCheckbox = new JCheckBox("Adaptive");
+        adaptiveCheckbox.setToolTipText("Samples more where the curve bends, ignoring the step.");
+        adaptiveCheckbox.addItemListener(e -> {
+            var adaptive = e.getStateChange() == ItemEvent.SELECTED;
+            this.submit(graph -> graph.setAdaptive(adaptive));
+        });
+        expressionPanel.add(adaptiveCheckbox, c);
+
         c.gridx = 0;
         c.gridy = 1;
-        c.gridwidth = 3;
+        c.gridwidth = 5;
         expressionPanel.add(feedbackLabel, c);
 
         return expressionPanel;
@@ -257,13 +386,40 @@ public class GraphPanel extends JPanel {
         pCons.setConstraint(SpringLayout.EAST, x);
     }
 
-    class InteractiveGraph extends Graph {
+    /**
+     * Represents the graph of this panel, confined to the computation thread once built.
+     * <p>
+     * The graph is only computed by {@link #recompute(Queue)}, so that the setters only record the changes.
+     */
+    static class InteractiveGraph extends Graph {
         private long computeTime = 0L;
+        private boolean computing;
 
         public InteractiveGraph(double xMin, double xMax, double step, Expression expression) {
             super(xMin, xMax, step, expression);
         }
 
+        /**
+         * Applies the given pending changes, then computes the graph once.
+         *
+         * @param changes the pending changes
+         */
+        void recompute(Queue<Consumer<Graph>> changes) {
+            Consumer<Graph> change;
+            while ((change = changes.poll()) != null) {
+                change.accept(this);
+            }
+
+            var start = System.nanoTime();
+            this.computing = true;
+            try {
+                super.compute();
+            } finally {
+                this.computing = false;
+                this.computeTime = (System.nanoTime() - start) / 1_000_000;
+            }
+        }
+
         /**
          * Returns the time it took to compute the graph in milliseconds.
          *
@@ -275,11 +431,9 @@ public class GraphPanel extends JPanel {
 
         @Override
         protected void compute() {
-            var start = System.currentTimeMillis();
-            super.compute();
-            this.computeTime = System.currentTimeMillis() - start;
-            if (GraphPanel.this.viewer != null)
-                GraphPanel.this.viewer.repaint();
+            // Deferred to the next recompute, this also skips the computation done by the constructor.
+            if (this.computing)
+                super.compute();
         }
     }
 }
@@ -18,7 +18,7 @@
 package dev.lambdaurora.calcium.gui.component;
 
 
-import dev.lambdaurora.calcium.math.Graph;
+import dev.lambdaurora.calcium.math.GraphSnapshot;
 import dev.lambdaurora.calcium.math.MathHelper;
 
 import javax.swing.*;
@@ -33,17 +33,41 @@ public class GraphViewerPanel extends JPanel {
     private static final Stroke GRAPH_STROKE = new BasicStroke(2f);
     private static final double ZERO_EPSILON = 1E-8;
 
-    private final Graph graph;
+    private volatile GraphSnapshot snapshot;
+    private GraphSnapshot levelOfDetailSource;
+    private int levelOfDetailColumns;
+    private GraphSnapshot levelOfDetail;
     private int padding = 25;
     private double yMin;
     private boolean useUserDefinedYMin = false;
     private double yMax;
     private boolean useUserDefinedYMax = false;
 
-    public GraphViewerPanel(Graph graph) {
-        this.graph = graph;
-        this.yMin = graph.getMinValue();
-        this.yMax = graph.getMaxValue();
+    public GraphViewerPanel(GraphSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.yMin = snapshot.getMinValue();
+        this.yMax = snapshot.getMaxValue();
+    }
+
+    /**
+     * Returns the displayed snapshot of the graph.
+     *
+     * @return the displayed snapshot
+     */
+    public GraphSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Sets the snapshot of the graph to display and repaints this viewer.
+     * <p>
+     * This method may be called from any thread.
+     *
+     * @param snapshot the snapshot to display
+     */
+    public void setSnapshot(GraphSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.repaint();
     }
 
     /**
@@ -52,10 +76,14 @@ public class GraphViewerPanel extends JPanel {
      * @return the minimum Y-coordinate
      */
     public double getYMin() {
+        return this.getYMin(this.snapshot);
+    }
+
+    private double getYMin(GraphSnapshot snapshot) {
         if (this.useUserDefinedYMin)
             return this.yMin;
         else
-            return this.graph.getMinValue();
+            return snapshot.getMinValue();
     }
 
     /**
@@ -84,10 +112,14 @@ public class GraphViewerPanel extends JPanel {
      * @return the maximum Y-coordinate
      */
     public double getYMax() {
+        return this.getYMax(this.snapshot);
+    }
+
+    private double getYMax(GraphSnapshot snapshot) {
         if (this.useUserDefinedYMax)
             return this.yMax;
         else
-            return this.graph.getMaxValue();
+            return snapshot.getMaxValue();
     }
 
     /**
@@ -114,77 +146,103 @@ public class GraphViewerPanel extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
+        var snapshot = this.snapshot;
         var g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         var graphWidth = this.getWidth() - 2 * this.padding;
         var graphHeight = this.getHeight() - 2 * this.padding;
 
-        double xScale = graphWidth / this.graph.getXAxisLength();
-        double yScale = graphHeight / (this.getYMax() - this.getYMin());
+        var yMin = this.getYMin(snapshot);
+        var yMax = this.getYMax(snapshot);
+
+        double xScale = graphWidth / snapshot.getXAxisLength();
+        double yScale = graphHeight / (yMax - yMin);
 
         // Background
         g2.setColor(Color.WHITE);
         g2.fillRect(this.padding, this.padding, graphWidth, graphHeight);
 
-        this.paintGrid(g2, graphWidth, graphHeight, xScale, yScale);
+        this.paintGrid(g2, snapshot, graphWidth, graphHeight, xScale, yScale);
 
         final var oldStroke = g2.getStroke();
         g2.setColor(LINE_COLOR);
         g2.setStroke(GRAPH_STROKE);
 
-        var xOffset = -this.graph.getXMin();
-        var yOffset = -this.getYMin();
+        var xOffset = -snapshot.getXMin();
+        var yOffset = -yMin;
 
-        var firstX = this.graph.getFirstX();
-        var lastPoint = new double[]{firstX, this.graph.getFirstValue()};
-        this.graph.forEach((x2, y2) -> {
-            if (x2 == firstX)
-                return;
+        var points = this.getLevelOfDetail(snapshot, graphWidth);
+        var lastX = points.getFirstX();
+        var lastY = points.getFirstValue();
+        for (int i = 1; i < points.getPointCount(); i++) {
+            var x2 = points.getX(i);
+            var y2 = points.getY(i);
 
-            var x1 = lastPoint[0];
-            var y1 = MathHelper.clamp(lastPoint[1], this.getYMin(), this.getYMax());
+            var x1 = lastX;
+            var y1 = MathHelper.clamp(lastY, yMin, yMax);
 
-            lastPoint[0] = x2;
-            var clampedY2 = MathHelper.clamp(y2, this.getYMin(), this.getYMax());
+            lastX = x2;
+            var clampedY2 = MathHelper.clamp(y2, yMin, yMax);
 
-            if ((y1 != lastPoint[1] || Double.isInfinite(y2) && y1 == clampedY2)
-                    && (clampedY2 != y2 || Double.isInfinite(lastPoint[1]) && y1 == clampedY2)) {
-                lastPoint[1] = y2;
-                return;
+            if ((y1 != lastY || Double.isInfinite(y2) && y1 == clampedY2)
+                    && (clampedY2 != y2 || Double.isInfinite(lastY) && y1 == clampedY2)) {
+                lastY = y2;
+                continue;
             }
 
-            lastPoint[1] = y2;
+            lastY = y2;
 
             y2 = clampedY2;
 
             if (y2 == Double.POSITIVE_INFINITY) {
-                y2 = this.getYMin();
+                y2 = yMin;
                 if (y1 == y2)
-                    return;
+                    continue;
             } else if (y2 == Double.NEGATIVE_INFINITY) {
-                y2 = this.getYMax();
+                y2 = yMax;
                 if (y1 == y2)
-                    return;
+                    continue;
             }
             if (y1 == Double.POSITIVE_INFINITY) {
-                y1 = this.getYMax();
+                y1 = yMax;
                 if (y1 == y2)
-                    return;
+                    continue;
             }
 
             if (Double.isNaN(y1) || Double.isNaN(y2))
-                return;
+                continue;
 
             g2.drawLine((int) (this.padding + (xOffset + x1) * xScale),
                     (int) (this.padding + graphHeight - (yOffset + y1) * yScale),
                     (int) (this.padding + (xOffset + x2) * xScale),
                     (int) (this.padding + graphHeight - (yOffset + y2) * yScale));
-        });
+        }
 
         g2.setStroke(oldStroke);
     }
 
+    /**
+     * Returns the points of the given snapshot to draw on the given width, reduced to a few points per pixel column.
+     * <p>
+     * The reduction is cached until the snapshot or the width changes, so repainting doesn't depend on the number of points.
+     *
+     * @param snapshot the displayed snapshot
+     * @param graphWidth the width of the graph in pixels
+     * @return the points to draw
+     */
+    private GraphSnapshot getLevelOfDetail(GraphSnapshot snapshot, int graphWidth) {
+        if (graphWidth <= 0)
+            return snapshot;
+
+        if (this.levelOfDetailSource != snapshot || this.levelOfDetailColumns != graphWidth) {
+            this.levelOfDetail = snapshot.downsample(graphWidth);
+            this.levelOfDetailSource = snapshot;
+            this.levelOfDetailColumns = graphWidth;
+        }
+        return this.levelOfDetail;
+    }
+
     protected double calculateInterval(double range) {
         double x = Math.pow(10.0, Math.floor(Math.log10(range)));
         if (range / x >= 5)
@@ -199,26 +257,29 @@ public class GraphViewerPanel extends JPanel {
      * Paints the grid.
      *
      * @param g the graphics instance
+     * @param snapshot the displayed snapshot of the graph
      * @param graphWidth the width of the graph
      * @param graphHeight the height of the graph
      * @param xScale the X scale
      * @param yScale the Y scale
      */
-    protected void paintGrid(Graphics2D g, int graphWidth, int graphHeight, double xScale, double yScale) {
-        var xOffset = -this.graph.getXMin();
-        var yOffset = -this.getYMin();
+    protected void paintGrid(Graphics2D g, GraphSnapshot snapshot, int graphWidth, int graphHeight, double xScale, double yScale) {
+        var xOffset = -snapshot.getXMin();
+        var yMin = this.getYMin(snapshot);
+        var yMax = this.getYMax(snapshot);
+        var yOffset = -yMin;
 
         var xAxis = this.padding + graphHeight;
-        if (this.getYMin() < 0.0) {
-            if (this.getYMax() < 0.0)
+        if (yMin < 0.0) {
+            if (yMax < 0.0)
                 xAxis = this.padding;
             else
                 xAxis = (int) (this.padding + graphHeight - yOffset * yScale);
         }
 
         var yAxis = this.padding;
-        if (this.graph.getXMin() < 0.0) {
-            if (this.graph.getXMax() < 0.0)
+        if (snapshot.getXMin() < 0.0) {
+            if (snapshot.getXMax() < 0.0)
                 yAxis = this.padding + graphWidth;
             else
                 yAxis = (int) (this.padding + xOffset * xScale);
@@ -228,17 +289,15 @@ public class GraphViewerPanel extends JPanel {
         g.setColor(GRID_COLOR);
 
         // X
-        var xInterval = this.calculateInterval(this.graph.getXMax() - this.graph.getXMin());
-        for (double x = this.graph.getXMin(); x <= this.graph.getXMax(); x += xInterval) {
+        var xInterval = this.calculateInterval(snapshot.getXAxisLength());
+        for (double x = snapshot.getXMin(); x <= snapshot.getXMax(); x += xInterval) {
             this.paintXTick(g, graphHeight, xScale, xOffset, x, xAxis);
         }
 
         // Y
-        var yMin = this.getYMin();
-        var yMax = this.getYMax();
         var yInterval = this.calculateInterval(yMax - yMin);
         for (double y = yMin; y <= yMax; y += yInterval) {
-            this.paintYTick(g, graphWidth, graphHeight, yScale, yOffset, y, yAxis);
+            this.paintYTick(g, snapshot, graphWidth, graphHeight, yScale, yOffset, y, yAxis);
         }
 
         // Draw axis.
@@ -296,14 +355,14 @@ public class GraphViewerPanel extends JPanel {
         g.drawString(labelName, labelX, xAxis + metrics.getHeight());
     }
 
-    private void paintYTick(Graphics2D g, int graphWidth, int graphHeight, double yScale, double yOffset, double y, int yAxis) {
+    private void paintYTick(Graphics2D g, GraphSnapshot snapshot, int graphWidth, int graphHeight, double yScale, double yOffset, double y, int yAxis) {
         if (y < ZERO_EPSILON && y > -ZERO_EPSILON) y = 0.0;
         var labelName = this.prettifyLabel(String.valueOf(y));
 
         if (y == Double.POSITIVE_INFINITY)
-            y = this.graph.getMaxValue();
+            y = snapshot.getMaxValue();
         else if (y == Double.NEGATIVE_INFINITY)
-            y = this.graph.getMinValue();
+            y = snapshot.getMinValue();
 
         int lineY = (int) (this.padding + graphHeight - (yOffset + y) * yScale);
 
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.lambdaurora.calcium.Value;
+import dev.lambdaurora.calcium.evaluation.EvaluationCancelledException;
+import dev.lambdaurora.calcium.evaluation.EvaluationContext;
+import dev.lambdaurora.calcium.evaluation.EvaluationScheduler;
+import dev.lambdaurora.calcium.expression.ExpressionOptimizer;
+import dev.lambdaurora.calcium.math.ComplexNumber;
+import dev.lambdaurora.calcium.parser.Lexer;
+import dev.lambdaurora.calcium.parser.Parser;
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents a local HTTP/JSON evaluation server.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /sessions} creates a session and responds {@code {"session": "<id>"}};</li>
+ *     <li>{@code DELETE /sessions/<id>} removes a session;</li>
+ *     <li>{@code POST /evaluate} evaluates {@code {"expression": "..."}}, or a pipelined batch
+ *     {@code {"expressions": ["...", "..."]}} in order, optionally in the session given as {@code "session"}.</li>
+ * </ul>
+ * Each result is either {@code {"value": "...", "real": ..., "imaginary": ...}} or {@code {"error": "..."}}.
+ * Without a session, the expressions of a request share a new symbol table.
+ * <p>
+ * The expressions of a request share a time budget, an expression still running once it is exceeded gives an error.
+ * An evaluation which does not stop within a grace delay after the budget is abandoned: the remaining expressions
+ * of the request give an error, and the session of the request, which the evaluation may still use, is closed.
+ * <p>
+ * The requests are parsed on the request threads, while the evaluations run on an {@link EvaluationScheduler},
+ * which bounds the number of queued evaluations and lets the cheap ones overtake the expensive ones.
+ * An expression rejected by the full queue gives an error.
+ */
+public class EvaluationServer {
+    private static final int MAX_BODY_SIZE = 1 << 20;
+    // Delay after the time budget before an evaluation is abandoned, covering the wait in the queue.
+    private static final long ABANDON_GRACE_MILLIS = 1000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final EvaluationScheduler scheduler;
+    private final SessionManager sessions;
+    private final ScheduledExecutorService expirer;
+    private final long evaluationTimeoutMillis;
+
+    /**
+     * Creates a new evaluation server.
+     *
+     * @param address the address to bind to
+     * @param executor the executor running the requests
+     * @param scheduler the scheduler running the evaluations
+     * @param sessionTimeoutMillis the time in milliseconds after which an unused session expires
+     * @param maxSessions the maximum number of sessions
+     * @param evaluationTimeoutMillis the time budget in milliseconds of the evaluations of a request, or {@code 0} for no budget
+     * @throws IOException if the server cannot be bound
+     */
+    public EvaluationServer(InetSocketAddress address, ExecutorService executor, EvaluationScheduler scheduler,
+                            long sessionTimeoutMillis, int maxSessions, long evaluationTimeoutMillis) throws IOException {
+        if (evaluationTimeoutMillis < 0)
+            throw new IllegalArgumentException("The evaluation timeout (" + evaluationTimeoutMillis + ") cannot be negative.");
+
+        this.server = HttpServer.create(address, 0);
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.evaluationTimeoutMillis = evaluationTimeoutMillis;
+        this.sessions = new SessionManager(sessionTimeoutMillis, maxSessions);
+        this.expirer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "Calcium session expirer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server.setExecutor(executor);
+        this.server.createContext("/sessions", this::handleSessions);
+        this.server.createContext("/evaluate", this::handleEvaluate);
+
+        long period = Math.max(1000, sessionTimeoutMillis / 4);
+        this.expirer.scheduleAtFixedRate(() -> this.sessions.expire(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the address the server is bound to.
+     *
+     * @return the address
+     */
+    public InetSocketAddress getAddress() {
+        return this.server.getAddress();
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * Stops the server, waiting at most the given delay for the exchanges in progress.
+     *
+     * @param delay the delay in seconds
+     */
+    public void stop(int delay) {
+        this.server.stop(delay);
+        this.expirer.shutdownNow();
+        this.executor.shutdown();
+        this.scheduler.close();
+    }
+
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // The session endpoints take no body, it is drained so the connection stays usable
+            // instead of being closed silently once the response is sent.
+            exchange.getRequestBody().close();
+
+            var path = exchange.getRequestURI().getPath();
+            var id = path.length() > "/sessions/".length() ? path.substring("/sessions/".length()) : null;
+
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> {
+                    if (id != null) {
+                        sendError(exchange, 404, "Not found.");
+                        return;
+                    }
+                    try {
+                        var session = this.sessions.create();
+                        send(exchange, 201, Json.appendString(new StringBuilder("{\"session\":"), session).append('}'));
+                    } catch (IllegalStateException e) {
+                        sendError(exchange, 503, e.getMessage());
+                    }
+                }
+                case "DELETE" -> {
+                    if (id != null && this.sessions.remove(id)) {
+                        exchange.sendResponseHeaders(204, -1);
+                    } else {
+                        sendError(exchange, 404, "Unknown session.");
+                    }
+                }
+                default -> sendError(exchange, 405, "Method not allowed.");
+            }
+        }
+    }
+
+    private void handleEvaluate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Method not allowed.");
+                return;
+            }
+
+            var body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+            if (body.length > MAX_BODY_SIZE) {
+                sendError(exchange, 413, "Request too large.");
+                return;
+            }
+
+            Map<?, ?> request;
+            try {
+                if (!(Json.parse(new String(body, StandardCharsets.UTF_8)) instanceof Map<?, ?> object))
+                    throw new IllegalArgumentException("Expected a JSON object.");
+                request = object;
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+
+            List<?> expressions;
+            boolean batch = request.containsKey("expressions");
+            if (batch && request.get("expressions") instanceof List<?> list)
+                expressions = list;
+            else if (!batch && request.get("expression") instanceof String expression)
+                expressions = List.of(expression);
+            else {
+                sendError(exchange, 400, "Expected an \"expression\" string or an \"expressions\" array.");
+                return;
+            }
+
+            var response = new StringBuilder();
+            if (request.get("session") instanceof String id) {
+                var session = this.sessions.get(id);
+                if (session == null) {
+                    sendError(exchange, 404, "Unknown session.");
+                    return;
+                }
+
+                session.lock.lock();
+                try {
+                    if (session.abandoned) {
+                        sendError(exchange, 404, "Unknown session.");
+                        return;
+                    }
+                    if (!this.evaluate(response, expressions, session.symbolTable, batch)) {
+                        session.abandoned = true;
+                        this.sessions.remove(id);
+                    }
+                } finally {
+                    session.lock.unlock();
+                }
+            } else if (request.get("session") != null) {
+                sendError(exchange, 400, "The session must be a string.");
+                return;
+            } else {
+                this.evaluate(response, expressions, new SymbolTable(), batch);
+            }
+
+            send(exchange, 200, response);
+        }
+    }
+
+    /**
+     * Evaluates the expressions of a request and appends their results.
+     *
+     * @return {@code true} if the evaluations completed, or {@code false} if one was abandoned and may still use the symbol table
+     */
+    private boolean evaluate(StringBuilder response, List<?> expressions, SymbolTable symbolTable, boolean batch) {
+        EvaluationContext context = null;
+        if (this.evaluationTimeoutMillis != 0) {
+            context = EvaluationContext.withTimeBudget(this.evaluationTimeoutMillis, TimeUnit.MILLISECONDS);
+            symbolTable.setEvaluationContext(context);
+        }
+
+        boolean completed = true;
+        try {
+            if (batch) response.append("{\"results\":[");
+            for (int i = 0; i < expressions.size(); i++) {
+                if (i != 0) response.append(',');
+                if (!completed)
+                    appendError(response, "A previous evaluation of the request was abandoned.");
+                else if (expressions.get(i) instanceof String expression)
+                    completed = this.appendResult(response, expression, symbolTable, context);
+                else
+                    appendError(response, "Expected an expression string.");
+            }
+            if (batch) response.append("]}");
+        } finally {
+            // The budget belongs to this request, the session may be used by the next one.
+            // An abandoned evaluation keeps its cancelled context, so it stops at its next checkpoint.
+            if (completed)
+                symbolTable.setEvaluationContext(null);
+        }
+        return completed;
+    }
+
+    /**
+     * Evaluates an expression and appends its result.
+     *
+     * @return {@code true} if the evaluation completed, or {@code false} if it was abandoned
+     */
+    private boolean appendResult(StringBuilder response, String expression, SymbolTable symbolTable, EvaluationContext context) {
+        Value value;
+        CompletableFuture<Value> future = null;
+        try {
+            var parsed = ExpressionOptimizer.optimize(new Parser(new Lexer(expression)).parseExpression());
+            future = this.scheduler.submit(parsed, symbolTable);
+            if (context == null)
+                value = future.get();
+            else
+                value = future.get(this.evaluationTimeoutMillis + ABANDON_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Skips the job if it is still queued, otherwise stops it at its next checkpoint.
+            future.cancel(false);
+            context.cancel();
+            appendError(response, "The evaluation did not stop after its time budget and was abandoned.");
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future != null) future.cancel(false);
+            if (context != null) context.cancel();
+            appendError(response, "The evaluation was interrupted.");
+            return false;
+        } catch (ExecutionException e) {
+            appendFailure(response, e.getCause());
+            return true;
+        } catch (ParseException e) {
+            appendError(response, e.getClass().getSimpleName() + ": " + e.getMessage() + " (at column " + (e.getErrorOffset() + 1) + ")");
+            return true;
+        } catch (RuntimeException | StackOverflowError e) {
+            // Rejected by the full queue, or failed to parse.
+            appendFailure(response, e);
+            return true;
+        }
+
+        Json.appendString(response.append("{\"value\":"), value.toString());
+        if (value instanceof ComplexNumber complex) {
+            Json.appendNumber(response.append(",\"real\":"), complex.real());
+            Json.appendNumber(response.append(",\"imaginary\":"), complex.imaginary());
+        }
+        response.append('}');
+        return true;
+    }
+
+    private static void appendFailure(StringBuilder response, Throwable failure) {
+        if (failure instanceof EvaluationCancelledException)
+            appendError(response, failure.getMessage());
+        else if (failure instanceof StackOverflowError)
+            // Deeply nested expressions overflow the recursive parser or evaluator, the thread itself is fine.
+            appendError(response, "StackOverflowError: The expression is nested too deeply.");
+        else
+            appendError(response, failure.getClass().getSimpleName() + ": " + failure.getMessage());
+    }
+
+    private static void appendError(StringBuilder response, String message) {
+        Json.appendString(response.append("{\"error\":"), message).append('}');
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        var response = new StringBuilder();
+        appendError(response, message);
+        send(exchange, status, response);
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence response) throws IOException {
+        var bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the kinds of executors which can run the requests of the server.
+ */
+public enum ExecutorFactory {
+    /**
+     * Uses virtual threads if the runtime supports them, otherwise a fixed thread pool.
+     */
+    AUTO("auto") {
+        @Override
+        public ExecutorService create(int threads) {
+            return isVirtualThreadSupported() ? VIRTUAL.create(threads) : FIXED.create(threads);
+        }
+    },
+    /**
+     * Runs each request on a new virtual thread, which requires a runtime supporting them.
+     */
+    VIRTUAL("virtual") {
+        @Override
+        public ExecutorService create(int threads) {
+            try {
+                // Looked up reflectively, as the project targets a runtime which may not have virtual threads.
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads are not supported by this runtime.", e);
+            }
+        }
+    },
+    /**
+     * Runs the requests on a fixed number of platform threads.
+     */
+    FIXED("fixed") {
+        @Override
+        public ExecutorService create(int threads) {
+            return Executors.newFixedThreadPool(threads, threadFactory());
+        }
+    },
+    /**
+     * Runs the requests on platform threads created on demand and reused.
+     */
+    CACHED("cached") {
+        @Override
+        public ExecutorService create(int threads) {
+            return Executors.newCachedThreadPool(threadFactory());
+        }
+    };
+
+    private final String id;
+
+    ExecutorFactory(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the identifier of this executor kind, as given on the command line.
+     *
+     * @return the identifier
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Creates a new executor.
+     *
+     * @param threads the number of threads, for the executors with a fixed number of threads
+     * @return the executor
+     */
+    public abstract ExecutorService create(int threads);
+
+    /**
+     * Returns whether the runtime supports virtual threads.
+     * <p>
+     * The runtime is probed by creating an executor, as a runtime may declare virtual threads
+     * while refusing to create them, like a runtime where they are a preview feature which is not enabled.
+     *
+     * @return {@code true} if virtual threads are supported, otherwise {@code false}
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            VIRTUAL.create(1).shutdown();
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the executor kind of the given identifier.
+     *
+     * @param id the identifier
+     * @return the executor kind
+     * @throws IllegalArgumentException if no executor kind has the given identifier
+     */
+    public static ExecutorFactory byId(String id) {
+        for (var factory : values()) {
+            if (factory.id.equals(id))
+                return factory;
+        }
+        throw new IllegalArgumentException("Unknown executor \"" + id + "\".");
+    }
+
+    private static ThreadFactory threadFactory() {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, "Calcium server worker " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides a minimal JSON reader and writer for the requests and responses of the server.
+ * <p>
+ * Objects are read as {@link Map}s, arrays as {@link List}s, numbers as {@link Double}s.
+ * Objects and arrays may be nested up to {@value #MAX_DEPTH} levels.
+ */
+final class Json {
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int index;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses the given JSON text.
+     *
+     * @param text the JSON text
+     * @return the parsed value
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    static Object parse(String text) {
+        var json = new Json(text);
+        var value = json.readValue();
+        json.skipWhitespace();
+        if (json.index != text.length())
+            throw json.error("Unexpected trailing characters");
+        return value;
+    }
+
+    /**
+     * Appends the given string as a JSON string.
+     *
+     * @param builder the builder
+     * @param string the string
+     * @return the builder
+     */
+    static StringBuilder appendString(StringBuilder builder, String string) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+        return builder.append('"');
+    }
+
+    /**
+     * Appends the given number as a JSON number, or as {@code null} if it is not finite.
+     *
+     * @param builder the builder
+     * @param number the number
+     * @return the builder
+     */
+    static StringBuilder appendNumber(StringBuilder builder, double number) {
+        if (!Double.isFinite(number))
+            return builder.append("null");
+        else if (number == (long) number)
+            return builder.append((long) number);
+        return builder.append(number);
+    }
+
+    private Object readValue() {
+        this.skipWhitespace();
+        if (this.index >= this.text.length())
+            throw this.error("Unexpected end of input");
+
+        char c = this.text.charAt(this.index);
+        if ((c == '{' || c == '[') && this.depth >= MAX_DEPTH)
+            throw this.error("Nested too deeply");
+        return switch (c) {
+            case '{' -> this.readObject();
+            case '[' -> this.readArray();
+            case '"' -> this.readString();
+            case 't' -> this.readLiteral("true", Boolean.TRUE);
+            case 'f' -> this.readLiteral("false", Boolean.FALSE);
+            case 'n' -> this.readLiteral("null", null);
+            default -> this.readNumber();
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        var object = new LinkedHashMap<String, Object>();
+        this.index++;
+        this.skipWhitespace();
+        if (this.consume('}'))
+            return object;
+
+        this.depth++;
+
+        do {
+            this.skipWhitespace();
+            if (this.index >= this.text.length() || this.text.charAt(this.index) != '"')
+                throw this.error("Expected a key");
+            var key = this.readString();
+            this.skipWhitespace();
+            if (!this.consume(':'))
+                throw this.error("Expected ':'");
+            object.put(key, this.readValue());
+            this.skipWhitespace();
+        } while (this.consume(','));
+
+        if (!this.consume('}'))
+            throw this.error("Expected '}'");
+        this.depth--;
+        return object;
+    }
+
+    private List<Object> readArray() {
+        var array = new ArrayList<>();
+        this.index++;
+        this.skipWhitespace();
+        if (this.consume(']'))
+            return array;
+
+        this.depth++;
+        do {
+            array.add(this.readValue());
+            this.skipWhitespace();
+        } while (this.consume(','));
+
+        if (!this.consume(']'))
+            throw this.error("Expected ']'");
+        this.depth--;
+        return array;
+    }
+
+    private String readString() {
+        var builder = new StringBuilder();
+        this.index++;
+        while (this.index < this.text.length()) {
+            char c = this.text.charAt(this.index++);
+            if (c == '"')
+                return builder.toString();
+            else if (c == '\\') {
+                if (this.index >= this.text.length())
+                    break;
+                char escaped = this.text.charAt(this.index++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> builder.append(escaped);
+                    case 'b' -> builder.append('\b');
+                    case 'f' -> builder.append('\f');
+                    case 'n' -> builder.append('\n');
+                    case 'r' -> builder.append('\r');
+                    case 't' -> builder.append('\t');
+                    case 'u' -> {
+                        if (this.index + 4 > this.text.length())
+                            throw this.error("Invalid unicode escape");
+                        try {
+                            builder.append((char) Integer.parseInt(this.text, this.index, this.index + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw this.error("Invalid unicode escape");
+                        }
+                        this.index += 4;
+                    }
+                    default -> throw this.error("Invalid escape character");
+                }
+            } else {
+                builder.append(c);
+            }
+        }
+        throw this.error("Unterminated string");
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!this.text.startsWith(literal, this.index))
+            throw this.error("Unexpected character");
+        this.index += literal.length();
+        return value;
+    }
+
+    private Double readNumber() {
+        int start = this.index;
+        while (this.index < this.text.length() && "+-0123456789.eE".indexOf(this.text.charAt(this.index)) != -1) {
+            this.index++;
+        }
+        try {
+            return Double.valueOf(this.text.substring(start, this.index));
+        } catch (NumberFormatException e) {
+            this.index = start;
+            throw this.error("Unexpected character");
+        }
+    }
+
+    private boolean consume(char c) {
+        if (this.index < this.text.length() && this.text.charAt(this.index) == c) {
+            this.index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (this.index < this.text.length() && Character.isWhitespace(this.text.charAt(this.index))) {
+            this.index++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + this.index + ".");
+    }
+}
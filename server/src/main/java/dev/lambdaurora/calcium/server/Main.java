@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.server;
+
+import dev.lambdaurora.calcium.evaluation.EvaluationScheduler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Starts a local evaluation server.
+ */
+public class Main {
+    public static void main(String[] args) {
+        var host = "127.0.0.1";
+        int port = 8080;
+        var executor = ExecutorFactory.AUTO;
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        // At least two workers, so that an expensive evaluation never holds back the cheap ones.
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int queueCapacity = 1024;
+        long sessionTimeout = 30 * 60;
+        int maxSessions = 100_000;
+        long evaluationTimeout = 10;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-h", "--help" -> {
+                        printHelp();
+                        return;
+                    }
+                    case "--host" -> host = nextArgument(args, ++i);
+                    case "-p", "--port" -> port = Integer.parseInt(nextArgument(args, ++i));
+                    case "-e", "--executor" -> executor = ExecutorFactory.byId(nextArgument(args, ++i));
+                    case "-t", "--threads" -> threads = Integer.parseInt(nextArgument(args, ++i));
+                    case "-w", "--workers" -> workers = Integer.parseInt(nextArgument(args, ++i));
+                    case "--queue" -> queueCapacity = Integer.parseInt(nextArgument(args, ++i));
+                    case "--session-timeout" -> sessionTimeout = Long.parseLong(nextArgument(args, ++i));
+                    case "--max-sessions" -> maxSessions = Integer.parseInt(nextArgument(args, ++i));
+                    case "--evaluation-timeout" -> evaluationTimeout = Long.parseLong(nextArgument(args, ++i));
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        try {
+            var scheduler = new EvaluationScheduler(workers, queueCapacity);
+            var server = new EvaluationServer(new InetSocketAddress(host, port), executor.create(threads), scheduler,
+                    sessionTimeout * 1000, maxSessions, evaluationTimeout * 1000);
+            server.start();
+            System.out.println("Listening on " + server.getAddress() + " with the " + executor.getId() + " executor"
+                    + (executor == ExecutorFactory.AUTO ? " (virtual threads " + (ExecutorFactory.isVirtualThreadSupported() ? "enabled" : "unavailable") + ")" : "")
+                    + ".");
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Could not start the server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String nextArgument(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("Missing value for option " + args[i - 1] + ".");
+        return args[i];
+    }
+
+    private static void printHelp() {
+        System.out.println("""
+                Usage: calcium-server [options]
+
+                Options:
+                      --host <host>              the address to bind to, 127.0.0.1 by default
+                  -p, --port <port>              the port to bind to, 8080 by default
+                  -e, --executor <executor>      the executor: auto, virtual, fixed or cached
+                  -t, --threads <count>          the number of threads of the fixed executor
+                  -w, --workers <count>          the number of evaluation workers, the processor count and at least 2 by default
+                      --queue <count>            the maximum number of queued evaluations, 1024 by default
+                      --session-timeout <secs>   the time after which an unused session expires, 1800 by default
+                      --max-sessions <count>     the maximum number of sessions, 100000 by default
+                      --evaluation-timeout <secs>
+                                                 the time budget of the evaluations of a request, 10 by default, 0 for none
+                  -h, --help                     prints this help""");
+    }
+}
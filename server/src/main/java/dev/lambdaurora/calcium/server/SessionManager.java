@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dev.lambdaurora.calcium.server;
+
+import dev.lambdaurora.calcium.symbol.SymbolTable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages the evaluation sessions of the server, each with its own symbol table.
+ * <p>
+ * Sessions which are not used for longer than the timeout are expired by {@link #expire(long)}.
+ */
+final class SessionManager {
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Counts the sessions including the ones being created, so concurrent creations cannot exceed the maximum.
+    private final AtomicInteger count = new AtomicInteger();
+    private final long timeoutMillis;
+    private final int maxSessions;
+
+    SessionManager(long timeoutMillis, int maxSessions) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Creates a new session.
+     *
+     * @return the identifier of the session
+     * @throws IllegalStateException if the maximum number of sessions is reached
+     */
+    String create() {
+        if (this.count.incrementAndGet() > this.maxSessions) {
+            this.count.decrementAndGet();
+            throw new IllegalStateException("Too many sessions.");
+        }
+
+        var id = UUID.randomUUID().toString();
+        this.sessions.put(id, new Session());
+        return id;
+    }
+
+    /**
+     * Returns the session of the given identifier, and marks it as used.
+     *
+     * @param id the identifier
+     * @return the session if it exists, otherwise {@code null}
+     */
+    Session get(String id) {
+        var session = this.sessions.get(id);
+        if (session != null)
+            session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    /**
+     * Removes the session of the given identifier.
+     *
+     * @param id the identifier
+     * @return {@code true} if the session existed, otherwise {@code false}
+     */
+    boolean remove(String id) {
+        if (this.sessions.remove(id) == null)
+            return false;
+        this.count.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns the number of sessions.
+     *
+     * @return the number of sessions
+     */
+    int size() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Removes the sessions unused since longer than the timeout.
+     *
+     * @param now the current time in milliseconds
+     */
+    void expire(long now) {
+        for (var entry : this.sessions.entrySet()) {
+            if (now - entry.getValue().lastAccess > this.timeoutMillis && this.sessions.remove(entry.getKey(), entry.getValue()))
+                this.count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Represents an evaluation session.
+     * <p>
+     * The requests of a session are evaluated one at a time, in the order they acquire the lock.
+     * A lock is used rather than a monitor so waiting virtual threads do not hold their carrier thread.
+     */
+    static final class Session {
+        final SymbolTable symbolTable = new SymbolTable();
+        final ReentrantLock lock = new ReentrantLock(true);
+        volatile long lastAccess = System.currentTimeMillis();
+        // Set with the lock held once an evaluation of the session is abandoned, the symbol table may still be in use.
+        boolean abandoned;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021 LambdAurora <aurora42lambda@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import dev.lambdaurora.calcium.evaluation.EvaluationScheduler;
+import dev.lambdaurora.calcium.server.EvaluationServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EvaluationServerTests {
+    private static final int MAX_SESSIONS = 4;
+    private static final Pattern SESSION = Pattern.compile("\\{\"session\":\"([^\"]+)\"}");
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private EvaluationServer server;
+
+    @Before
+    public void start() throws IOException {
+        this.server = startServer(new EvaluationScheduler(2, 64), 500);
+    }
+
+    @After
+    public void stop() {
+        this.server.stop(0);
+    }
+
+    private static EvaluationServer startServer(EvaluationScheduler scheduler, long evaluationTimeoutMillis) throws IOException {
+        var server = new EvaluationServer(new InetSocketAddress("127.0.0.1", 0), Executors.newFixedThreadPool(4), scheduler,
+                60_000, MAX_SESSIONS, evaluationTimeoutMillis);
+        server.start();
+        return server;
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        return this.send(this.server, method, path, body);
+    }
+
+    private HttpResponse<String> send(EvaluationServer server, String method, String path, String body)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return this.client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String createSession() throws IOException, InterruptedException {
+        var response = this.send("POST", "/sessions", null);
+        assertEquals(201, response.statusCode());
+        var matcher = SESSION.matcher(response.body());
+        assertTrue(response.body(), matcher.matches());
+        return matcher.group(1);
+    }
+
+    @Test
+    public void testEvaluate() throws IOException, InterruptedException {
+        var response = this.send("POST", "/evaluate", "{\"expression\": \"1 + 2i\"}");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"value\":\"1+2i\",\"real\":1,\"imaginary\":2}", response.body());
+    }
+
+    @Test
+    public void testBatch() throws IOException, InterruptedException {
+        // The expressions of a request share a symbol table, and are evaluated in order.
+        var response = this.send("POST", "/evaluate", "{\"expressions\": [\"x = 2\", \"x * 3\", 4, \"y\"]}");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"results\":[{\"value\":\"2\",\"real\":2,\"imaginary\":0},"
+                + "{\"value\":\"6\",\"real\":6,\"imaginary\":0},"
+                + "{\"error\":\"Expected an expression string.\"},"
+                + "{\"error\":\"IllegalStateException: No variable with the name \\\"y\\\" could have been found.\"}]}",
+                response.body());
+
+        // Without a session, nothing carries over to the next request.
+        response = this.send("POST", "/evaluate", "{\"expression\": \"x\"}");
+        assertTrue(response.body(), response.body().startsWith("{\"error\":"));
+    }
+
+    @Test
+    public void testSessionLifecycle() throws IOException, InterruptedException {
+        var session = this.createSession();
+        assertEquals(1, this.server.getSessionCount());
+
+        this.send("POST", "/evaluate", "{\"expression\": \"a = 21\", \"session\": \"" + session + "\"}");
+        var response = this.send("POST", "/evaluate", "{\"expression\": \"a * 2\", \"session\": \"" + session + "\"}");
+        assertEquals("{\"value\":\"42\",\"real\":42,\"imaginary\":0}", response.body());
+
+        assertEquals(204, this.send("DELETE", "/sessions/" + session, null).statusCode());
+        assertEquals(0, this.server.getSessionCount());
+        assertEquals(404, this.send("DELETE", "/sessions/" + session, null).statusCode());
+
+        response = this.send("POST", "/evaluate", "{\"expression\": \"a\", \"session\": \"" + session + "\"}");
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"Unknown session.\"}", response.body());
+    }
+
+    @Test
+    public void testMaxSessions() throws Exception {
+        var pool = Executors.newFixedThreadPool(8);
+        var sessions = new ArrayList<String>();
+        try {
+            var futures = new ArrayList<Future<HttpResponse<String>>>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(pool.submit(() -> this.send("POST", "/sessions", null)));
+            }
+
+            for (var future : futures) {
+                var response = future.get();
+                if (response.statusCode() == 201) {
+                    var matcher = SESSION.matcher(response.body());
+                    assertTrue(response.body(), matcher.matches());
+                    sessions.add(matcher.group(1));
+                } else {
+                    assertEquals(503, response.statusCode());
+                    assertEquals("{\"error\":\"Too many sessions.\"}", response.body());
+                }
+            }
+            assertEquals(MAX_SESSIONS, sessions.size());
+            assertEquals(MAX_SESSIONS, this.server.getSessionCount());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Removing a session makes room for a new one.
+        assertEquals(204, this.send("DELETE", "/sessions/" + sessions.get(0), null).statusCode());
+        this.createSession();
+        assertEquals(503, this.send("POST", "/sessions", null).statusCode());
+    }
+
+    @Test
+    public void testErrors() throws IOException, InterruptedException {
+        var response = this.send("POST", "/evaluate", "{\"expression\": \"1 +\"}");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), response.body().startsWith("{\"error\":\"ParseException: "));
+
+        response = this.send("POST", "/evaluate", "{\"expression\": ");
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body(), response.body().startsWith("{\"error\":"));
+
+        response = this.send("POST", "/evaluate", "{\"formula\": \"1\"}");
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"error\":\"Expected an \\\"expression\\\" string or an \\\"expressions\\\" array.\"}", response.body());
+
+        assertEquals(405, this.send("GET", "/evaluate", null).statusCode());
+        assertEquals(413, this.send("POST", "/evaluate", " ".repeat((1 << 20) + 1)).statusCode());
+    }
+
+    @Test
+    public void testDeepNesting() throws IOException, InterruptedException {
+        var response = this.send("POST", "/evaluate", "{\"expression\": \"" + "(".repeat(500_000) + "\"}");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), response.body().startsWith("{\"error\":\"StackOverflowError: "));
+
+        response = this.send("POST", "/evaluate", "[".repeat(500_000));
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    public void testEvaluationTimeout() throws IOException, InterruptedException {
+        var response = this.send("POST", "/evaluate", "{\"expressions\": [\"sum(0, 10**12, k, k)\", \"1 + 1\"]}");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"results\":[{\"error\":\"The evaluation exceeded its time budget.\"},"
+                + "{\"value\":\"2\",\"real\":2,\"imaginary\":0}]}", response.body());
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        // A single worker busy with the first evaluation, and room for one more in the queue.
+        var scheduler = new EvaluationScheduler(1, 1);
+        var server = startServer(scheduler, 3000);
+        var pool = Executors.newFixedThreadPool(3);
+        try {
+            var futures = new ArrayList<Future<HttpResponse<String>>>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(pool.submit(() -> this.send(server, "POST", "/evaluate", "{\"expression\": \"sum(0, 10**12, k, k)\"}")));
+                // The worker has to take the first evaluation before the next ones fill the queue.
+                while (i == 0 && scheduler.getMetrics().running() == 0) {
+                    Thread.sleep(1);
+                }
+            }
+
+            int rejected = 0;
+            for (var future : futures) {
+                var body = future.get().body();
+                if (body.startsWith("{\"error\":\"RejectedExecutionException: "))
+                    rejected++;
+                else
+                    assertEquals("{\"error\":\"The evaluation exceeded its time budget.\"}", body);
+            }
+            assertEquals(1, rejected);
+        } finally {
+            pool.shutdownNow();
+            server.stop(0);
+        }
+    }
+}